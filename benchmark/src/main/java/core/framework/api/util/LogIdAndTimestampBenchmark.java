@@ -0,0 +1,44 @@
+package core.framework.api.util;
+
+import core.framework.impl.log.IdGenerator;
+import core.framework.impl.log.TimestampFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * @author neo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class LogIdAndTimestampBenchmark {
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String idGenerator() {
+        return IdGenerator.next();
+    }
+
+    @Benchmark
+    public String isoInstant() {
+        return DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(System.currentTimeMillis()));
+    }
+
+    @Benchmark
+    public String timestampFormatter() {
+        return TimestampFormatter.format(System.currentTimeMillis());
+    }
+}
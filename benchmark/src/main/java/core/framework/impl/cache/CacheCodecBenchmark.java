@@ -0,0 +1,82 @@
+package core.framework.impl.cache;
+
+import core.framework.api.util.ClasspathResources;
+import core.framework.api.util.JSON;
+import core.framework.impl.template.model.FilterUIView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compare json and binary codec with large view, bytes stored are logged on setup
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheCodecBenchmark {
+    private final Logger logger = LoggerFactory.getLogger(CacheCodecBenchmark.class);
+    private FilterUIView value;
+    private JSONCacheCodec<FilterUIView> jsonCodec;
+    private BinaryCacheCodec<FilterUIView> binaryCodec;
+    private byte[] json;
+    private byte[] binary;
+    private byte[] compressedJSON;
+    private byte[] compressedBinary;
+
+    @Setup
+    public void setup() {
+        value = JSON.fromJSON(FilterUIView.class, ClasspathResources.text("template-test/filter.json"));
+        jsonCodec = new JSONCacheCodec<>(FilterUIView.class);
+        binaryCodec = new BinaryCacheCodec<>(FilterUIView.class);
+        json = jsonCodec.encode(value);
+        binary = binaryCodec.encode(value);
+        compressedJSON = Compressions.deflate(json);
+        compressedBinary = Compressions.deflate(binary);
+        logger.info("bytes stored, json={}, binary={}, compressedJSON={}, compressedBinary={}", json.length, binary.length, compressedJSON.length, compressedBinary.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJSON() {
+        return jsonCodec.encode(value);
+    }
+
+    @Benchmark
+    public FilterUIView decodeJSON() {
+        return jsonCodec.decode(json, 0, json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binaryCodec.encode(value);
+    }
+
+    @Benchmark
+    public FilterUIView decodeBinary() {
+        return binaryCodec.decode(binary, 0, binary.length);
+    }
+
+    @Benchmark
+    public byte[] encodeCompressedBinary() {
+        return Compressions.deflate(binaryCodec.encode(value));
+    }
+
+    @Benchmark
+    public FilterUIView decodeCompressedBinary() {
+        byte[] data = Compressions.inflate(compressedBinary, 0, compressedBinary.length, binary.length);
+        return binaryCodec.decode(data, 0, data.length);
+    }
+}
@@ -0,0 +1,143 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.kafka.MessageCodec;
+import core.framework.api.util.Charsets;
+import core.framework.api.util.JSON;
+import core.framework.api.util.Lists;
+import core.framework.api.util.Maps;
+import core.framework.impl.cache.BinaryCacheCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * decode one poll of 500 records, json envelope vs binary envelope with json/binary codec, and read headers only (e.g. route or trace)
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KafkaMessageReaderBenchmark {
+    private static final int RECORDS = 500;
+    private KafkaMessageReader<TestMessage> jsonReader;
+    private KafkaMessageReader<TestMessage> binaryReader;
+    private List<byte[]> jsonMessages;
+    private List<byte[]> binaryEnvelopeJSONMessages;
+    private List<byte[]> binaryEnvelopeBinaryMessages;
+
+    @Setup
+    public void setup() {
+        JSONMessageCodec<TestMessage> jsonCodec = new JSONMessageCodec<>(TestMessage.class);
+        BinaryCacheCodec<TestMessage> binaryCacheCodec = new BinaryCacheCodec<>(TestMessage.class);
+        MessageCodec<TestMessage> binaryCodec = new MessageCodec<TestMessage>() {
+            @Override
+            public byte[] encode(TestMessage value) {
+                return binaryCacheCodec.encode(value);
+            }
+
+            @Override
+            public TestMessage decode(byte[] bytes, int offset, int length) {
+                return binaryCacheCodec.decode(bytes, offset, length);
+            }
+        };
+        jsonReader = new KafkaMessageReader<>(TestMessage.class, jsonCodec);
+        binaryReader = new KafkaMessageReader<>(TestMessage.class, binaryCodec);
+
+        jsonMessages = Lists.newArrayList();
+        binaryEnvelopeJSONMessages = Lists.newArrayList();
+        binaryEnvelopeBinaryMessages = Lists.newArrayList();
+        for (int i = 0; i < RECORDS; i++) {
+            TestMessage value = message(i);
+            KafkaMessage<TestMessage> message = new KafkaMessage<>();
+            message.headers = Maps.newHashMap();
+            message.headers.put(KafkaMessage.HEADER_CLIENT_IP, "10.0.0.1");
+            message.headers.put(KafkaMessage.HEADER_CLIENT, "order-service");
+            message.headers.put(KafkaMessage.HEADER_REF_ID, "015a8be6e4b3000001a1b2c3d4e5");
+            message.value = value;
+            jsonMessages.add(JSON.toJSON(message).getBytes(Charsets.UTF_8));
+            binaryEnvelopeJSONMessages.add(binaryMessage(jsonCodec.encode(value)));
+            binaryEnvelopeBinaryMessages.add(binaryMessage(binaryCodec.encode(value)));
+        }
+    }
+
+    private byte[] binaryMessage(byte[] payload) {
+        return BinaryMessageEnvelope.encode(payload, BinaryMessageEnvelope.header(KafkaMessage.HEADER_CLIENT_IP, "10.0.0.1"),
+            BinaryMessageEnvelope.header(KafkaMessage.HEADER_CLIENT, "order-service"),
+            BinaryMessageEnvelope.header(KafkaMessage.HEADER_REF_ID, "015a8be6e4b3000001a1b2c3d4e5"));
+    }
+
+    private TestMessage message(int index) {
+        TestMessage message = new TestMessage();
+        message.id = "order-" + index;
+        message.customerId = "customer-" + index % 50;
+        message.amount = 100.5 * index;
+        message.quantity = index % 10;
+        message.status = "CREATED";
+        message.createdTime = LocalDateTime.of(2017, 3, 1, 10, 0).plusSeconds(index);
+        message.items = Lists.newArrayList("sku-1", "sku-2", "sku-" + index);
+        return message;
+    }
+
+    @Benchmark
+    public void jsonEnvelope(Blackhole blackhole) {
+        for (byte[] message : jsonMessages) {
+            blackhole.consume(jsonReader.read(message));
+        }
+    }
+
+    @Benchmark
+    public void binaryEnvelopeWithJSONCodec(Blackhole blackhole) {
+        for (byte[] message : binaryEnvelopeJSONMessages) {
+            blackhole.consume(jsonReader.read(message));
+        }
+    }
+
+    @Benchmark
+    public void binaryEnvelopeWithBinaryCodec(Blackhole blackhole) {
+        for (byte[] message : binaryEnvelopeBinaryMessages) {
+            blackhole.consume(binaryReader.read(message));
+        }
+    }
+
+    @Benchmark
+    public void binaryEnvelopeHeaders(Blackhole blackhole) {
+        for (byte[] message : binaryEnvelopeJSONMessages) {
+            blackhole.consume(BinaryMessageEnvelope.headers(message));
+        }
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class TestMessage {
+        @XmlElement(name = "id")
+        public String id;
+        @XmlElement(name = "customer_id")
+        public String customerId;
+        @XmlElement(name = "amount")
+        public Double amount;
+        @XmlElement(name = "quantity")
+        public Integer quantity;
+        @XmlElement(name = "status")
+        public String status;
+        @XmlElement(name = "created_time")
+        public LocalDateTime createdTime;
+        @XmlElement(name = "items")
+        public List<String> items;
+    }
+}
@@ -0,0 +1,55 @@
+package core.framework.impl.log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cost of begin/log/end per action, ok action keeps raw events only, warn action materializes trace events
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ActionLogBenchmark {
+    private LogManager logManager;
+    private LoggerImpl logger;
+
+    @Setup
+    public void setup() {
+        logManager = new LogManager();
+        logger = new LoggerImpl("bench", logManager, LogLevel.ERROR, LogLevel.DEBUG);
+    }
+
+    @Benchmark
+    public ActionLog ok() {
+        return action(false);
+    }
+
+    @Benchmark
+    public ActionLog warn() {
+        return action(true);
+    }
+
+    private ActionLog action(boolean warn) {
+        logManager.begin("begin");
+        ActionLog log = logManager.currentActionLog();
+        for (int i = 0; i < 50; i++) {
+            logger.debug("request, key={}, index={}", "value", i);
+        }
+        if (warn) logger.warn("warning, key={}", "value");
+        logManager.end("end");
+        return log;
+    }
+}
@@ -0,0 +1,48 @@
+package core.framework.impl.resource;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * previous pool implementation based on LinkedBlockingDeque, only kept as baseline to compare with {@link Pool}
+ *
+ * @author neo
+ */
+final class DequePool<T> {
+    private final BlockingDeque<PoolItem<T>> idleItems = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger(0);
+    private final Supplier<T> factory;
+    private final int maxSize;
+    private final long checkoutTimeoutInMs;
+
+    DequePool(Supplier<T> factory, int maxSize, long checkoutTimeoutInMs) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.checkoutTimeoutInMs = checkoutTimeoutInMs;
+    }
+
+    PoolItem<T> borrowItem() {
+        PoolItem<T> item = idleItems.poll();
+        if (item != null) return item;
+
+        if (total.get() < maxSize) {
+            total.incrementAndGet();
+            return new PoolItem<>(factory.get());
+        }
+        try {
+            item = idleItems.poll(checkoutTimeoutInMs, TimeUnit.MILLISECONDS);
+            if (item == null) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
+            return item;
+        } catch (InterruptedException e) {
+            throw new Error("interrupted during waiting for next available resource", e);
+        }
+    }
+
+    void returnItem(PoolItem<T> item) {
+        item.returnTime = System.currentTimeMillis();
+        idleItems.push(item);
+    }
+}
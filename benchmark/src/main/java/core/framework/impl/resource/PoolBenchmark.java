@@ -0,0 +1,103 @@
+package core.framework.impl.resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author neo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PoolBenchmark {
+    private static final int MAX_SIZE = 50;     // same as default db/redis pool size
+    private static final int WORK_TOKENS = 100; // simulate work between borrow and return
+
+    private Pool<Object> pool;
+    private DequePool<Object> dequePool;
+
+    @Setup
+    public void setup() {
+        pool = new Pool<>(Object::new, resource -> {
+        });
+        pool.size(MAX_SIZE, MAX_SIZE);
+        pool.checkoutTimeout(Duration.ofMinutes(1));
+        dequePool = new DequePool<>(Object::new, MAX_SIZE, Duration.ofMinutes(1).toMillis());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void pool8(Blackhole blackhole) {
+        borrowAndReturnPoolItem(blackhole);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void pool64(Blackhole blackhole) {
+        borrowAndReturnPoolItem(blackhole);
+    }
+
+    @Benchmark
+    @Threads(256)
+    public void pool256(Blackhole blackhole) {
+        borrowAndReturnPoolItem(blackhole);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void deque8(Blackhole blackhole) {
+        borrowAndReturnDequePoolItem(blackhole);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void deque64(Blackhole blackhole) {
+        borrowAndReturnDequePoolItem(blackhole);
+    }
+
+    @Benchmark
+    @Threads(256)
+    public void deque256(Blackhole blackhole) {
+        borrowAndReturnDequePoolItem(blackhole);
+    }
+
+    private void borrowAndReturnPoolItem(Blackhole blackhole) {
+        PoolItem<Object> item = pool.borrowItem();
+        try {
+            blackhole.consume(item.resource);
+            Blackhole.consumeCPU(WORK_TOKENS);
+        } finally {
+            pool.returnItem(item);
+        }
+    }
+
+    private void borrowAndReturnDequePoolItem(Blackhole blackhole) {
+        PoolItem<Object> item = dequePool.borrowItem();
+        try {
+            blackhole.consume(item.resource);
+            Blackhole.consumeCPU(WORK_TOKENS);
+        } finally {
+            dequePool.returnItem(item);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
+import java.io.OutputStream;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,7 +28,11 @@ import java.util.concurrent.TimeUnit;
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 public class HTMLTemplateBenchmark {
     HTMLTemplate template;
+    HTMLTemplate compiledTemplate;
+    HTMLTemplate listTemplate;      // fragment heavy template with cheap model access, to measure engine overhead
+    HTMLTemplate compiledListTemplate;
     FilterUIView model;
+    OutputStream stream;
 
     @Setup
     public void setup() {
@@ -38,10 +43,52 @@ public class HTMLTemplateBenchmark {
         HTMLTemplateBuilder builder = new HTMLTemplateBuilder(new StringTemplateSource("filter", ClasspathResources.text("template-test/filter.html")), FilterUIView.class);
         builder.message = messages::get;
         template = builder.build();
+        builder.compiled = true;
+        compiledTemplate = builder.build();
+
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            list.append("<ul c:if=\"hasBrands()\"><li c:for=\"brand:brands\"><span c:text=\"brand.brandName\"></span> (<span c:text=\"brand.total\"></span>)</li></ul>")
+                .append("<ul c:if=\"hasVendors()\"><li c:for=\"vendor:vendors\"><span c:text=\"vendor.vendorName\"></span> (<span c:text=\"vendor.total\"></span>)</li></ul>");
+        }
+        HTMLTemplateBuilder listBuilder = new HTMLTemplateBuilder(new StringTemplateSource("list", list.toString()), FilterUIView.class);
+        listTemplate = listBuilder.build();
+        listBuilder.compiled = true;
+        compiledListTemplate = listBuilder.build();
+
+        stream = new OutputStream() {   // discard output, to measure rendering only
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+            }
+        };
     }
 
     @Benchmark
     public void current() {
         template.process(new TemplateContext(model, new CDNManager()));
     }
+
+    @Benchmark
+    public void stream() {
+        template.process(new TemplateContext(model, new CDNManager()), stream);
+    }
+
+    @Benchmark
+    public void compiled() {
+        compiledTemplate.process(new TemplateContext(model, new CDNManager()), stream);
+    }
+
+    @Benchmark
+    public void list() {
+        listTemplate.process(new TemplateContext(model, new CDNManager()), stream);
+    }
+
+    @Benchmark
+    public void listCompiled() {
+        compiledListTemplate.process(new TemplateContext(model, new CDNManager()), stream);
+    }
 }
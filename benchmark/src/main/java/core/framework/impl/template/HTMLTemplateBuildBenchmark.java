@@ -0,0 +1,51 @@
+package core.framework.impl.template;
+
+import core.framework.api.util.ClasspathResources;
+import core.framework.api.util.Properties;
+import core.framework.impl.template.model.FilterUIView;
+import core.framework.impl.template.source.StringTemplateSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measure template build time as startup cost, single shot since every build generates new classes
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HTMLTemplateBuildBenchmark {
+    HTMLTemplateBuilder builder;
+
+    @Setup
+    public void setup() {
+        Properties messages = new Properties();
+        messages.load("template-test/plp_es_GT.properties");
+        builder = new HTMLTemplateBuilder(new StringTemplateSource("filter", ClasspathResources.text("template-test/filter.html")), FilterUIView.class);
+        builder.message = messages::get;
+    }
+
+    @Benchmark
+    public HTMLTemplate interpreted() {
+        builder.compiled = false;
+        return builder.build();
+    }
+
+    @Benchmark
+    public HTMLTemplate compiled() {
+        builder.compiled = true;
+        return builder.build();
+    }
+}
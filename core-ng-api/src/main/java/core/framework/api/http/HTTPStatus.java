@@ -8,6 +8,7 @@ public enum HTTPStatus {
     CREATED(201),
     ACCEPTED(202),
     NO_CONTENT(204),
+    PARTIAL_CONTENT(206),
     MOVED_PERMANENTLY(301),
     SEE_OTHER(303),
     NOT_MODIFIED(304),
@@ -21,6 +22,7 @@ public enum HTTPStatus {
     NOT_ACCEPTABLE(406),
     CONFLICT(409),
     GONE(410),
+    REQUESTED_RANGE_NOT_SATISFIABLE(416),
     UNPROCESSABLE_ENTITY(422),
     TOO_MANY_REQUESTS(429),
     INTERNAL_SERVER_ERROR(500),
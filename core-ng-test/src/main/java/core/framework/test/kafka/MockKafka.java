@@ -2,6 +2,7 @@ package core.framework.test.kafka;
 
 import core.framework.impl.kafka.Kafka;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.MockConsumer;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.clients.producer.MockProducer;
@@ -25,9 +26,9 @@ public class MockKafka extends Kafka {
     }
 
     @Override
-    public Consumer<String, byte[]> consumer(String group, Set<String> topics) {
+    public Consumer<String, byte[]> consumer(String group, Set<String> topics, ConsumerRebalanceListener rebalanceListener) {
         MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
-        consumer.subscribe(topics);
+        consumer.subscribe(topics, rebalanceListener);
         return consumer;
     }
 }
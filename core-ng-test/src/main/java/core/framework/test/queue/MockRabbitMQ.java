@@ -22,7 +22,7 @@ public class MockRabbitMQ implements RabbitMQ {
     }
 
     @Override
-    public RabbitMQConsumer consumer(String queue, int prefetchCount) {
+    public RabbitMQConsumer consumer(String queue, int prefetchCount, RabbitMQConsumer.DeliveryHandler handler) {
         throw new Error("not supported");
     }
 
@@ -1,6 +1,7 @@
 package core.framework.test.redis;
 
 import core.framework.api.redis.Redis;
+import core.framework.api.redis.RedisBatch;
 import core.framework.api.redis.RedisHash;
 import core.framework.api.redis.RedisSet;
 import core.framework.api.util.Exceptions;
@@ -101,6 +102,11 @@ public final class MockRedis implements Redis {
         }
     }
 
+    @Override
+    public RedisBatch batch() {
+        return new MockRedisBatch(this);
+    }
+
     enum ValueType {
         VALUE, HASH, SET
     }
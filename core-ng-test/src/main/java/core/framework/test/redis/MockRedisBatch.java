@@ -0,0 +1,169 @@
+package core.framework.test.redis;
+
+import core.framework.api.redis.RedisBatch;
+import core.framework.api.redis.RedisBatchHash;
+import core.framework.api.redis.RedisBatchSet;
+import core.framework.api.redis.RedisResult;
+import core.framework.api.util.Lists;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * @author neo
+ */
+public final class MockRedisBatch implements RedisBatch {
+    private final MockRedis redis;
+    private final List<Result<?>> commands = Lists.newArrayList();
+    private boolean executed;
+
+    public MockRedisBatch(MockRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public RedisResult<String> get(String key) {
+        return add(() -> redis.get(key));
+    }
+
+    @Override
+    public void set(String key, String value) {
+        add(() -> {
+            redis.set(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void set(String key, String value, Duration expiration) {
+        add(() -> {
+            redis.set(key, value, expiration);
+            return null;
+        });
+    }
+
+    @Override
+    public RedisBatchSet set() {
+        return new RedisBatchSet() {
+            @Override
+            public RedisResult<Boolean> add(String key, String value) {
+                return MockRedisBatch.this.add(() -> redis.set().add(key, value));
+            }
+
+            @Override
+            public RedisResult<Set<String>> members(String key) {
+                return MockRedisBatch.this.add(() -> redis.set().members(key));
+            }
+
+            @Override
+            public RedisResult<Boolean> isMember(String key, String value) {
+                return MockRedisBatch.this.add(() -> redis.set().isMember(key, value));
+            }
+
+            @Override
+            public RedisResult<Boolean> remove(String key, String... values) {
+                return MockRedisBatch.this.add(() -> redis.set().remove(key, values));
+            }
+        };
+    }
+
+    @Override
+    public RedisResult<Boolean> setIfAbsent(String key, String value, Duration expiration) {
+        return add(() -> redis.setIfAbsent(key, value, expiration));
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        add(() -> {
+            redis.expire(key, duration);
+            return null;
+        });
+    }
+
+    @Override
+    public void del(String key) {
+        add(() -> {
+            redis.del(key);
+            return null;
+        });
+    }
+
+    @Override
+    public RedisBatchHash hash() {
+        return new RedisBatchHash() {
+            @Override
+            public RedisResult<String> get(String key, String field) {
+                return add(() -> redis.hash().get(key, field));
+            }
+
+            @Override
+            public RedisResult<Map<String, String>> getAll(String key) {
+                return add(() -> redis.hash().getAll(key));
+            }
+
+            @Override
+            public void set(String key, String field, String value) {
+                add(() -> {
+                    redis.hash().set(key, field, value);
+                    return null;
+                });
+            }
+
+            @Override
+            public void multiSet(String key, Map<String, String> values) {
+                add(() -> {
+                    redis.hash().multiSet(key, values);
+                    return null;
+                });
+            }
+
+            @Override
+            public void del(String key, String... fields) {
+                add(() -> {
+                    redis.hash().del(key, fields);
+                    return null;
+                });
+            }
+        };
+    }
+
+    @Override
+    public void execute() {
+        if (executed) throw new Error("redis batch is already executed");
+        executed = true;
+        for (Result<?> command : commands) {
+            command.execute();
+        }
+    }
+
+    private <T> RedisResult<T> add(Supplier<T> command) {
+        if (executed) throw new Error("redis batch is already executed");
+        Result<T> result = new Result<>(command);
+        commands.add(result);
+        return result;
+    }
+
+    private static final class Result<T> implements RedisResult<T> {
+        private final Supplier<T> command;
+        private boolean executed;
+        private T value;
+
+        Result(Supplier<T> command) {
+            this.command = command;
+        }
+
+        void execute() {
+            value = command.get();
+            executed = true;
+        }
+
+        @Override
+        public T get() {
+            if (!executed) throw new Error("redis batch is not executed yet");
+            return value;
+        }
+    }
+}
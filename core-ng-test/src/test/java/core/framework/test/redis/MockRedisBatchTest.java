@@ -0,0 +1,49 @@
+package core.framework.test.redis;
+
+import core.framework.api.redis.RedisBatch;
+import core.framework.api.redis.RedisResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class MockRedisBatchTest {
+    MockRedis redis;
+
+    @Before
+    public void createMockRedis() {
+        redis = new MockRedis();
+    }
+
+    @Test
+    public void execute() {
+        redis.set("key1", "value1");
+
+        RedisBatch batch = redis.batch();
+        RedisResult<String> value = batch.get("key1");
+        batch.hash().set("key2", "field1", "value1");
+        RedisResult<Map<String, String>> hash = batch.hash().getAll("key2");
+        RedisResult<Boolean> added = batch.set().add("key3", "value1");
+        batch.expire("key2", Duration.ofMinutes(1));
+        batch.execute();
+
+        assertEquals("value1", value.get());
+        assertEquals("value1", hash.get().get("field1"));
+        assertTrue(added.get());
+        assertTrue(redis.set().isMember("key3", "value1"));
+    }
+
+    @Test(expected = Error.class)
+    public void getBeforeExecute() {
+        RedisBatch batch = redis.batch();
+        RedisResult<String> value = batch.get("key1");
+        value.get();
+    }
+}
@@ -0,0 +1,13 @@
+package core.framework.api.cache;
+
+/**
+ * decode throws IncompatibleCacheValueException if data can not be decoded with current schema, e.g. value class changed, which is treated as cache miss,
+ * null value must be encoded as well, cached null is a hit
+ *
+ * @author neo
+ */
+public interface CacheCodec<T> {
+    byte[] encode(T value);
+
+    T decode(byte[] data, int offset, int length);
+}
@@ -0,0 +1,14 @@
+package core.framework.api.cache;
+
+/**
+ * cached value can not be decoded, e.g. value class changed or data is corrupted, which is treated as cache miss
+ *
+ * @author neo
+ */
+public final class IncompatibleCacheValueException extends RuntimeException {
+    private static final long serialVersionUID = 4360185766346547614L;
+
+    public IncompatibleCacheValueException(String message) {
+        super(message, null, false, false);     // expected after value class changed, no need to fill stack trace
+    }
+}
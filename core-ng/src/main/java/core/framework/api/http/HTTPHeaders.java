@@ -5,12 +5,19 @@ package core.framework.api.http;
  */
 public final class HTTPHeaders {
     public static final String ACCEPT = "Accept";
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String ACCEPT_RANGES = "Accept-Ranges";
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+    public static final String CONTENT_RANGE = "Content-Range";
     public static final String CONTENT_TYPE = "Content-Type";
     public static final String CACHE_CONTROL = "Cache-Control";
     public static final String ETAG = "ETag";
     public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
     public static final String IF_NONE_MATCH = "If-None-Match"; // for etag match
+    public static final String IF_RANGE = "If-Range";
     public static final String LAST_MODIFIED = "Last-Modified";
     public static final String LOCATION = "Location";
+    public static final String RANGE = "Range";
     public static final String USER_AGENT = "User-Agent";
+    public static final String VARY = "Vary";
 }
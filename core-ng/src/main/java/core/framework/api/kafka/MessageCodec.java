@@ -0,0 +1,12 @@
+package core.framework.api.kafka;
+
+/**
+ * encode/decode value of binary message envelope
+ *
+ * @author neo
+ */
+public interface MessageCodec<T> {
+    byte[] encode(T value);
+
+    T decode(byte[] bytes, int offset, int length);
+}
@@ -1,5 +1,7 @@
 package core.framework.api.kafka;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author neo
  */
@@ -7,4 +9,9 @@ public interface MessagePublisher<T> {
     void publish(String key, T value);
 
     void publish(String topic, String key, T value);
+
+    // future is completed once message is acknowledged by kafka
+    CompletableFuture<Void> publishAsync(String key, T value);
+
+    CompletableFuture<Void> publishAsync(String topic, String key, T value);
 }
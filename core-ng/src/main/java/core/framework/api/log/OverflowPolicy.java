@@ -0,0 +1,11 @@
+package core.framework.api.log;
+
+/**
+ * how to handle log messages when log forwarder queue is full
+ *
+ * @author neo
+ */
+public enum OverflowPolicy {
+    DROP_OLDEST,    // keep latest messages
+    SAMPLE          // once queue is half full, only keep 1 of 10 OK action logs, and drop oldest if full
+}
@@ -5,12 +5,15 @@ import core.framework.api.http.HTTPMethod;
 import core.framework.api.util.ASCII;
 import core.framework.api.util.Exceptions;
 import core.framework.api.util.Types;
+import core.framework.impl.cache.BoundedLocalCacheStore;
+import core.framework.impl.cache.CacheInvalidator;
 import core.framework.impl.cache.CacheManager;
 import core.framework.impl.cache.CacheStore;
 import core.framework.impl.cache.LocalCacheStore;
 import core.framework.impl.cache.RedisCacheStore;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.redis.RedisImpl;
+import core.framework.impl.redis.RedisSubscriber;
 import core.framework.impl.web.ControllerHolder;
 import core.framework.impl.web.management.CacheController;
 import org.slf4j.Logger;
@@ -50,13 +53,24 @@ public final class CacheConfig {
         state = context.config.cache();
     }
 
+    // unbounded, expired entries are cleaned up periodically
     public void local() {
+        LocalCacheStore cacheStore = new LocalCacheStore();
+        local(cacheStore, cacheStore::cleanup);
+    }
+
+    // local cache store is bounded by max entries and estimated memory of keys/values, less frequently used entries are evicted first
+    public void local(int maxSize, long maxMemoryInBytes) {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(maxSize, maxMemoryInBytes);
+        local(cacheStore, cacheStore::cleanup);
+    }
+
+    private void local(CacheStore cacheStore, Runnable cleanup) {
         if (state.cacheManager != null) throw new Error("cache() is already configured, please configure cache store only once");
 
         logger.info("create local cache store");
-        LocalCacheStore cacheStore = new LocalCacheStore();
         if (!context.isTest()) {
-            context.backgroundTask().scheduleWithFixedDelay(cacheStore::cleanup, Duration.ofMinutes(30));
+            context.backgroundTask().scheduleWithFixedDelay(cleanup, Duration.ofMinutes(30));
         }
         configureCacheManager(cacheStore);
     }
@@ -75,8 +89,14 @@ public final class CacheConfig {
             redis.pool.name("redis-cache");
             redis.timeout(Duration.ofSeconds(1));   // for cache, use shorter timeout than default redis config
             context.shutdownHook.add(redis::close);
+            context.startupHook.add(redis.pool::refresh);   // warm up pool to min size
             context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
+            context.metrics.add(redis.pool.metrics);
             configureCacheManager(new RedisCacheStore(redis));
+
+            CacheInvalidator invalidator = new CacheInvalidator(redis);
+            state.cacheManager.invalidator = invalidator;
+            state.subscriber = new RedisSubscriber(redis, CacheInvalidator.CHANNEL, invalidator);
         }
     }
 
@@ -90,21 +110,24 @@ public final class CacheConfig {
         }
     }
 
-    public void add(String name, Type valueType, Duration duration) {
+    public NamedCacheConfig add(String name, Type valueType, Duration duration) {
         if (state.cacheManager == null) throw Exceptions.error("cache() is not configured");
 
         String cacheName = cacheName(name, valueType);
         logger.info("add cache, cacheName={}, valueType={}, beanName={}", cacheName, valueType.getTypeName(), name);
         Cache<?> cache = state.cacheManager.add(cacheName, valueType, duration);
         context.beanFactory.bind(Types.generic(Cache.class, valueType), name, cache);
+        return new NamedCacheConfig(context, state, cacheName);
     }
 
-    public void add(Type valueType, Duration duration) {
-        add(null, valueType, duration);
+    public NamedCacheConfig add(Type valueType, Duration duration) {
+        return add(null, valueType, duration);
     }
 
     public static class CacheConfigState {
         CacheManager cacheManager;
+        RedisSubscriber subscriber;     // only subscribe invalidation when near cache is enabled
+        boolean subscriberStarted;
 
         public void validate() {
             if (cacheManager.caches().isEmpty()) {
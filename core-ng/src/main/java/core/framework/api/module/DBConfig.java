@@ -33,7 +33,9 @@ public final class DBConfig {
             database.pool.name("db" + (name == null ? "" : "-" + name));
             context.shutdownHook.add(database::close);
             if (!context.isTest()) {
-                context.backgroundTask().scheduleWithFixedDelay(database.pool::refresh, Duration.ofMinutes(30));
+                context.startupHook.add(database.pool::refresh);    // warm up pool to min size
+                context.metrics.add(database.pool.metrics);
+                context.backgroundTask().scheduleWithFixedDelay(database.pool::refresh, Duration.ofMinutes(5));
             }
             context.beanFactory.bind(Database.class, name, database);
         }
@@ -71,6 +73,10 @@ public final class DBConfig {
         database.pool.size(minSize, maxSize);
     }
 
+    public void poolMaxIdleTime(Duration maxIdleTime) {
+        database.pool.maxIdleTime(maxIdleTime);
+    }
+
     public void defaultIsolationLevel(IsolationLevel level) {
         database.operation.transactionManager.defaultIsolationLevel = level;
     }
@@ -1,11 +1,13 @@
 package core.framework.api.module;
 
 import core.framework.api.kafka.BulkMessageHandler;
+import core.framework.api.kafka.MessageCodec;
 import core.framework.api.kafka.MessageHandler;
 import core.framework.api.kafka.MessagePublisher;
 import core.framework.api.util.Exceptions;
 import core.framework.api.util.Types;
 import core.framework.impl.kafka.Kafka;
+import core.framework.impl.kafka.KafkaMessageListener;
 import core.framework.impl.kafka.KafkaMessagePublisher;
 import core.framework.impl.module.ModuleContext;
 import org.slf4j.Logger;
@@ -50,9 +52,11 @@ public final class KafkaConfig {
         if (state.kafka.uri == null) throw Exceptions.error("kafka({}).uri() must be configured first", name == null ? "" : name);
         logger.info("create message publisher, topic={}, messageClass={}, beanName={}", topic, messageClass.getTypeName(), name);
         state.kafka.validator.register(messageClass);
-        MessagePublisher<T> publisher = new KafkaMessagePublisher<>(state.kafka.producer(), state.kafka.validator, topic, messageClass, context.logManager);
+        MessagePublisher<T> publisher = new KafkaMessagePublisher<>(state.kafka.producer(), state.kafka.validator, topic, messageClass, context.logManager,
+            state.kafka.binaryEnvelope ? state.kafka.codec(messageClass) : null);
         context.beanFactory.bind(Types.generic(MessagePublisher.class, messageClass), name, publisher);
         state.handlerAdded = true;
+        state.publisherAdded = true;
     }
 
     public <T> KafkaConfig subscribe(String topic, Class<T> messageClass, MessageHandler<T> handler) {
@@ -75,6 +79,25 @@ public final class KafkaConfig {
         state.kafka.listener().poolSize = poolSize;
     }
 
+    // few consumers poll records into queue per partition, records of each partition are processed in order by worker pool,
+    // partition is paused if maxPollRecords are pending, so throughput scales with workers instead of consumers/partitions
+    public void workerPool(int consumerPoolSize, int workerPoolSize) {
+        if (consumerPoolSize <= 0 || workerPoolSize <= 0)
+            throw Exceptions.error("pool size must be greater than 0, consumerPoolSize={}, workerPoolSize={}", consumerPoolSize, workerPoolSize);
+        KafkaMessageListener listener = state.kafka.listener();
+        listener.poolSize = consumerPoolSize;
+        listener.workerPoolSize = workerPoolSize;
+    }
+
+    // with worker pool, process records of different keys within partition in parallel, records of same key are still processed in order,
+    // for io bound message handler on topic with few partitions, bulk message handler is not affected
+    public void keyOrdered(int concurrencyPerPartition) {
+        KafkaMessageListener listener = state.kafka.listener();
+        if (listener.workerPoolSize <= 0) throw Exceptions.error("kafka({}).workerPool() must be configured first", name == null ? "" : name);
+        if (concurrencyPerPartition <= 0) throw Exceptions.error("concurrency must be greater than 0, value={}", concurrencyPerPartition);
+        listener.keyConcurrency = concurrencyPerPartition;
+    }
+
     public void uri(String uri) {
         if (state.kafka.uri != null)
             throw Exceptions.error("kafka({}).uri() is already configured, uri={}, previous={}", name == null ? "" : name, uri, state.kafka.uri);
@@ -90,10 +113,36 @@ public final class KafkaConfig {
         state.kafka.maxPollRecords = maxPollRecords;
     }
 
+    // producer batches messages sent within linger or up to batch size per partition, and compresses whole batch, e.g. linger 5ms, batch 64K, lz4 for high throughput
+    public void producer(Duration linger, int batchSizeInBytes, String compression) {
+        if (state.publisherAdded) throw Exceptions.error("kafka({}).producer() must be configured before publish()", name == null ? "" : name);
+        if (batchSizeInBytes <= 0) throw Exceptions.error("batch size must be greater than 0, value={}", batchSizeInBytes);
+        if (!"none".equals(compression) && !"gzip".equals(compression) && !"snappy".equals(compression) && !"lz4".equals(compression))
+            throw Exceptions.error("compression must be one of none/gzip/snappy/lz4, value={}", compression);
+        state.kafka.linger = linger;
+        state.kafka.batchSize = batchSizeInBytes;
+        state.kafka.compression = compression;
+    }
+
+    // publish message with binary envelope (headers in front of value encoded by codec), not to parse headers and value as one json document,
+    // listener reads both json and binary envelope, so consumers must be upgraded before publishers switch,
+    // header value (e.g. refId) must be less than 64K bytes in utf-8, otherwise publish fails
+    public void binaryEnvelope() {
+        if (state.publisherAdded) throw Exceptions.error("kafka({}).binaryEnvelope() must be configured before publish()", name == null ? "" : name);
+        state.kafka.binaryEnvelope = true;
+    }
+
+    // codec of binary envelope value, json by default, it must be same on both publisher and listener side
+    public <T> void codec(Class<T> messageClass, MessageCodec<T> codec) {
+        if (state.handlerAdded) throw Exceptions.error("kafka({}).codec() must be configured before publish()/subscribe()", name == null ? "" : name);
+        state.kafka.codec(messageClass, codec);
+    }
+
     public static class KafkaConfigState {
         final String name;
         Kafka kafka;
         boolean handlerAdded;
+        boolean publisherAdded;
 
         public KafkaConfigState(String name) {
             this.name = name;
@@ -1,7 +1,12 @@
 package core.framework.api.module;
 
 import core.framework.api.log.MessageFilter;
+import core.framework.api.log.OverflowPolicy;
+import core.framework.api.util.Exceptions;
+import core.framework.impl.log.ActionLogSampler;
 import core.framework.impl.log.ActionLogger;
+import core.framework.impl.log.ActionMetrics;
+import core.framework.impl.log.AsyncLogWriter;
 import core.framework.impl.log.LogForwarder;
 import core.framework.impl.log.TraceLogger;
 import core.framework.impl.log.stat.CollectStatsTask;
@@ -56,15 +61,57 @@ public final class LogConfig {
     }
 
     public void forwardLog(String kafkaURI) {
+        forwardLog(kafkaURI, 10000, OverflowPolicy.DROP_OLDEST);
+    }
+
+    // messages are dropped by overflow policy if queue is full, to protect app from log storm
+    public void forwardLog(String kafkaURI, int maxQueueSize, OverflowPolicy overflowPolicy) {
         if (context.isTest()) {
             logger.info("disable log forwarding during test");
         } else {
-            context.logManager.logForwarder = new LogForwarder(kafkaURI, context.logManager.appName);
+            context.logManager.logForwarder = new LogForwarder(kafkaURI, context.logManager.appName, maxQueueSize, overflowPolicy);
             context.metrics.add(context.logManager.logForwarder.producerMetrics);
+            context.metrics.add(context.logManager.logForwarder.metrics);
+            context.logManager.actionMetrics = new ActionMetrics();     // per action latency stats, only published by collect stats task
+            context.metrics.add(context.logManager.actionMetrics);
             context.backgroundTask().scheduleWithFixedDelay(new CollectStatsTask(context.logManager.logForwarder, context.metrics), Duration.ofSeconds(10));
         }
     }
 
+    // only forward rate of OK action logs, WARN/ERROR/trace and actions slower than slowThreshold are always forwarded
+    public void sampleActionLog(double rate, Duration slowThreshold) {
+        actionLogSampler().rate(validateRate(rate), slowThreshold);
+    }
+
+    // override rate for specific action, e.g. health check
+    public void sampleActionLog(String action, double rate) {
+        actionLogSampler().rate(action, validateRate(rate));
+    }
+
+    private ActionLogSampler actionLogSampler() {
+        if (context.logManager.actionLogSampler == null) {
+            context.logManager.actionLogSampler = new ActionLogSampler();
+            context.metrics.add(context.logManager.actionLogSampler);
+        }
+        return context.logManager.actionLogSampler;
+    }
+
+    private double validateRate(double rate) {
+        if (rate < 0 || rate > 1) throw Exceptions.error("rate must be between 0 and 1, rate={}", rate);
+        return rate;
+    }
+
+    // write action/trace log in background thread, request thread only puts action log into queue, logs are dropped if queue is full
+    public void writeLogAsync(int maxQueueSize) {
+        if (context.isTest()) {
+            logger.info("disable async log writer during test");
+        } else {
+            AsyncLogWriter writer = new AsyncLogWriter(maxQueueSize);
+            context.logManager.asyncLogWriter = writer;
+            context.metrics.add(writer);
+        }
+    }
+
     public void filter(MessageFilter filter) {
         context.logManager.filter = filter;
     }
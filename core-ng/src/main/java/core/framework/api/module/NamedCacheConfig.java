@@ -0,0 +1,71 @@
+package core.framework.api.module;
+
+import core.framework.api.async.Executor;
+import core.framework.api.cache.CacheCodec;
+import core.framework.api.util.Exceptions;
+import core.framework.impl.cache.BinaryCacheCodec;
+import core.framework.impl.cache.CacheImpl;
+import core.framework.impl.module.ModuleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * @author neo
+ */
+public final class NamedCacheConfig {
+    private final Logger logger = LoggerFactory.getLogger(NamedCacheConfig.class);
+    private final ModuleContext context;
+    private final CacheConfig.CacheConfigState state;
+    private final String name;
+
+    NamedCacheConfig(ModuleContext context, CacheConfig.CacheConfigState state, String name) {
+        this.context = context;
+        this.state = state;
+        this.name = name;
+    }
+
+    // keep decoded values in process in front of cache store, evicted by put/evict on any node via redis pub/sub,
+    // duration should be short, as invalidation message may be lost during redis reconnecting
+    public NamedCacheConfig nearCache(int maxSize, Duration duration) {
+        logger.info("enable near cache, cacheName={}, maxSize={}, duration={}", name, maxSize, duration);
+        state.cacheManager.nearCache(name, maxSize, duration);
+
+        if (state.subscriber != null && !state.subscriberStarted) {
+            context.startupHook.add(state.subscriber::start);
+            context.shutdownHook.add(state.subscriber::stop);
+            state.subscriberStarted = true;
+        }
+        return this;
+    }
+
+    // keep value in cache store for extra maxStale after expiration, return stale value and reload in background, to avoid load spike when hot key expires
+    public NamedCacheConfig staleWhileRevalidate(Duration maxStale) {
+        logger.info("enable stale while revalidate, cacheName={}, maxStale={}", name, maxStale);
+        Executor executor = context.isTest() ? null : context.beanFactory.bean(Executor.class, null);  // refresh synchronously during test
+        state.cacheManager.staleWhileRevalidate(name, maxStale, executor);
+        return this;
+    }
+
+    // compact binary codec instead of json, cached data written by different version of value class is treated as cache miss
+    public NamedCacheConfig binaryCodec() {
+        logger.info("use binary codec, cacheName={}", name);
+        CacheImpl<?> cache = state.cacheManager.get(name).orElseThrow(() -> Exceptions.error("cache not found, name={}", name));
+        state.cacheManager.codec(name, new BinaryCacheCodec<>(cache.valueType));
+        return this;
+    }
+
+    public NamedCacheConfig codec(CacheCodec<?> codec) {
+        logger.info("use cache codec, cacheName={}, codec={}", name, codec.getClass().getCanonicalName());
+        state.cacheManager.codec(name, codec);
+        return this;
+    }
+
+    // compress encoded value by deflater if it's larger than threshold
+    public NamedCacheConfig compress(int thresholdInBytes) {
+        logger.info("enable compression, cacheName={}, threshold={}", name, thresholdInBytes);
+        state.cacheManager.compress(name, thresholdInBytes);
+        return this;
+    }
+}
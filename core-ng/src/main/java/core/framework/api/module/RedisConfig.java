@@ -2,6 +2,7 @@ package core.framework.api.module;
 
 import core.framework.api.redis.Redis;
 import core.framework.impl.module.ModuleContext;
+import core.framework.impl.redis.AutoPipeline;
 import core.framework.impl.redis.RedisImpl;
 
 import java.time.Duration;
@@ -25,6 +26,8 @@ public final class RedisConfig {
             } else {
                 RedisImpl redis = new RedisImpl();
                 context.shutdownHook.add(redis::close);
+                context.startupHook.add(redis.pool::refresh);   // warm up pool to min size
+                context.metrics.add(redis.pool.metrics);
                 context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
                 this.redis = redis;
             }
@@ -47,6 +50,20 @@ public final class RedisConfig {
         }
     }
 
+    public void poolMaxIdleTime(Duration maxIdleTime) {
+        if (!context.isTest()) {
+            ((RedisImpl) redis).pool.maxIdleTime(maxIdleTime);
+        }
+    }
+
+    public void autoPipelining(int connections) {
+        if (!context.isTest()) {
+            AutoPipeline autoPipeline = ((RedisImpl) redis).autoPipelining(connections);
+            context.startupHook.add(autoPipeline::start);
+            context.shutdownHook.add(autoPipeline::stop);   // shutdown hooks run in reverse order, so it stops before redis is closed
+        }
+    }
+
     public void slowOperationThreshold(Duration threshold) {
         if (!context.isTest()) {
             ((RedisImpl) redis).slowOperationThreshold(threshold);
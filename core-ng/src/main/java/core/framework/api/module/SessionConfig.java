@@ -46,7 +46,9 @@ public final class SessionConfig {
             RedisImpl redis = new RedisImpl();
             redis.host(host);
             redis.pool.name("redis-session");
+            context.startupHook.add(redis.pool::refresh);   // warm up pool to min size
             context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
+            context.metrics.add(redis.pool.metrics);
 
             context.shutdownHook.add(redis::close);
             context.httpServer.siteManager.sessionManager.sessionStore(new RedisSessionStore(redis));
@@ -3,6 +3,7 @@ package core.framework.api.module;
 import core.framework.api.http.HTTPMethod;
 import core.framework.api.util.Exceptions;
 import core.framework.api.web.site.Message;
+import core.framework.api.web.site.WebDirectory;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.web.ControllerHolder;
 import core.framework.impl.web.site.HTTPSOnlyInterceptor;
@@ -43,6 +44,12 @@ public final class SiteConfig {
         context.httpServer.siteManager.messageManager.load(paths, languages);
     }
 
+    // generate one class per template and language to render, faster than interpreting fragments, must be configured before adding templates
+    public void compileTemplate() {
+        if (!context.httpServer.siteManager.templateManager.templates.isEmpty()) throw new Error("compileTemplate() must be configured before adding templates");
+        context.httpServer.siteManager.templateManager.compiled = true;
+    }
+
     public void template(String path, Class<?> modelClass) {
         context.httpServer.siteManager.messageManager.freeze(); // can not configure message() after adding template
         context.httpServer.siteManager.templateManager.add(path, modelClass);
@@ -50,14 +57,15 @@ public final class SiteConfig {
 
     public void staticContent(String path) {
         logger.info("add static content path, path={}", path);
-        Path contentPath = context.httpServer.siteManager.webDirectory.path(path);
+        WebDirectory webDirectory = context.httpServer.siteManager.webDirectory;
+        Path contentPath = webDirectory.path(path);
         if (!Files.exists(contentPath, LinkOption.NOFOLLOW_LINKS)) {
             throw Exceptions.error("path does not exist, path={}", path);
         }
         if (Files.isDirectory(contentPath)) {
-            context.httpServer.handler.route.add(HTTPMethod.GET, path + "/:path(*)", new ControllerHolder(new StaticDirectoryController(contentPath), true));
+            context.httpServer.handler.route.add(HTTPMethod.GET, path + "/:path(*)", new ControllerHolder(new StaticDirectoryController(contentPath, webDirectory.localEnv), true));
         } else {
-            context.httpServer.handler.route.add(HTTPMethod.GET, path, new ControllerHolder(new StaticFileController(contentPath), true));
+            context.httpServer.handler.route.add(HTTPMethod.GET, path, new ControllerHolder(new StaticFileController(contentPath, webDirectory.localEnv), true));
         }
     }
 
@@ -29,4 +29,6 @@ public interface Redis {
     RedisHash hash();
 
     void forEach(String pattern, Consumer<String> consumer);
+
+    RedisBatch batch();
 }
@@ -0,0 +1,28 @@
+package core.framework.api.redis;
+
+import java.time.Duration;
+
+/**
+ * queue commands and send them in one round trip on {@link #execute()}
+ *
+ * @author neo
+ */
+public interface RedisBatch {
+    RedisResult<String> get(String key);
+
+    void set(String key, String value);
+
+    void set(String key, String value, Duration expiration);
+
+    RedisBatchSet set();
+
+    RedisResult<Boolean> setIfAbsent(String key, String value, Duration expiration);
+
+    void expire(String key, Duration duration);
+
+    void del(String key);
+
+    RedisBatchHash hash();
+
+    void execute();
+}
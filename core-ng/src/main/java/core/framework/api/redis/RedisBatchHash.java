@@ -0,0 +1,18 @@
+package core.framework.api.redis;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+public interface RedisBatchHash {
+    RedisResult<String> get(String key, String field);
+
+    RedisResult<Map<String, String>> getAll(String key);
+
+    void set(String key, String field, String value);
+
+    void multiSet(String key, Map<String, String> values);
+
+    void del(String key, String... fields);
+}
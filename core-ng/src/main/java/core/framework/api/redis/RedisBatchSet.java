@@ -0,0 +1,16 @@
+package core.framework.api.redis;
+
+import java.util.Set;
+
+/**
+ * @author neo
+ */
+public interface RedisBatchSet {
+    RedisResult<Boolean> add(String key, String value);
+
+    RedisResult<Set<String>> members(String key);
+
+    RedisResult<Boolean> isMember(String key, String value);
+
+    RedisResult<Boolean> remove(String key, String... values);
+}
@@ -0,0 +1,10 @@
+package core.framework.api.redis;
+
+/**
+ * result of command queued in {@link RedisBatch}, only available after batch executed
+ *
+ * @author neo
+ */
+public interface RedisResult<T> {
+    T get();
+}
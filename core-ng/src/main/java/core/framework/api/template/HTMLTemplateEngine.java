@@ -22,6 +22,7 @@ public final class HTMLTemplateEngine {
     private final Logger logger = LoggerFactory.getLogger(HTMLTemplateEngine.class);
     private final Map<String, HTMLTemplate> templates = Maps.newConcurrentHashMap();
     private final CDNManager cdnManager = new CDNManager();
+    private boolean compiled;
 
     public String process(String name, Object model) {
         StopWatch watch = new StopWatch();
@@ -35,6 +36,12 @@ public final class HTMLTemplateEngine {
         }
     }
 
+    // generate one class per template to render, faster than interpreting fragments, must be called before adding templates
+    public void compile() {
+        if (!templates.isEmpty()) throw new Error("compile() must be called before adding templates");
+        compiled = true;
+    }
+
     public void add(String name, String template, Class<?> modelClass) {
         add(new StringTemplateSource(name, template), modelClass);
     }
@@ -47,7 +54,9 @@ public final class HTMLTemplateEngine {
         StopWatch watch = new StopWatch();
         String name = source.name();
         try {
-            HTMLTemplate previous = templates.putIfAbsent(name, new HTMLTemplateBuilder(source, modelClass).build());
+            HTMLTemplateBuilder builder = new HTMLTemplateBuilder(source, modelClass);
+            builder.compiled = compiled;
+            HTMLTemplate previous = templates.putIfAbsent(name, builder.build());
             if (previous != null) throw Exceptions.error("template is already added, name={}", name);
         } finally {
             logger.info("add, name={}, modelClass={}, elapsedTime={}", name, modelClass.getCanonicalName(), watch.elapsedTime());
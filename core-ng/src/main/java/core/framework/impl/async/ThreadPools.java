@@ -1,5 +1,6 @@
 package core.framework.impl.async;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -19,6 +20,13 @@ public final class ThreadPools {
         return threadPool;
     }
 
+    // queue is bounded, task is rejected with RejectedExecutionException if queue is full or pool is shutdown, caller must handle rejection
+    public static ExecutorService boundedThreadPool(int poolSize, int queueSize, String prefix) {
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), new ThreadFactoryImpl(prefix), new ThreadPoolExecutor.AbortPolicy());
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
     public static ExecutorService fixedThreadPool(int poolSize, String prefix) {
         return Executors.newFixedThreadPool(poolSize, new ThreadFactoryImpl(prefix));
     }
@@ -0,0 +1,380 @@
+package core.framework.impl.cache;
+
+import core.framework.api.cache.CacheCodec;
+import core.framework.api.cache.IncompatibleCacheValueException;
+import core.framework.api.util.Exceptions;
+import core.framework.impl.reflect.GenericTypes;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * compact binary format without field names, fields are written in name order, every value is prefixed with 1 byte null flag,
+ * numbers are written as zigzag varint, enum is written as name, so it's safe to reorder enum constants,
+ * <p>
+ * data starts with hash of schema (class/field names and types), data written by different version of value class is treated as cache miss,
+ * value type must be validated by CacheTypeValidator before creating codec
+ *
+ * @author neo
+ */
+public final class BinaryCacheCodec<T> implements CacheCodec<T> {
+    private final ValueCodec codec;
+    private final int schemaHash;
+
+    public BinaryCacheCodec(Type valueType) {
+        StringBuilder schema = new StringBuilder();
+        codec = codec(valueType, schema);
+        schemaHash = schema.toString().hashCode();
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        BinaryOutput output = new BinaryOutput();
+        output.writeInt(schemaHash);
+        write(output, codec, value);
+        return output.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(byte[] data, int offset, int length) {
+        BinaryInput input = new BinaryInput(data, offset, length);
+        if (length < 4 || input.readInt() != schemaHash) throw new IncompatibleCacheValueException("schema of cached value does not match value class");
+        return (T) read(input, codec);
+    }
+
+    private ValueCodec codec(Type type, StringBuilder schema) {
+        if (GenericTypes.isList(type)) {
+            schema.append("list<");
+            ValueCodec valueCodec = codec(GenericTypes.listValueClass(type), schema);
+            schema.append('>');
+            return new ListCodec(valueCodec);
+        }
+        if (GenericTypes.isMap(type)) {
+            schema.append("map<");
+            ValueCodec valueCodec = codec(GenericTypes.mapValueClass(type), schema);
+            schema.append('>');
+            return new MapCodec(valueCodec);
+        }
+        Class<?> valueClass = GenericTypes.rawClass(type);
+        schema.append(valueClass.getName());
+        ValueCodec codec = valueCodec(valueClass);
+        if (codec != null) return codec;
+        return objectCodec(valueClass, schema);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ValueCodec valueCodec(Class<?> valueClass) {
+        if (String.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeString((String) value);
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return input.readString();
+            }
+        };
+        if (Integer.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeVarLong((Integer) value);
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return (int) input.readVarLong();
+            }
+        };
+        if (Long.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeVarLong((Long) value);
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return input.readVarLong();
+            }
+        };
+        if (Double.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeLong(Double.doubleToRawLongBits((Double) value));
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return Double.longBitsToDouble(input.readLong());
+            }
+        };
+        if (Boolean.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeByte((Boolean) value ? 1 : 0);
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return input.readByte() == 1;
+            }
+        };
+        if (BigDecimal.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeString(value.toString());
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return new BigDecimal(input.readString());
+            }
+        };
+        if (LocalDate.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeVarLong(((LocalDate) value).toEpochDay());
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return LocalDate.ofEpochDay(input.readVarLong());
+            }
+        };
+        if (LocalDateTime.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                output.writeVarLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+                output.writeVarLong(dateTime.getNano());
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                long seconds = input.readVarLong();
+                return LocalDateTime.ofEpochSecond(seconds, (int) input.readVarLong(), ZoneOffset.UTC);
+            }
+        };
+        if (Instant.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                Instant instant = (Instant) value;
+                output.writeVarLong(instant.getEpochSecond());
+                output.writeVarLong(instant.getNano());
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                long seconds = input.readVarLong();
+                return Instant.ofEpochSecond(seconds, input.readVarLong());
+            }
+        };
+        if (ZonedDateTime.class.equals(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                ZonedDateTime dateTime = (ZonedDateTime) value;
+                output.writeVarLong(dateTime.toEpochSecond());
+                output.writeVarLong(dateTime.getNano());
+                output.writeString(dateTime.getZone().getId());
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                long seconds = input.readVarLong();
+                long nano = input.readVarLong();
+                return ZonedDateTime.ofInstant(Instant.ofEpochSecond(seconds, nano), ZoneId.of(input.readString()));
+            }
+        };
+        if (Enum.class.isAssignableFrom(valueClass)) return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput output, Object value) {
+                output.writeString(((Enum<?>) value).name());
+            }
+
+            @Override
+            public Object read(BinaryInput input) {
+                return Enum.valueOf((Class<Enum>) valueClass, input.readString());
+            }
+        };
+        if ("org.bson.types.ObjectId".equals(valueClass.getCanonicalName())) {
+            Constructor<?> constructor = constructor(valueClass, String.class);
+            return new ValueCodec() {
+                @Override
+                public void write(BinaryOutput output, Object value) {
+                    output.writeString(value.toString());
+                }
+
+                @Override
+                public Object read(BinaryInput input) {
+                    return newInstance(constructor, input.readString());
+                }
+            };
+        }
+        return null;
+    }
+
+    private ValueCodec objectCodec(Class<?> objectClass, StringBuilder schema) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : objectClass.getDeclaredFields()) {
+            if (field.getName().startsWith("$")) continue;  // ignore dynamic/generated field, e.g. jacoco
+            if (Modifier.isStatic(field.getModifiers())) continue;
+            fields.add(field);
+        }
+        fields.sort(Comparator.comparing(Field::getName));    // declared order is not guaranteed to be same on all nodes
+
+        schema.append('{');
+        Field[] objectFields = fields.toArray(new Field[fields.size()]);
+        ValueCodec[] fieldCodecs = new ValueCodec[objectFields.length];
+        for (int i = 0; i < objectFields.length; i++) {
+            schema.append(objectFields[i].getName()).append(':');
+            fieldCodecs[i] = codec(objectFields[i].getGenericType(), schema);
+            schema.append(';');
+        }
+        schema.append('}');
+        return new ObjectCodec(constructor(objectClass), objectFields, fieldCodecs);
+    }
+
+    private static Constructor<?> constructor(Class<?> objectClass, Class<?>... parameterTypes) {
+        try {
+            return objectClass.getConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw Exceptions.error("class must have public constructor, class={}, parameters={}", objectClass.getCanonicalName(), Arrays.toString(parameterTypes));
+        }
+    }
+
+    private static Object newInstance(Constructor<?> constructor, Object... arguments) {
+        try {
+            return constructor.newInstance(arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new Error(e);
+        }
+    }
+
+    private static void write(BinaryOutput output, ValueCodec codec, Object value) {
+        if (value == null) {
+            output.writeByte(0);
+        } else {
+            output.writeByte(1);
+            codec.write(output, value);
+        }
+    }
+
+    private static Object read(BinaryInput input, ValueCodec codec) {
+        if (input.readByte() == 0) return null;
+        return codec.read(input);
+    }
+
+    interface ValueCodec {
+        void write(BinaryOutput output, Object value);
+
+        Object read(BinaryInput input);
+    }
+
+    static final class ObjectCodec implements ValueCodec {
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+        private final ValueCodec[] codecs;
+
+        ObjectCodec(Constructor<?> constructor, Field[] fields, ValueCodec[] codecs) {
+            this.constructor = constructor;
+            this.fields = fields;
+            this.codecs = codecs;
+        }
+
+        @Override
+        public void write(BinaryOutput output, Object value) {
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    BinaryCacheCodec.write(output, codecs[i], fields[i].get(value));
+                }
+            } catch (IllegalAccessException e) {
+                throw new Error(e);
+            }
+        }
+
+        @Override
+        public Object read(BinaryInput input) {
+            Object instance = newInstance(constructor);
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i].set(instance, BinaryCacheCodec.read(input, codecs[i]));
+                }
+            } catch (IllegalAccessException e) {
+                throw new Error(e);
+            }
+            return instance;
+        }
+    }
+
+    static final class ListCodec implements ValueCodec {
+        private final ValueCodec codec;
+
+        ListCodec(ValueCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public void write(BinaryOutput output, Object value) {
+            List<?> list = (List<?>) value;
+            output.writeVarLong(list.size());
+            for (Object item : list) {
+                BinaryCacheCodec.write(output, codec, item);
+            }
+        }
+
+        @Override
+        public Object read(BinaryInput input) {
+            int size = (int) input.readVarLong();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(BinaryCacheCodec.read(input, codec));
+            }
+            return list;
+        }
+    }
+
+    static final class MapCodec implements ValueCodec {
+        private final ValueCodec codec;
+
+        MapCodec(ValueCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public void write(BinaryOutput output, Object value) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                output.writeString((String) entry.getKey());
+                BinaryCacheCodec.write(output, codec, entry.getValue());
+            }
+        }
+
+        @Override
+        public Object read(BinaryInput input) {
+            int size = (int) input.readVarLong();
+            Map<String, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);  // keep order as JSON does
+            for (int i = 0; i < size; i++) {
+                String key = input.readString();
+                map.put(key, BinaryCacheCodec.read(input, codec));
+            }
+            return map;
+        }
+    }
+}
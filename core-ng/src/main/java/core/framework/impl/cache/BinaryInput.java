@@ -0,0 +1,49 @@
+package core.framework.impl.cache;
+
+import core.framework.api.util.Charsets;
+import core.framework.api.util.Exceptions;
+
+/**
+ * @author neo
+ */
+final class BinaryInput {
+    private final byte[] bytes;
+    private int position;
+
+    BinaryInput(byte[] bytes, int offset, int length) {
+        if (offset + length > bytes.length) throw Exceptions.error("invalid data, offset={}, length={}", offset, length);
+        this.bytes = bytes;
+        position = offset;
+    }
+
+    byte readByte() {
+        return bytes[position++];
+    }
+
+    int readInt() {
+        return (bytes[position++] & 0xFF) << 24 | (bytes[position++] & 0xFF) << 16 | (bytes[position++] & 0xFF) << 8 | bytes[position++] & 0xFF;
+    }
+
+    long readLong() {
+        return (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+    }
+
+    long readVarLong() {
+        long zigzag = 0;
+        int shift = 0;
+        byte value;
+        do {
+            value = bytes[position++];
+            zigzag |= (long) (value & 0x7F) << shift;
+            shift += 7;
+        } while ((value & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    String readString() {
+        int length = (int) readVarLong();
+        String value = new String(bytes, position, length, Charsets.UTF_8);
+        position += length;
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+package core.framework.impl.cache;
+
+import core.framework.api.util.Charsets;
+
+import java.util.Arrays;
+
+/**
+ * @author neo
+ */
+final class BinaryOutput {
+    private byte[] bytes = new byte[256];
+    private int position;
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[position++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+        ensureCapacity(4);
+        bytes[position++] = (byte) (value >>> 24);
+        bytes[position++] = (byte) (value >>> 16);
+        bytes[position++] = (byte) (value >>> 8);
+        bytes[position++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        bytes[position++] = (byte) zigzag;
+    }
+
+    void writeString(String value) {
+        byte[] data = value.getBytes(Charsets.UTF_8);
+        writeVarLong(data.length);
+        ensureCapacity(data.length);
+        System.arraycopy(data, 0, bytes, position, data.length);
+        position += data.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, position);
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, position + length));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package core.framework.impl.cache;
+
+import core.framework.api.util.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * local cache store bounded by max entries and max memory (estimated by key/value size),
+ * get is lock free, only record access time and frequency, put/delete/evict are synchronized,
+ * <p>
+ * eviction samples random entries (similar to redis approximated LRU), and picks expired one first, then the least frequently used, then the least recently used,
+ * new entry is admitted only if it's not less frequently used than the victim (TinyLFU), to keep hot entries from one-time scan
+ *
+ * @author neo
+ */
+public class BoundedLocalCacheStore implements CacheStore {
+    private static final int EVICTION_SAMPLES = 5;
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(BoundedLocalCacheStore.class);
+    private final Map<String, CacheItem> caches = Maps.newConcurrentHashMap();
+    private final List<CacheItem> items = new ArrayList<>();  // for random sampling, guarded by this
+    private final Map<String, LongAdder> evictions = Maps.newConcurrentHashMap();
+    private final FrequencySketch sketch;
+    private final int maxSize;
+    private final long maxMemory;
+    private long memory;    // guarded by this
+
+    public BoundedLocalCacheStore(int maxSize, long maxMemory) {
+        this.maxSize = maxSize;
+        this.maxMemory = maxMemory;
+        sketch = new FrequencySketch(maxSize);
+    }
+
+    @Override
+    public byte[] get(String key) {
+        sketch.increment(key);      // record miss as well, so the frequency of new entry is known on admission
+        CacheItem item = caches.get(key);
+        if (item == null) return null;
+        long now = System.currentTimeMillis();
+        if (item.expired(now)) {
+            synchronized (this) {
+                if (item.index >= 0) removeItem(item);
+            }
+            return null;
+        }
+        item.accessTime = now;
+        return item.value;
+    }
+
+    @Override
+    public Map<String, byte[]> getAll(String[] keys) {
+        Map<String, byte[]> results = Maps.newHashMapWithExpectedSize(keys.length);
+        for (String key : keys) {
+            byte[] value = get(key);
+            if (value != null) results.put(key, value);
+        }
+        return results;
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration expiration) {
+        long now = System.currentTimeMillis();
+        CacheItem item = new CacheItem(key, value, now + expiration.toMillis(), key.length() * 2 + value.length + ENTRY_OVERHEAD);
+        item.accessTime = now;
+        synchronized (this) {
+            CacheItem previous = caches.get(key);
+            if (previous != null) removeItem(previous);
+            if (item.weight > maxMemory) {
+                logger.warn("cache value is too large for local cache store, key={}, size={}", key, value.length);
+                return;
+            }
+            while (!items.isEmpty() && (items.size() >= maxSize || memory + item.weight > maxMemory)) {
+                CacheItem victim = sampleVictim(now);
+                if (previous == null && !victim.expired(now) && sketch.frequency(key) < sketch.frequency(victim.key)) {
+                    logger.debug("reject new cache entry, which is less frequently used than existing entries, key={}", key);
+                    return;
+                }
+                removeItem(victim);
+                evicted(victim.key);
+            }
+            addItem(item);
+        }
+    }
+
+    @Override
+    public void putAll(Map<String, byte[]> values, Duration expiration) {
+        values.forEach((key, value) -> put(key, value, expiration));
+    }
+
+    @Override
+    public synchronized void delete(String key) {
+        CacheItem item = caches.get(key);
+        if (item != null) removeItem(item);
+    }
+
+    public synchronized void cleanup() {
+        logger.info("clean up local cache store");
+        long now = System.currentTimeMillis();
+        for (int i = items.size() - 1; i >= 0; i--) {
+            CacheItem item = items.get(i);
+            if (item.expired(now)) removeItem(item);
+        }
+    }
+
+    // cache key is prefixed by cache name, refer to CacheImpl
+    public long evictions(String name) {
+        LongAdder counter = evictions.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public int size() {
+        return caches.size();
+    }
+
+    private void evicted(String key) {
+        int index = key.indexOf(':');
+        String name = index < 0 ? key : key.substring(0, index);
+        evictions.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    private CacheItem sampleVictim(long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CacheItem victim = null;
+        int victimFrequency = 0;
+        for (int i = 0; i < EVICTION_SAMPLES; i++) {
+            CacheItem item = items.get(random.nextInt(items.size()));
+            if (item.expired(now)) return item;
+            int frequency = sketch.frequency(item.key);
+            if (victim == null || frequency < victimFrequency || frequency == victimFrequency && item.accessTime < victim.accessTime) {
+                victim = item;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private void addItem(CacheItem item) {
+        item.index = items.size();
+        items.add(item);
+        caches.put(item.key, item);
+        memory += item.weight;
+    }
+
+    // swap with last item to remove in O(1)
+    private void removeItem(CacheItem item) {
+        int lastIndex = items.size() - 1;
+        CacheItem last = items.remove(lastIndex);
+        if (last != item) {
+            items.set(item.index, last);
+            last.index = item.index;
+        }
+        item.index = -1;
+        caches.remove(item.key, item);
+        memory -= item.weight;
+    }
+
+    static class CacheItem {
+        final String key;
+        final byte[] value;
+        final long expirationTime;
+        final int weight;
+        long accessTime;
+        int index = -1;
+
+        CacheItem(String key, byte[] value, long expirationTime, int weight) {
+            this.key = key;
+            this.value = value;
+            this.expirationTime = expirationTime;
+            this.weight = weight;
+        }
+
+        boolean expired(long now) {
+            return now >= expirationTime;
+        }
+    }
+}
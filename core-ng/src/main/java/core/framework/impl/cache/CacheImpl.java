@@ -1,94 +1,300 @@
 package core.framework.impl.cache;
 
+import core.framework.api.async.Executor;
 import core.framework.api.cache.Cache;
+import core.framework.api.cache.CacheCodec;
+import core.framework.api.cache.IncompatibleCacheValueException;
 import core.framework.api.util.Charsets;
 import core.framework.api.util.Maps;
-import core.framework.impl.json.JSONReader;
 import core.framework.impl.json.JSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
+ * with near cache enabled, decoded values are shared by all callers within same process, so the cached value must be treated as immutable
+ * <p>
+ * concurrent misses of same key within process are loaded once (single flight), other callers wait and decode the loaded value,
+ * with stale while revalidate enabled, value is kept in store for extra maxStale after duration, stale value is returned and reloaded by executor in background,
+ * <p>
+ * stored value is plain json by default, otherwise it has header: [0][flags][refresh time if FLAG_REFRESH_TIME][original length if FLAG_COMPRESSED][data],
+ * header starts with 0 as json never starts with 0, data is encoded by codec, and compressed by deflater if it's larger than compression threshold
+ *
  * @author neo
  */
 public class CacheImpl<T> implements Cache<T> {
+    private static final byte HEADER_MAGIC = 0;
+    private static final byte FLAG_REFRESH_TIME = 1;
+    private static final byte FLAG_COMPRESSED = 2;
+    private static final Object MISS = new Object();
+
     public final String name;
     public final Type valueType;
     public final Duration duration;
+    public final LongAdder hits = new LongAdder();
+    public final LongAdder misses = new LongAdder();
+    private final Logger logger = LoggerFactory.getLogger(CacheImpl.class);
     private final CacheStore cacheStore;
-    private final JSONReader<T> reader;
-    private final JSONWriter<T> writer;
+    private final JSONWriter<T> writer;     // for management api to view cached value
+    private final Map<String, CompletableFuture<byte[]>> loadings = Maps.newConcurrentHashMap();
+    CacheCodec<T> codec;
+    boolean jsonCodec = true;
+    int compressionThreshold = -1;  // disabled by default
+    NearCache<T> nearCache;
+    CacheInvalidator invalidator;
+    Duration maxStale;
+    Executor executor;      // refresh synchronously if executor is null, e.g. during test
 
     CacheImpl(String name, Type valueType, Duration duration, CacheStore cacheStore) {
         this.name = name;
         this.valueType = valueType;
         this.duration = duration;
         this.cacheStore = cacheStore;
-        reader = JSONReader.of(valueType);
         writer = JSONWriter.of(valueType);
+        codec = new JSONCacheCodec<>(valueType);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public T get(String key, Function<String, T> loader) {
         String cacheKey = cacheKey(key);
+        if (nearCache != null) {
+            T value = nearCache.get(cacheKey);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+        }
         byte[] cacheValue = cacheStore.get(cacheKey);
-        if (cacheValue == null) {
-            T value = loader.apply(key);
-            cacheStore.put(cacheKey, writer.toJSON(value), duration);
-            return value;
+        Object cachedValue = cacheValue == null ? MISS : decode(key, cacheKey, cacheValue, loader);
+        T value;
+        if (cachedValue == MISS) {
+            misses.increment();
+            value = load(key, cacheKey, loader);
+        } else {
+            hits.increment();
+            value = (T) cachedValue;
         }
-        return reader.fromJSON(cacheValue);
+        if (nearCache != null) nearCache.put(cacheKey, value);
+        return value;
     }
 
     public Optional<String> get(String key) {
-        byte[] result = cacheStore.get(cacheKey(key));
-        if (result == null) return Optional.empty();
-        return Optional.of(new String(result, Charsets.UTF_8));
+        byte[] cacheValue = cacheStore.get(cacheKey(key));
+        if (cacheValue == null) return Optional.empty();
+        if (cacheValue[0] != HEADER_MAGIC) return Optional.of(new String(cacheValue, Charsets.UTF_8));
+        Object value = decode(cacheValue);
+        if (value == MISS) return Optional.empty();
+        @SuppressWarnings("unchecked")
+        T cachedValue = (T) value;
+        return Optional.of(new String(writer.toJSON(cachedValue), Charsets.UTF_8));
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Map<String, T> getAll(List<String> keys, Function<String, T> loader) {
         int size = keys.size();
-        String[] cacheKeys = new String[size];
-        int index = 0;
-        for (String key : keys) {
-            cacheKeys[index] = cacheKey(key);
-            index++;
-        }
         Map<String, T> values = new LinkedHashMap<>(size);
-        Map<String, byte[]> newValues = Maps.newHashMapWithExpectedSize(size);
-        Map<String, byte[]> cacheValues = cacheStore.getAll(cacheKeys);
-        index = 0;
+        List<String> missedKeys = new ArrayList<>(size);
+        List<String> missedCacheKeys = new ArrayList<>(size);
         for (String key : keys) {
-            String cacheKey = cacheKeys[index];
+            String cacheKey = cacheKey(key);
+            T value = nearCache == null ? null : nearCache.get(cacheKey);
+            values.put(key, value);     // keep order of keys
+            if (value == null) {
+                missedKeys.add(key);
+                missedCacheKeys.add(cacheKey);
+            }
+        }
+        hits.add(size - missedKeys.size());
+        if (missedKeys.isEmpty()) return values;
+
+        Map<String, byte[]> newValues = Maps.newHashMapWithExpectedSize(missedKeys.size());
+        Map<String, byte[]> cacheValues = cacheStore.getAll(missedCacheKeys.toArray(new String[missedCacheKeys.size()]));
+        int index = 0;
+        for (String key : missedKeys) {
+            String cacheKey = missedCacheKeys.get(index);
             byte[] cacheValue = cacheValues.get(cacheKey);
-            if (cacheValue == null) {
-                T value = loader.apply(key);
-                newValues.put(cacheKey, writer.toJSON(value));
-                values.put(key, value);
+            Object cachedValue = cacheValue == null ? MISS : decode(key, cacheKey, cacheValue, loader);
+            T value;
+            if (cachedValue == MISS) {
+                misses.increment();
+                value = loader.apply(key);
+                newValues.put(cacheKey, encode(codec.encode(value)));
             } else {
-                values.put(key, reader.fromJSON(cacheValue));
+                hits.increment();
+                value = (T) cachedValue;
             }
+            values.put(key, value);
+            if (nearCache != null) nearCache.put(cacheKey, value);
             index++;
         }
-        if (!newValues.isEmpty()) cacheStore.putAll(newValues, duration);
+        if (!newValues.isEmpty()) cacheStore.putAll(newValues, storeDuration());
         return values;
     }
 
     @Override
     public void put(String key, T value) {
-        cacheStore.put(cacheKey(key), writer.toJSON(value), duration);
+        update(cacheKey(key), value, codec.encode(value));
     }
 
     @Override
     public void evict(String key) {
-        cacheStore.delete(cacheKey(key));
+        String cacheKey = cacheKey(key);
+        cacheStore.delete(cacheKey);
+        if (nearCache != null) {
+            nearCache.evict(cacheKey);
+            if (invalidator != null) invalidator.invalidate(cacheKey);
+        }
+    }
+
+    private void update(String cacheKey, T value, byte[] data) {
+        cacheStore.put(cacheKey, encode(data), storeDuration());
+        if (nearCache != null) {
+            nearCache.put(cacheKey, value);
+            if (invalidator != null) invalidator.invalidate(cacheKey);
+        }
+    }
+
+    private T load(String key, String cacheKey, Function<String, T> loader) {
+        CompletableFuture<byte[]> loading = new CompletableFuture<>();
+        CompletableFuture<byte[]> previous = loadings.putIfAbsent(cacheKey, loading);
+        if (previous != null) {
+            byte[] data = await(previous);
+            if (data != null) return codec.decode(data, 0, data.length);    // decode for each caller, not to share value with loader
+        }
+        try {
+            T value = loader.apply(key);
+            byte[] data = codec.encode(value);
+            cacheStore.put(cacheKey, encode(data), storeDuration());
+            loading.complete(data);
+            return value;
+        } catch (Throwable e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    // return null if previous loading is failed refresh, to let caller load by itself
+    private byte[] await(CompletableFuture<byte[]> loading) {
+        try {
+            return loading.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new Error(cause);
+        } catch (InterruptedException e) {
+            throw new Error("interrupted during waiting for cache loading", e);
+        }
+    }
+
+    private void refresh(String key, String cacheKey, Function<String, T> loader) {
+        CompletableFuture<byte[]> loading = new CompletableFuture<>();
+        if (loadings.putIfAbsent(cacheKey, loading) != null) return;     // already loading
+
+        if (executor == null) {
+            refresh(key, cacheKey, loader, loading);
+            return;
+        }
+        try {
+            executor.submit("cache/refresh", () -> {
+                refresh(key, cacheKey, loader, loading);
+                return null;
+            });
+        } catch (Throwable e) {
+            logger.warn("failed to submit cache refresh, cacheKey={}", cacheKey, e);
+            loading.complete(null);
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    private void refresh(String key, String cacheKey, Function<String, T> loader, CompletableFuture<byte[]> loading) {
+        byte[] data = null;
+        try {
+            logger.debug("refresh stale cache, cacheKey={}", cacheKey);
+            T value = loader.apply(key);
+            data = codec.encode(value);
+            update(cacheKey, value, data);
+        } catch (Throwable e) {
+            logger.warn("failed to refresh cache, cacheKey={}", cacheKey, e);     // keep stale value until maxStale
+        } finally {
+            loading.complete(data);
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    // return MISS if cached value can not be decoded, cached null is returned as hit
+    private Object decode(String key, String cacheKey, byte[] cacheValue, Function<String, T> loader) {
+        if (cacheValue[0] == HEADER_MAGIC) {
+            byte flags = cacheValue[1];
+            if ((flags & FLAG_REFRESH_TIME) != 0 && maxStale != null) {
+                long refreshTime = ByteBuffer.wrap(cacheValue, 2, 8).getLong();
+                if (System.currentTimeMillis() >= refreshTime) refresh(key, cacheKey, loader);
+            }
+        }
+        return decode(cacheValue);
+    }
+
+    private Object decode(byte[] cacheValue) {
+        try {
+            if (cacheValue[0] != HEADER_MAGIC) return codec.decode(cacheValue, 0, cacheValue.length);
+
+            byte flags = cacheValue[1];
+            int offset = (flags & FLAG_REFRESH_TIME) != 0 ? 10 : 2;
+            if ((flags & FLAG_COMPRESSED) == 0) return codec.decode(cacheValue, offset, cacheValue.length - offset);
+
+            if (cacheValue.length < offset + 4) throw new IncompatibleCacheValueException("invalid compressed value, length=" + cacheValue.length);
+            int length = ByteBuffer.wrap(cacheValue, offset, 4).getInt();
+            byte[] data = Compressions.inflate(cacheValue, offset + 4, cacheValue.length - offset - 4, length);
+            return codec.decode(data, 0, data.length);
+        } catch (IncompatibleCacheValueException e) {
+            logger.debug("cached value is incompatible with value class or corrupted, treat as cache miss, cacheName={}", name, e);
+            return MISS;
+        }
+    }
+
+    private byte[] encode(byte[] data) {
+        boolean compress = compressionThreshold >= 0 && data.length > compressionThreshold;
+        byte[] compressedData = compress ? Compressions.deflate(data) : null;
+        if (compressedData != null && compressedData.length >= data.length) compressedData = null;     // not worth to compress
+
+        if (maxStale == null && jsonCodec && compressedData == null) return data;
+        byte flags = 0;
+        int length = 2;
+        if (maxStale != null) {
+            flags |= FLAG_REFRESH_TIME;
+            length += 8;
+        }
+        if (compressedData != null) {
+            flags |= FLAG_COMPRESSED;
+            length += 4 + compressedData.length;
+        } else {
+            length += data.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).put(HEADER_MAGIC).put(flags);
+        if (maxStale != null) buffer.putLong(System.currentTimeMillis() + duration.toMillis());
+        if (compressedData != null) buffer.putInt(data.length).put(compressedData);
+        else buffer.put(data);
+        return buffer.array();
+    }
+
+    private Duration storeDuration() {
+        return maxStale == null ? duration : duration.plus(maxStale);
     }
 
     private String cacheKey(String key) {
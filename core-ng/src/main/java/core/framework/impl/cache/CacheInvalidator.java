@@ -0,0 +1,81 @@
+package core.framework.impl.cache;
+
+import core.framework.api.util.Charsets;
+import core.framework.api.util.Maps;
+import core.framework.api.util.Strings;
+import core.framework.impl.redis.RedisImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * broadcast evicted cache key to all nodes via redis pub/sub, to evict near cache on other nodes,
+ * message format is "nodeId:cacheKey", message sent by current node is ignored,
+ * <p>
+ * pub/sub is not reliable, messages may be lost during reconnecting, so all near caches are cleared once subscribed,
+ * and near cache duration should be short to bound the staleness
+ *
+ * @author neo
+ */
+public final class CacheInvalidator extends BinaryJedisPubSub {
+    public static final String CHANNEL = "cache-invalidation";
+
+    private final Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+    private final RedisImpl redis;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, NearCache<?>> nearCaches = Maps.newConcurrentHashMap();
+
+    public CacheInvalidator(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    void register(String name, NearCache<?> nearCache) {
+        nearCaches.put(name, nearCache);
+    }
+
+    void invalidate(String cacheKey) {
+        try {
+            redis.publish(CHANNEL, Strings.bytes(message(cacheKey)));
+        } catch (JedisConnectionException e) {
+            logger.warn("failed to publish cache invalidation, cacheKey={}, error={}", cacheKey, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onSubscribe(byte[] channel, int subscribedChannels) {
+        logger.info("subscribed to cache invalidation, clear all near caches");
+        nearCaches.values().forEach(NearCache::clear);
+    }
+
+    @Override
+    public void onMessage(byte[] channel, byte[] message) {
+        try {
+            handle(new String(message, Charsets.UTF_8));
+        } catch (Throwable e) {
+            logger.warn("failed to handle cache invalidation message", e);   // not to break subscriber connection
+        }
+    }
+
+    void handle(String message) {
+        int index = message.indexOf(':');
+        if (index < 0) return;
+        if (nodeId.equals(message.substring(0, index))) return;
+
+        String cacheKey = message.substring(index + 1);
+        int nameIndex = cacheKey.indexOf(':');
+        if (nameIndex < 0) return;
+        NearCache<?> nearCache = nearCaches.get(cacheKey.substring(0, nameIndex));
+        if (nearCache != null) {
+            logger.debug("evict near cache, cacheKey={}", cacheKey);
+            nearCache.evict(cacheKey);
+        }
+    }
+
+    String message(String cacheKey) {
+        return nodeId + ":" + cacheKey;
+    }
+}
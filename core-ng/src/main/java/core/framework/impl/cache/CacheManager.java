@@ -1,6 +1,8 @@
 package core.framework.impl.cache;
 
+import core.framework.api.async.Executor;
 import core.framework.api.cache.Cache;
+import core.framework.api.cache.CacheCodec;
 import core.framework.api.util.Exceptions;
 import core.framework.api.util.Maps;
 
@@ -17,6 +19,7 @@ import java.util.Optional;
 public class CacheManager {
     private final CacheStore cacheStore;
     private final Map<String, CacheImpl<?>> caches = Maps.newHashMap();
+    public CacheInvalidator invalidator;
 
     public CacheManager(CacheStore cacheStore) {
         this.cacheStore = cacheStore;
@@ -31,6 +34,52 @@ public class CacheManager {
         return cache;
     }
 
+    public void nearCache(String name, int maxSize, Duration duration) {
+        CacheImpl<?> cache = caches.get(name);
+        if (cache == null) throw Exceptions.error("cache not found, name={}", name);
+        if (duration.compareTo(cache.duration) > 0) throw Exceptions.error("near cache duration must not be longer than cache duration, name={}, duration={}", name, duration);
+        enableNearCache(cache, new NearCache<>(maxSize, duration));
+    }
+
+    private <T> void enableNearCache(CacheImpl<T> cache, NearCache<T> nearCache) {
+        cache.nearCache = nearCache;
+        if (invalidator != null) {
+            cache.invalidator = invalidator;
+            invalidator.register(cache.name, nearCache);
+        }
+    }
+
+    public void staleWhileRevalidate(String name, Duration maxStale, Executor executor) {
+        CacheImpl<?> cache = caches.get(name);
+        if (cache == null) throw Exceptions.error("cache not found, name={}", name);
+        cache.maxStale = maxStale;
+        cache.executor = executor;
+    }
+
+    public void codec(String name, CacheCodec<?> codec) {
+        CacheImpl<?> cache = caches.get(name);
+        if (cache == null) throw Exceptions.error("cache not found, name={}", name);
+        setCodec(cache, codec);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void setCodec(CacheImpl<T> cache, CacheCodec<?> codec) {
+        cache.codec = (CacheCodec<T>) codec;
+        cache.jsonCodec = codec instanceof JSONCacheCodec;
+    }
+
+    public void compress(String name, int thresholdInBytes) {
+        CacheImpl<?> cache = caches.get(name);
+        if (cache == null) throw Exceptions.error("cache not found, name={}", name);
+        cache.compressionThreshold = thresholdInBytes;
+    }
+
+    // evictions are only tracked by bounded local cache store, unbounded local cache store never evicts, redis evicts by its own maxmemory-policy
+    public Optional<Long> evictions(String name) {
+        if (cacheStore instanceof BoundedLocalCacheStore) return Optional.of(((BoundedLocalCacheStore) cacheStore).evictions(name));
+        return Optional.empty();
+    }
+
     public Optional<CacheImpl<?>> get(String name) {
         return Optional.ofNullable(caches.get(name));
     }
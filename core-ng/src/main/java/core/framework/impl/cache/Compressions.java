@@ -0,0 +1,54 @@
+package core.framework.impl.cache;
+
+import core.framework.api.cache.IncompatibleCacheValueException;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * use deflater with best speed, which is fast enough for cache values, and keeps no dependency on native/third party compression lib,
+ * corrupted or truncated data throws IncompatibleCacheValueException, which is treated as cache miss
+ *
+ * @author neo
+ */
+final class Compressions {
+    static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[data.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] data, int offset, int length, int originalLength) {
+        if (originalLength < 0 || length < 0) throw new IncompatibleCacheValueException("invalid compressed data, originalLength=" + originalLength + ", length=" + length);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            byte[] result = new byte[originalLength];
+            int resultLength = 0;
+            while (resultLength < originalLength && !inflater.finished()) {
+                int inflated = inflater.inflate(result, resultLength, originalLength - resultLength);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                resultLength += inflated;
+            }
+            if (resultLength != originalLength) throw new IncompatibleCacheValueException("invalid compressed data, expectedLength=" + originalLength + ", actualLength=" + resultLength);
+            return result;
+        } catch (DataFormatException e) {
+            throw new IncompatibleCacheValueException("invalid compressed data, error=" + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
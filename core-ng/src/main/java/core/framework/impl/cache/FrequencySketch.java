@@ -0,0 +1,85 @@
+package core.framework.impl.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * count-min sketch with 4 bit counters to estimate access frequency of keys (TinyLFU), 16 counters are packed in one long,
+ * all counters are halved once the number of increments reaches 10x of table size, so frequency decays with time,
+ * <p>
+ * increment is called by lock free get of all threads, each counter is updated by CAS, so concurrent increments never overflow into neighbour counter,
+ * reset halves counters by CAS as well, increment and reset may interleave, which only makes estimation slightly off
+ *
+ * @author neo
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final AtomicLongArray table;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final int tableMask;
+    private final int sampleSize;
+
+    FrequencySketch(int maxSize) {
+        int size = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 24)) - 1) << 1;
+        table = new AtomicLongArray(size);
+        tableMask = size - 1;
+        sampleSize = size * 10;
+    }
+
+    int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int frequency = 15;
+        for (int i = 0; i < 4; i++) {
+            int count = (int) ((table.get(index(hash, i)) >>> offset(hash, i)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(String key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= increment(index(hash, i), offset(hash, i));
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) reset();
+    }
+
+    // return false if counter is already max
+    private boolean increment(int index, int offset) {
+        while (true) {
+            long value = table.get(index);
+            if (((value >>> offset) & 0xFL) == 0xFL) return false;
+            if (table.compareAndSet(index, value, value + (1L << offset))) return true;
+        }
+    }
+
+    private synchronized void reset() {
+        if (additions.get() < sampleSize) return;   // reset by other thread
+        for (int i = 0; i < table.length(); i++) {
+            while (true) {
+                long value = table.get(i);
+                if (table.compareAndSet(i, value, (value >>> 1) & RESET_MASK)) break;
+            }
+        }
+        additions.updateAndGet(value -> value >>> 1);
+    }
+
+    private int index(int hash, int depth) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        value += value >>> 32;
+        return (int) value & tableMask;
+    }
+
+    // each depth uses different 4 bits of hash to select counter within the long
+    private int offset(int hash, int depth) {
+        return ((hash >>> (depth << 2)) & 0xF) << 2;
+    }
+
+    private int spread(int hash) {
+        int value = hash * 0x9E3779B9;
+        return value ^ (value >>> 16);
+    }
+}
@@ -8,6 +8,8 @@ import java.time.Duration;
 import java.util.Map;
 
 /**
+ * unbounded and lock free, expired entries are removed on get or by periodical cleanup, use BoundedLocalCacheStore to limit entries/memory
+ *
  * @author neo
  */
 public class LocalCacheStore implements CacheStore {
@@ -51,6 +53,10 @@ public class LocalCacheStore implements CacheStore {
         caches.remove(key);
     }
 
+    public int size() {
+        return caches.size();
+    }
+
     public void cleanup() {
         logger.info("clean up local cache store");
         long now = System.currentTimeMillis();
@@ -0,0 +1,111 @@
+package core.framework.impl.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * bounded in-process cache holds decoded values in front of cache store,
+ * split into segments of LRU map to reduce lock contention
+ *
+ * @author neo
+ */
+final class NearCache<T> {
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long durationInMs;
+
+    NearCache(int maxSize, Duration duration) {
+        durationInMs = duration.toMillis();
+        int segmentMaxSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentMaxSize);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(String key) {
+        return (T) segment(key).get(key, System.currentTimeMillis());
+    }
+
+    void put(String key, T value) {
+        if (value == null) return;
+        segment(key).put(key, new Entry(value, System.currentTimeMillis() + durationInMs));
+    }
+
+    void evict(String key) {
+        segment(key).evict(key);
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segment(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, Entry> entries;
+
+        Segment(int maxSize) {
+            entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {  // access order
+                private static final long serialVersionUID = 4567123498345128323L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        synchronized Object get(String key, long now) {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (now >= entry.expirationTime) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(String key, Entry entry) {
+            entries.put(key, entry);
+        }
+
+        synchronized void evict(String key) {
+            entries.remove(key);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expirationTime;
+
+        Entry(Object value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -50,6 +50,7 @@ public final class DatabaseImpl implements Database {
         pool.name("db");
         pool.size(5, 50);    // default optimization for AWS medium/large instances
         pool.maxIdleTime(Duration.ofHours(2));  // make sure db server does not kill connection shorter than this, e.g. MySQL default wait_timeout is 8 hours
+        pool.validator(this::validateConnection);
 
         operation = new DatabaseOperation(pool);
         timeout(Duration.ofSeconds(15));
@@ -76,6 +77,10 @@ public final class DatabaseImpl implements Database {
         }
     }
 
+    private boolean validateConnection(Connection connection) throws SQLException {
+        return connection.isValid((int) timeout.getSeconds());
+    }
+
     public void close() {
         logger.info("close database client, url={}", url);
         pool.close();
@@ -0,0 +1,105 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.kafka.MessageCodec;
+import core.framework.api.util.Charsets;
+import core.framework.api.util.Exceptions;
+import core.framework.api.util.Maps;
+
+import java.util.Map;
+
+/**
+ * kafka 0.10 does not support record headers, so headers are written in front of value,
+ * format: [0][version][header count][key length (1 byte)][key][value length (2 bytes)][value]...[payload encoded by codec],
+ * json envelope always starts with '{', so message starts with 0 is binary envelope,
+ * headers can be read without decoding payload, e.g. to route or trace,
+ * header key must be less than 256 bytes and value less than 64K bytes in utf-8
+ *
+ * @author neo
+ */
+public final class BinaryMessageEnvelope {
+    static final byte MAGIC = 0;
+    static final byte VERSION = 1;
+
+    public static boolean isBinary(byte[] message) {
+        return message.length > 0 && message[0] == MAGIC;
+    }
+
+    // encode one header, to let publisher encode static headers once
+    static byte[] header(String key, String value) {
+        byte[] keyBytes = key.getBytes(Charsets.UTF_8);
+        byte[] valueBytes = value.getBytes(Charsets.UTF_8);
+        if (keyBytes.length > 0xFF || valueBytes.length > 0xFFFF) throw Exceptions.error("header is too long, key={}", key);
+        byte[] header = new byte[1 + keyBytes.length + 2 + valueBytes.length];
+        header[0] = (byte) keyBytes.length;
+        System.arraycopy(keyBytes, 0, header, 1, keyBytes.length);
+        int offset = 1 + keyBytes.length;
+        header[offset] = (byte) (valueBytes.length >>> 8);
+        header[offset + 1] = (byte) valueBytes.length;
+        System.arraycopy(valueBytes, 0, header, offset + 2, valueBytes.length);
+        return header;
+    }
+
+    // null headers are skipped
+    static byte[] encode(byte[] payload, byte[]... headers) {
+        int count = 0;
+        int length = 3 + payload.length;
+        for (byte[] header : headers) {
+            if (header == null) continue;
+            count++;
+            length += header.length;
+        }
+        byte[] message = new byte[length];
+        message[0] = MAGIC;
+        message[1] = VERSION;
+        message[2] = (byte) count;
+        int offset = 3;
+        for (byte[] header : headers) {
+            if (header == null) continue;
+            System.arraycopy(header, 0, message, offset, header.length);
+            offset += header.length;
+        }
+        System.arraycopy(payload, 0, message, offset, payload.length);
+        return message;
+    }
+
+    public static Map<String, String> headers(byte[] message) {
+        checkLength(message, 3);
+        Map<String, String> headers = Maps.newHashMapWithExpectedSize(message[2] & 0xFF);
+        readHeaders(message, headers);
+        return headers;
+    }
+
+    static <T> KafkaMessage<T> decode(byte[] message, MessageCodec<T> codec) {
+        checkLength(message, 3);
+        KafkaMessage<T> kafkaMessage = new KafkaMessage<>();
+        kafkaMessage.headers = Maps.newHashMapWithExpectedSize(message[2] & 0xFF);
+        int offset = readHeaders(message, kafkaMessage.headers);
+        kafkaMessage.value = codec.decode(message, offset, message.length - offset);
+        return kafkaMessage;
+    }
+
+    // return offset of payload
+    private static int readHeaders(byte[] message, Map<String, String> headers) {
+        if (message[1] != VERSION) throw Exceptions.error("unsupported message envelope version, version={}", message[1]);
+        int count = message[2] & 0xFF;
+        int offset = 3;
+        for (int i = 0; i < count; i++) {
+            checkLength(message, offset + 1);
+            int keyLength = message[offset] & 0xFF;
+            checkLength(message, offset + 1 + keyLength + 2);
+            String key = new String(message, offset + 1, keyLength, Charsets.UTF_8);
+            offset += 1 + keyLength;
+            int valueLength = (message[offset] & 0xFF) << 8 | message[offset + 1] & 0xFF;
+            checkLength(message, offset + 2 + valueLength);
+            String value = new String(message, offset + 2, valueLength, Charsets.UTF_8);
+            offset += 2 + valueLength;
+            headers.put(key, value);
+        }
+        return offset;
+    }
+
+    // truncated or foreign payload
+    private static void checkLength(byte[] message, int length) {
+        if (length > message.length) throw Exceptions.error("invalid message envelope, message is truncated, expectedLength>={}, length={}", length, message.length);
+    }
+}
@@ -0,0 +1,28 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.kafka.MessageCodec;
+import core.framework.impl.json.JSONReader;
+import core.framework.impl.json.JSONWriter;
+
+/**
+ * @author neo
+ */
+public final class JSONMessageCodec<T> implements MessageCodec<T> {
+    private final JSONReader<T> reader;
+    private final JSONWriter<T> writer;
+
+    public JSONMessageCodec(Class<T> messageClass) {
+        reader = JSONReader.of(messageClass);
+        writer = JSONWriter.of(messageClass);
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        return writer.toJSON(value);
+    }
+
+    @Override
+    public T decode(byte[] bytes, int offset, int length) {
+        return reader.fromJSON(bytes, offset, length);
+    }
+}
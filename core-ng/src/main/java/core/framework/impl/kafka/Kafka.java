@@ -1,11 +1,14 @@
 package core.framework.impl.kafka;
 
+import core.framework.api.kafka.MessageCodec;
 import core.framework.api.util.Maps;
 import core.framework.api.util.StopWatch;
 import core.framework.impl.log.LogManager;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.internals.NoOpConsumerRebalanceListener;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -31,10 +34,15 @@ public class Kafka {
     private final String name;
     private final LogManager logManager;
     private final AtomicInteger consumerClientIdSequence = new AtomicInteger(1);
+    private final Map<Class<?>, MessageCodec<?>> codecs = Maps.newHashMap();
     public String uri;
     public MessageValidator validator = new MessageValidator();
     public Duration maxProcessTime = Duration.ofMinutes(15);
     public int maxPollRecords = 500;    // default kafka setting, refer to org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_RECORDS_CONFIG
+    public Duration linger = Duration.ZERO;     // default kafka producer settings, refer to org.apache.kafka.clients.producer.ProducerConfig
+    public int batchSize = 16384;
+    public String compression = "none";
+    public boolean binaryEnvelope;      // publish message with binary envelope, listener reads both json and binary envelope
     private Producer<String, byte[]> producer;
     private KafkaMessageListener listener;
 
@@ -60,6 +68,9 @@ public class Kafka {
             config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, uri);
             config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, Duration.ofSeconds(30).toMillis());  // metadata update timeout
             config.put(ProducerConfig.CLIENT_ID_CONFIG, producerClientId());
+            config.put(ProducerConfig.LINGER_MS_CONFIG, linger.toMillis());
+            config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
             Producer<String, byte[]> producer = new KafkaProducer<>(config, new StringSerializer(), new ByteArraySerializer());
             producerMetrics.setMetrics(producer.metrics());
             return producer;
@@ -69,6 +80,10 @@ public class Kafka {
     }
 
     public Consumer<String, byte[]> consumer(String group, Set<String> topics) {
+        return consumer(group, topics, new NoOpConsumerRebalanceListener());
+    }
+
+    public Consumer<String, byte[]> consumer(String group, Set<String> topics, ConsumerRebalanceListener rebalanceListener) {
         if (uri == null) throw new Error("uri must not be null");
         StopWatch watch = new StopWatch();
         try {
@@ -90,7 +105,7 @@ public class Kafka {
                     consumerMetrics.removeMetrics(clientId);
                 }
             };
-            consumer.subscribe(topics);
+            consumer.subscribe(topics, rebalanceListener);
             consumerMetrics.addMetrics(clientId, consumer.metrics());
             return consumer;
         } finally {
@@ -112,6 +127,15 @@ public class Kafka {
         return clientId.toString();
     }
 
+    public <T> void codec(Class<T> messageClass, MessageCodec<T> codec) {
+        codecs.put(messageClass, codec);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> MessageCodec<T> codec(Class<T> messageClass) {
+        return (MessageCodec<T>) codecs.computeIfAbsent(messageClass, JSONMessageCodec::new);
+    }
+
     public KafkaMessageListener listener() {
         if (listener == null) {
             listener = new KafkaMessageListener(this, name, logManager);
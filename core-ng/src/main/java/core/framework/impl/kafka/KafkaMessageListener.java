@@ -9,8 +9,7 @@ import core.framework.api.util.Maps;
 import core.framework.api.util.Sets;
 import core.framework.api.util.StopWatch;
 import core.framework.api.util.Threads;
-import core.framework.api.util.Types;
-import core.framework.impl.json.JSONReader;
+import core.framework.impl.async.ThreadPools;
 import core.framework.impl.log.ActionLog;
 import core.framework.impl.log.LogManager;
 import core.framework.impl.log.LogParam;
@@ -25,6 +24,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -35,13 +36,16 @@ public class KafkaMessageListener {
     private final Set<String> topics = Sets.newHashSet();
     private final Map<String, MessageHandler> handlers = Maps.newHashMap();
     private final Map<String, BulkMessageHandler> bulkHandlers = Maps.newHashMap();
-    private final Map<String, JSONReader> readers = Maps.newHashMap();
+    private final Map<String, KafkaMessageReader> readers = Maps.newHashMap();
     private final Kafka kafka;
     private final String name;
     private final AtomicBoolean stop = new AtomicBoolean(false);
     private final LogManager logManager;
     public int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+    public int workerPoolSize;  // process records by worker pool if greater than 0, and poolSize is number of polling consumers
+    public int keyConcurrency = 1;  // with worker pool, number of lanes per partition, records of same key are processed in order
     private Thread[] listenerThreads;
+    private ExecutorService workers;
 
     KafkaMessageListener(Kafka kafka, String name, LogManager logManager) {
         this.kafka = kafka;
@@ -54,10 +58,14 @@ public class KafkaMessageListener {
         topics.add(topic);
         if (handler != null) handlers.put(topic, handler);
         if (bulkHandler != null) bulkHandlers.put(topic, bulkHandler);
-        readers.put(topic, JSONReader.of(Types.generic(KafkaMessage.class, messageClass)));
+        readers.put(topic, new KafkaMessageReader<>(messageClass, kafka.codec(messageClass)));
     }
 
     public void start() {
+        if (workerPoolSize > 0) {
+            startPipeline();
+            return;
+        }
         listenerThreads = new Thread[poolSize];
         for (int i = 0; i < poolSize; i++) {
             listenerThreads[i] = new Thread(() -> {
@@ -83,6 +91,51 @@ public class KafkaMessageListener {
         }
     }
 
+    private void startPipeline() {
+        workers = ThreadPools.fixedThreadPool(workerPoolSize, "kafka-worker-" + (name == null ? "" : name + "-"));
+        listenerThreads = new Thread[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            listenerThreads[i] = new Thread(() -> {
+                logger.info("kafka pipeline consumer thread started, uri={}, topics={}, workers={}", kafka.uri, topics, workerPoolSize);
+                while (!stop.get()) {
+                    String group = logManager.appName == null ? "local" : logManager.appName;
+                    KafkaPipelineConsumer pipeline = new KafkaPipelineConsumer(this, workers, stop, kafka.maxPollRecords, keyConcurrency);
+                    try (Consumer<String, byte[]> consumer = kafka.consumer(group, topics, pipeline)) {
+                        pipeline.run(consumer);
+                    } catch (Throwable e) {
+                        if (!stop.get()) {
+                            logger.error("failed to pull message, retry in 30 seconds", e);
+                            Threads.sleepRoughly(Duration.ofSeconds(30));
+                        }
+                    }
+                }
+            }, "kafka-listener-" + (name == null ? "" : name + "-") + i);
+        }
+        for (Thread thread : listenerThreads) {
+            thread.start();
+        }
+    }
+
+    boolean bulk(String topic) {
+        return bulkHandlers.containsKey(topic);
+    }
+
+    int maxBulkSize() {
+        return kafka.maxPollRecords;
+    }
+
+    void handle(String topic, List<ConsumerRecord<String, byte[]>> records) {
+        BulkMessageHandler<?> bulkHandler = bulkHandlers.get(topic);
+        if (bulkHandler != null) {
+            handle(topic, bulkHandler, records);
+            return;
+        }
+        MessageHandler<?> handler = handlers.get(topic);
+        if (handler != null) {
+            handle(topic, handler, records);
+        }
+    }
+
     private void process(Consumer<String, byte[]> consumer, ConsumerRecords<String, byte[]> records) {
         StopWatch watch = new StopWatch();
         int count = 0;
@@ -95,16 +148,7 @@ public class KafkaMessageListener {
                 size += record.value().length;
             }
             for (Map.Entry<String, List<ConsumerRecord<String, byte[]>>> entry : messages.entrySet()) {
-                String topic = entry.getKey();
-                BulkMessageHandler<?> bulkHandler = bulkHandlers.get(topic);
-                if (bulkHandler != null) {
-                    handle(topic, bulkHandler, entry.getValue());
-                    continue;
-                }
-                MessageHandler<?> handler = handlers.get(topic);
-                if (handler != null) {
-                    handle(topic, handler, entry.getValue());
-                }
+                handle(entry.getKey(), entry.getValue());
             }
         } finally {
             consumer.commitAsync();
@@ -114,7 +158,7 @@ public class KafkaMessageListener {
 
     private <T> void handle(String topic, MessageHandler<T> handler, List<ConsumerRecord<String, byte[]>> records) {
         @SuppressWarnings("unchecked")
-        JSONReader<KafkaMessage<T>> reader = readers.get(topic);
+        KafkaMessageReader<T> reader = readers.get(topic);
 
         for (ConsumerRecord<String, byte[]> record : records) {
             logManager.begin("=== message handling begin ===");
@@ -125,7 +169,7 @@ public class KafkaMessageListener {
                 actionLog.context("handler", handler.getClass().getCanonicalName());
                 logger.debug("message={}", LogParam.of(record.value()));
 
-                KafkaMessage<T> kafkaMessage = reader.fromJSON(record.value());
+                KafkaMessage<T> kafkaMessage = reader.read(record.value());
 
                 actionLog.refId(kafkaMessage.headers.get(KafkaMessage.HEADER_REF_ID));
                 String client = kafkaMessage.headers.get(KafkaMessage.HEADER_CLIENT);
@@ -149,7 +193,7 @@ public class KafkaMessageListener {
         logManager.begin("=== message handling begin ===");
         try {
             @SuppressWarnings("unchecked")
-            JSONReader<KafkaMessage<T>> reader = readers.get(topic);
+            KafkaMessageReader<T> reader = readers.get(topic);
             ActionLog actionLog = logManager.currentActionLog();
             actionLog.action("topic/" + topic);
             actionLog.context("topic", topic);
@@ -158,7 +202,7 @@ public class KafkaMessageListener {
 
             List<Message<T>> messages = new ArrayList<>(records.size());
             for (ConsumerRecord<String, byte[]> record : records) {
-                KafkaMessage<T> message = reader.fromJSON(record.value());
+                KafkaMessage<T> message = reader.read(record.value());
                 validate(message.value, record.value());
                 messages.add(new Message<>(record.key(), message.value));
                 if ("true".equals(message.headers.get(KafkaMessage.HEADER_TRACE))) { // trigger trace if any message is trace
@@ -185,8 +229,16 @@ public class KafkaMessageListener {
     public void stop() {
         logger.info("stop kafka listener threads, uri={}, topics={}", kafka.uri, topics);
         stop.set(true);
+        if (workers != null) {
+            workers.shutdown();     // pipeline consumer threads stop after in flight records are done and offsets are committed
+            try {
+                workers.awaitTermination(10, TimeUnit.SECONDS);     // wait 10 seconds to finish current records
+            } catch (InterruptedException e) {
+                logger.warn("failed to wait all records to finish", e);
+            }
+        }
         for (Thread thread : listenerThreads) {
-            thread.interrupt();
+            thread.interrupt();     // wake up threads waiting to retry
         }
     }
 }
@@ -1,40 +1,60 @@
 package core.framework.impl.kafka;
 
+import core.framework.api.kafka.MessageCodec;
 import core.framework.api.kafka.MessagePublisher;
 import core.framework.api.log.ActionLogContext;
-import core.framework.api.util.Maps;
+import core.framework.api.util.JSON;
 import core.framework.api.util.Network;
 import core.framework.api.util.StopWatch;
-import core.framework.api.util.Types;
+import core.framework.api.util.Strings;
 import core.framework.impl.json.JSONWriter;
 import core.framework.impl.log.ActionLog;
 import core.framework.impl.log.LogManager;
 import core.framework.impl.log.LogParam;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
+ * message is written as KafkaMessage json, {"headers":{...},"value":...}, or binary envelope with value encoded by codec if codec is not null,
+ * static headers (clientIP/client) are encoded once, only refId/trace headers and value are encoded per message,
+ * json message is concatenated from pre-encoded header bytes, refId and value json into one pre-sized byte array
+ *
  * @author neo
  */
 public class KafkaMessagePublisher<T> implements MessagePublisher<T> {
+    private static final byte[] REF_ID_HEADER = Strings.bytes(",\"" + KafkaMessage.HEADER_REF_ID + "\":");
+    private static final byte[] TRACE_HEADER = Strings.bytes(",\"" + KafkaMessage.HEADER_TRACE + "\":\"true\"");
+    private static final byte[] VALUE_FIELD = Strings.bytes("},\"value\":");
+    private static final JSONWriter<String> REF_ID_WRITER = JSONWriter.of(String.class);
+
     private final Logger logger = LoggerFactory.getLogger(KafkaMessagePublisher.class);
 
     private final Producer<String, byte[]> producer;
     private final MessageValidator validator;
     private final String topic;
     private final LogManager logManager;
-    private final JSONWriter<KafkaMessage<T>> writer;
+    private final JSONWriter<T> writer;
+    private final byte[] staticHeaders;
+    private final MessageCodec<T> codec;
+    private final byte[] clientIPHeader;
+    private final byte[] clientHeader;
 
-    public KafkaMessagePublisher(Producer<String, byte[]> producer, MessageValidator validator, String topic, Class<T> messageClass, LogManager logManager) {
+    public KafkaMessagePublisher(Producer<String, byte[]> producer, MessageValidator validator, String topic, Class<T> messageClass, LogManager logManager, MessageCodec<T> codec) {
         this.producer = producer;
         this.validator = validator;
         this.topic = topic;
         this.logManager = logManager;
-        writer = JSONWriter.of(Types.generic(KafkaMessage.class, messageClass));
+        this.codec = codec;
+        writer = JSONWriter.of(messageClass);
+        String clientIP = Network.localHostAddress();
+        staticHeaders = Strings.bytes(staticHeaders(clientIP, logManager.appName));
+        clientIPHeader = BinaryMessageEnvelope.header(KafkaMessage.HEADER_CLIENT_IP, clientIP);
+        clientHeader = logManager.appName == null ? null : BinaryMessageEnvelope.header(KafkaMessage.HEADER_CLIENT, logManager.appName);
     }
 
     @Override
@@ -44,21 +64,32 @@ public class KafkaMessagePublisher<T> implements MessagePublisher<T> {
 
     @Override
     public void publish(String topic, String key, T value) {
+        send(topic, key, value, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(String key, T value) {
+        return publishAsync(topic, key, value);
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(String topic, String key, T value) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        send(topic, key, value, (metadata, e) -> {
+            if (e != null) future.completeExceptionally(e);
+            else future.complete(null);
+        });
+        return future;
+    }
+
+    private void send(String topic, String key, T value, Callback callback) {
         validator.validate(value);
 
         StopWatch watch = new StopWatch();
         try {
-            KafkaMessage<T> kafkaMessage = new KafkaMessage<>();
-            Map<String, String> headers = Maps.newHashMap();
-            headers.put(KafkaMessage.HEADER_CLIENT_IP, Network.localHostAddress());
-            headers.put(KafkaMessage.HEADER_CLIENT, logManager.appName);
-            linkContext(headers);
-            kafkaMessage.headers = headers;
-            kafkaMessage.value = value;
-            byte[] message = writer.toJSON(kafkaMessage);
-
+            byte[] message = message(value);
             logger.debug("publish, topic={}, key={}, message={}", topic, key, LogParam.of(message));
-            producer.send(new ProducerRecord<>(topic, key, message));
+            producer.send(new ProducerRecord<>(topic, key, message), callback);
         } finally {
             long elapsedTime = watch.elapsedTime();
             ActionLogContext.track("kafka", elapsedTime);   // kafka producer send message in background, the main purpose of track is to count how many message sent in action
@@ -66,11 +97,50 @@ public class KafkaMessagePublisher<T> implements MessagePublisher<T> {
         }
     }
 
-    private void linkContext(Map<String, String> headers) {
+    byte[] message(T value) {
+        if (codec != null) return binaryMessage(value);
+
         ActionLog actionLog = logManager.currentActionLog();
-        if (actionLog == null) return;
+        byte[] refId = actionLog == null ? null : REF_ID_WRITER.toJSON(actionLog.refId());
+        boolean trace = actionLog != null && actionLog.trace;
+        byte[] valueJSON = writer.toJSON(value);
+
+        int length = staticHeaders.length + VALUE_FIELD.length + valueJSON.length + 1;
+        if (refId != null) length += REF_ID_HEADER.length + refId.length;
+        if (trace) length += TRACE_HEADER.length;
+
+        byte[] message = new byte[length];
+        int position = write(message, 0, staticHeaders);
+        if (refId != null) {
+            position = write(message, position, REF_ID_HEADER);
+            position = write(message, position, refId);
+        }
+        if (trace) position = write(message, position, TRACE_HEADER);
+        position = write(message, position, VALUE_FIELD);
+        position = write(message, position, valueJSON);
+        message[position] = '}';
+        return message;
+    }
+
+    private int write(byte[] message, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, message, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private byte[] binaryMessage(T value) {
+        byte[] refIdHeader = null;
+        byte[] traceHeader = null;
+        ActionLog actionLog = logManager.currentActionLog();
+        if (actionLog != null) {
+            refIdHeader = BinaryMessageEnvelope.header(KafkaMessage.HEADER_REF_ID, actionLog.refId());
+            if (actionLog.trace) traceHeader = BinaryMessageEnvelope.header(KafkaMessage.HEADER_TRACE, "true");
+        }
+        return BinaryMessageEnvelope.encode(codec.encode(value), clientIPHeader, clientHeader, refIdHeader, traceHeader);
+    }
 
-        headers.put(KafkaMessage.HEADER_REF_ID, actionLog.refId());
-        if (actionLog.trace) headers.put(KafkaMessage.HEADER_TRACE, "true");
+    private String staticHeaders(String clientIP, String client) {
+        StringBuilder builder = new StringBuilder("{\"headers\":{\"" + KafkaMessage.HEADER_CLIENT_IP + "\":").append(JSON.toJSON(clientIP));
+        if (client != null) builder.append(",\"" + KafkaMessage.HEADER_CLIENT + "\":").append(JSON.toJSON(client));
+        return builder.toString();
     }
 }
@@ -0,0 +1,25 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.kafka.MessageCodec;
+import core.framework.api.util.Types;
+import core.framework.impl.json.JSONReader;
+
+/**
+ * read both json and binary envelope, so publishers can switch format while old messages are still in topic
+ *
+ * @author neo
+ */
+public final class KafkaMessageReader<T> {
+    private final JSONReader<KafkaMessage<T>> jsonReader;
+    private final MessageCodec<T> codec;
+
+    public KafkaMessageReader(Class<T> messageClass, MessageCodec<T> codec) {
+        jsonReader = JSONReader.of(Types.generic(KafkaMessage.class, messageClass));
+        this.codec = codec;
+    }
+
+    public KafkaMessage<T> read(byte[] message) {
+        if (BinaryMessageEnvelope.isBinary(message)) return BinaryMessageEnvelope.decode(message, codec);
+        return jsonReader.fromJSON(message);
+    }
+}
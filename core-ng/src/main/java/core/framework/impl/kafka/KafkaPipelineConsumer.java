@@ -0,0 +1,291 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.util.Lists;
+import core.framework.api.util.Maps;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * polling thread only fetches records and puts them into queue per partition, records of each partition are processed in order by shared worker pool,
+ * so throughput is bounded by workers instead of consumers/partitions, and slow message only blocks its own partition,
+ * <p>
+ * with key concurrency > 1, records of partition are split into lanes by hash of key (records without key are spread by offset), each lane is processed in order,
+ * so records of same key keep order while different keys run in parallel, bulk handler topics always use one lane,
+ * <p>
+ * partition is paused if pending records reach maxPendingRecords, and resumed once it's drained to half,
+ * kafka consumer is not thread safe, so workers only mark records processed, and polling thread commits highest offset which all previous records are processed,
+ * <p>
+ * on revoke or stop, pending records are discarded (will be redelivered from committed offset) and processed offsets are committed after in flight records are done
+ *
+ * @author neo
+ */
+final class KafkaPipelineConsumer implements ConsumerRebalanceListener {
+    private static final long POLL_TIMEOUT_IN_MS = 100;
+    private static final int MAX_RECORDS_PER_TASK = 100;   // reschedule after processing max records, to let other partitions take worker
+
+    private final Logger logger = LoggerFactory.getLogger(KafkaPipelineConsumer.class);
+    private final Map<TopicPartition, PartitionQueue> queues = Maps.newHashMap();  // only accessed by polling thread
+    private final KafkaMessageListener listener;
+    private final ExecutorService workers;
+    private final AtomicBoolean stop;
+    private final int maxPendingRecords;
+    private final int keyConcurrency;
+    private Consumer<String, byte[]> consumer;
+
+    KafkaPipelineConsumer(KafkaMessageListener listener, ExecutorService workers, AtomicBoolean stop, int maxPendingRecords, int keyConcurrency) {
+        this.listener = listener;
+        this.workers = workers;
+        this.stop = stop;
+        this.maxPendingRecords = maxPendingRecords;
+        this.keyConcurrency = keyConcurrency;
+    }
+
+    void run(Consumer<String, byte[]> consumer) {
+        this.consumer = consumer;
+        try {
+            while (!stop.get()) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT_IN_MS);
+                for (TopicPartition partition : records.partitions()) {
+                    PartitionQueue queue = queues.computeIfAbsent(partition, key -> new PartitionQueue(key, listener.bulk(key.topic()) ? 1 : keyConcurrency));
+                    for (ConsumerRecord<String, byte[]> record : records.records(partition)) {
+                        Lane lane = queue.add(record);
+                        schedule(queue, lane);
+                    }
+                }
+                control();
+                commitAsync();
+            }
+        } finally {
+            close(new ArrayList<>(queues.values()));
+            queues.clear();
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        logger.info("kafka partitions revoked, partitions={}", partitions);
+        List<PartitionQueue> revokedQueues = Lists.newArrayList();
+        for (TopicPartition partition : partitions) {
+            PartitionQueue queue = queues.remove(partition);
+            if (queue != null) revokedQueues.add(queue);
+        }
+        close(revokedQueues);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        logger.info("kafka partitions assigned, partitions={}", partitions);
+    }
+
+    // pause/resume partitions by pending records
+    private void control() {
+        List<TopicPartition> pausedPartitions = null;
+        List<TopicPartition> resumedPartitions = null;
+        for (PartitionQueue queue : queues.values()) {
+            int size = queue.size.get();
+            if (!queue.paused && size >= maxPendingRecords) {
+                if (pausedPartitions == null) pausedPartitions = Lists.newArrayList();
+                pausedPartitions.add(queue.partition);
+                queue.paused = true;
+            } else if (queue.paused && size <= maxPendingRecords / 2) {
+                if (resumedPartitions == null) resumedPartitions = Lists.newArrayList();
+                resumedPartitions.add(queue.partition);
+                queue.paused = false;
+            }
+        }
+        if (pausedPartitions != null) {
+            logger.debug("pause kafka partitions, partitions={}", pausedPartitions);
+            consumer.pause(pausedPartitions);
+        }
+        if (resumedPartitions != null) {
+            logger.debug("resume kafka partitions, partitions={}", resumedPartitions);
+            consumer.resume(resumedPartitions);
+        }
+    }
+
+    private void commitAsync() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = processedOffsets(queues.values());
+        if (offsets.isEmpty()) return;
+        consumer.commitAsync(offsets, (committedOffsets, e) -> {
+            if (e != null) logger.warn("failed to commit kafka offsets, offsets={}", committedOffsets, e);
+        });
+    }
+
+    private void close(Collection<PartitionQueue> queues) {
+        if (queues.isEmpty()) return;
+        for (PartitionQueue queue : queues) {
+            queue.clear();
+        }
+        waitInFlightRecords(queues);
+        Map<TopicPartition, OffsetAndMetadata> offsets = processedOffsets(queues);
+        if (offsets.isEmpty()) return;
+        boolean interrupted = Thread.interrupted();     // kafka consumer fails to commit in interrupted thread, e.g. interrupted by stop, restore after commit
+        try {
+            consumer.commitSync(offsets);
+        } catch (Throwable e) {
+            logger.warn("failed to commit kafka offsets, offsets={}", offsets, e);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitInFlightRecords(Collection<PartitionQueue> queues) {
+        for (PartitionQueue queue : queues) {
+            for (Lane lane : queue.lanes) {
+                while (lane.scheduled.get()) {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        logger.warn("interrupted during waiting for in flight kafka records, partition={}", queue.partition);
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> processedOffsets(Collection<PartitionQueue> queues) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = Maps.newHashMap();
+        for (PartitionQueue queue : queues) {
+            long offset = queue.processedOffset();
+            if (offset > queue.committedOffset) {
+                offsets.put(queue.partition, new OffsetAndMetadata(offset));
+                queue.committedOffset = offset;
+            }
+        }
+        return offsets;
+    }
+
+    private void schedule(PartitionQueue queue, Lane lane) {
+        if (!lane.scheduled.compareAndSet(false, true)) return;    // only one worker processes lane at a time, to keep order
+        try {
+            workers.execute(() -> process(queue, lane));
+        } catch (RejectedExecutionException e) {    // workers are shutdown during stop
+            lane.scheduled.set(false);
+        }
+    }
+
+    private void process(PartitionQueue queue, Lane lane) {
+        String topic = queue.partition.topic();
+        int batchSize = listener.bulk(topic) ? listener.maxBulkSize() : 1;
+        try {
+            int processed = 0;
+            while (processed < MAX_RECORDS_PER_TASK && !stop.get()) {
+                List<PendingRecord> records = lane.poll(batchSize);
+                if (records.isEmpty()) break;
+                List<ConsumerRecord<String, byte[]>> consumerRecords = new ArrayList<>(records.size());
+                for (PendingRecord record : records) {
+                    consumerRecords.add(record.record);
+                }
+                try {
+                    listener.handle(topic, consumerRecords);
+                } finally {     // failed records are logged and skipped, same as polling consumer, otherwise processed offset stalls and partition stays paused
+                    for (PendingRecord record : records) {
+                        record.processed = true;
+                    }
+                    queue.size.addAndGet(-records.size());
+                }
+                processed += records.size();
+            }
+        } catch (Throwable e) {
+            logger.error("failed to process kafka records, partition={}", queue.partition, e);
+        } finally {
+            lane.scheduled.set(false);
+            if (!lane.records.isEmpty() && !stop.get()) schedule(queue, lane);   // records may be added after last poll, or max records per task reached
+        }
+    }
+
+    static final class PartitionQueue {
+        final TopicPartition partition;
+        final AtomicInteger size = new AtomicInteger();     // records not processed yet
+        final Lane[] lanes;
+        private final Queue<PendingRecord> records = new ConcurrentLinkedQueue<>();     // in offset order, to track processed offset, only polled by polling thread
+        long processedOffset = -1;
+        long committedOffset = -1;
+        boolean paused;
+
+        PartitionQueue(TopicPartition partition, int concurrency) {
+            this.partition = partition;
+            lanes = new Lane[concurrency];
+            for (int i = 0; i < concurrency; i++) {
+                lanes[i] = new Lane();
+            }
+        }
+
+        Lane add(ConsumerRecord<String, byte[]> record) {
+            PendingRecord pendingRecord = new PendingRecord(record);
+            records.add(pendingRecord);
+            size.incrementAndGet();
+            Lane lane = lanes[lane(record)];
+            lane.records.add(pendingRecord);
+            return lane;
+        }
+
+        int lane(ConsumerRecord<String, byte[]> record) {
+            if (lanes.length == 1) return 0;
+            String key = record.key();
+            if (key == null) return (int) (record.offset() % lanes.length);    // no order required without key
+            return (key.hashCode() & 0x7FFFFFFF) % lanes.length;
+        }
+
+        // next offset to commit, all records before it are processed
+        long processedOffset() {
+            PendingRecord record;
+            while ((record = records.peek()) != null && record.processed) {
+                records.poll();
+                processedOffset = record.record.offset() + 1;
+            }
+            return processedOffset;
+        }
+
+        void clear() {
+            for (Lane lane : lanes) {
+                while (lane.records.poll() != null) {
+                    size.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    static final class Lane {
+        final Queue<PendingRecord> records = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        List<PendingRecord> poll(int maxSize) {
+            List<PendingRecord> records = Lists.newArrayList();
+            while (records.size() < maxSize) {
+                PendingRecord record = this.records.poll();
+                if (record == null) break;
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    static final class PendingRecord {
+        final ConsumerRecord<String, byte[]> record;
+        volatile boolean processed;     // written by worker, read by polling thread
+
+        PendingRecord(ConsumerRecord<String, byte[]> record) {
+            this.record = record;
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package core.framework.impl.log;
 
+import core.framework.api.log.MessageFilter;
 import core.framework.api.util.Exceptions;
 import core.framework.api.util.Maps;
+import org.slf4j.Marker;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
 import java.time.Instant;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * @author neo
@@ -25,7 +26,10 @@ public final class ActionLog {
     final Instant date;
     final Map<String, String> context;
     final Map<String, PerformanceStat> performanceStats;
-    final List<LogEvent> events;
+    private final TraceBuffer buffer;
+    private final String thread;
+    List<LogEvent> events = Collections.emptyList();   // only materialized on end if flush trace log
+    MessageFilter filter;
     private final long startCPUTime;
     private final long startElapsed;
     public boolean trace;  // whether flush trace log for all subsequent actions
@@ -41,10 +45,11 @@ public final class ActionLog {
         startElapsed = System.nanoTime();
         startCPUTime = THREAD.getCurrentThreadCpuTime();
         date = Instant.now();
-        events = new LinkedList<>();
+        thread = Thread.currentThread().getName();
+        buffer = TraceBuffer.acquire();
         performanceStats = Maps.newHashMap();
         context = Maps.newLinkedHashMap();
-        id = UUID.randomUUID().toString();
+        id = IdGenerator.next();
         log(message);
         log("[context] id={}", id);
     }
@@ -54,27 +59,31 @@ public final class ActionLog {
         elapsed = System.nanoTime() - startElapsed;
         log("[context] elapsed={}", elapsed);
         log(message);
+        if (flushTraceLog()) events = buffer.events(thread, filter);
+        buffer.release();
     }
 
-    void process(LogEvent event) {
-        if (event.level.value > result.value) {
-            result = event.level;
+    void process(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        if (level.value > result.value) {
+            result = level;
+            LogEvent event = new LogEvent(logger, marker, level, message, arguments, exception);    // only create event for first WARN/ERROR
+            event.filter = filter;
             errorCode = event.errorCode(); // only update error type/message if level raised, so error type will be first WARN or first ERROR
             errorMessage = errorMessage(event);
         }
-        if (events.size() < MAX_TRACE_HOLD_SIZE || event.level.value >= LogLevel.WARN.value) {  // after reach max holding lines, only add warning/error events
-            add(event);
+        if (buffer.size < MAX_TRACE_HOLD_SIZE || level.value >= LogLevel.WARN.value) {  // after reach max holding lines, only add warning/error events
+            add(logger, marker, level, message, arguments, exception);
         }
     }
 
     private void log(String message, Object... argument) {  // add log event directly, so internal message and won't be suspended
-        add(new LogEvent(LOGGER, null, LogLevel.DEBUG, message, argument, null));
+        add(LOGGER, null, LogLevel.DEBUG, message, argument, null);
     }
 
-    private void add(LogEvent event) {
-        events.add(event);
-        if (events.size() == MAX_TRACE_HOLD_SIZE) {
-            events.add(new LogEvent(LOGGER, null, LogLevel.DEBUG, "reached max trace log holding size, only collect critical log event from now on", null, null));
+    private void add(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        buffer.add(logger, marker, level, message, arguments, exception);
+        if (buffer.size == MAX_TRACE_HOLD_SIZE) {
+            buffer.add(LOGGER, null, LogLevel.DEBUG, "reached max trace log holding size, only collect critical log event from now on", null, null);
         }
     }
 
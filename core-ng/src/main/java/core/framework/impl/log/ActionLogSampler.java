@@ -0,0 +1,53 @@
+package core.framework.impl.log;
+
+import core.framework.api.util.Maps;
+import core.framework.impl.log.stat.Metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * decide whether to forward OK action log, WARN/ERROR, trace and slow actions are always kept, others are kept by rate of action,
+ * and at least one OK log per action per second is kept, so low volume actions are still visible with low rate
+ *
+ * @author neo
+ */
+public final class ActionLogSampler implements Metrics {
+    final LongAdder skipped = new LongAdder();
+    private final Map<String, Double> actionRates = Maps.newHashMap();
+    private final Map<String, AtomicLong> lastKeptSeconds = Maps.newConcurrentHashMap();
+    private double rate = 1;
+    private long slowThresholdInNanos = Long.MAX_VALUE;
+
+    public void rate(double rate, Duration slowThreshold) {
+        this.rate = rate;
+        slowThresholdInNanos = slowThreshold.toNanos();
+    }
+
+    public void rate(String action, double rate) {
+        actionRates.put(action, rate);
+    }
+
+    boolean keep(ActionLog log) {
+        if (log.trace || log.elapsed >= slowThresholdInNanos || !"OK".equals(log.result())) return true;
+
+        double rate = actionRates.getOrDefault(log.action, this.rate);
+        if (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate) return true;
+
+        long second = System.currentTimeMillis() / 1000;
+        AtomicLong lastKeptSecond = lastKeptSeconds.computeIfAbsent(log.action, key -> new AtomicLong());
+        long previous = lastKeptSecond.get();
+        if (previous != second && lastKeptSecond.compareAndSet(previous, second)) return true;
+
+        skipped.increment();
+        return false;
+    }
+
+    @Override
+    public void collect(Map<String, Double> stats) {
+        stats.put("action_log_skipped_count", (double) skipped.sumThenReset());
+    }
+}
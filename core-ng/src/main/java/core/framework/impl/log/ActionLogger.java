@@ -12,7 +12,6 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 /**
@@ -45,15 +44,28 @@ public final class ActionLogger {
     }
 
     void write(ActionLog log) {
+        append(log);
+        flush();
+    }
+
+    // append to buffered writer without flush, used by async log writer to flush once per batch
+    void append(ActionLog log) {
         String actionLogMessage = actionLogMessage(log);
         try {
             writer.write(actionLogMessage);
-            writer.flush();
         } catch (IOException e) {
             fallbackLogger.println("failed to write action log, log=" + actionLogMessage + ", error=" + Exceptions.stackTrace(e));
         }
     }
 
+    void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            fallbackLogger.println("failed to flush action log, error=" + Exceptions.stackTrace(e));
+        }
+    }
+
     void close() {
         try {
             writer.close();
@@ -64,8 +76,8 @@ public final class ActionLogger {
 
     private String actionLogMessage(ActionLog log) {
         StringBuilder builder = new StringBuilder(256);
-        builder.append(DateTimeFormatter.ISO_INSTANT.format(log.date))
-            .append(LOG_SPLITTER)
+        TimestampFormatter.append(builder, log.date.toEpochMilli());
+        builder.append(LOG_SPLITTER)
             .append(log.result())
             .append(LOG_SPLITTER)
             .append("elapsed=")
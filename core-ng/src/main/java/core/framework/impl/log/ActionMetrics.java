@@ -0,0 +1,91 @@
+package core.framework.impl.log;
+
+import core.framework.api.util.Maps;
+import core.framework.impl.log.stat.Histogram;
+import core.framework.impl.log.stat.Metrics;
+
+import java.util.Map;
+
+/**
+ * aggregate elapsed/cpuTime and performance stats (e.g. db/redis/http count and elapsed) per action in process,
+ * and publish p50/p99/max with stats every collect interval, so latency is still visible if action logs are sampled or dropped,
+ * <p>
+ * only actions recorded within interval are published, stat name is action_{action}_{stat}, non alphanumeric chars of action and performance stat key are replaced with '_'
+ *
+ * @author neo
+ */
+public final class ActionMetrics implements Metrics {
+    static String statName(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            boolean valid = ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_';
+            builder.append(valid ? ch : '_');
+        }
+        return builder.toString();
+    }
+
+    private final Map<String, ActionHistograms> actions = Maps.newConcurrentHashMap();
+
+    void record(ActionLog log) {
+        ActionHistograms histograms = actions.computeIfAbsent(log.action, action -> new ActionHistograms("action_" + statName(action)));
+        histograms.elapsed.record(log.elapsed);
+        histograms.cpuTime.record(log.cpuTime);
+        log.performanceStats.forEach((key, stat) -> {
+            PerformanceHistograms performanceHistograms = histograms.performanceStats.computeIfAbsent(key, k -> new PerformanceHistograms(name(histograms.name, k)));
+            performanceHistograms.count.record(stat.count);
+            performanceHistograms.elapsed.record(stat.totalElapsed);
+        });
+    }
+
+    @Override
+    public void collect(Map<String, Double> stats) {
+        for (ActionHistograms histograms : actions.values()) {
+            Histogram.Snapshot elapsed = histograms.elapsed.snapshot();
+            if (elapsed.count == 0) continue;   // not called within interval
+
+            String name = histograms.name;
+            stats.put(name + "_count", (double) elapsed.count);
+            collect(stats, name + "_elapsed", elapsed);
+            collect(stats, name + "_cpu_time", histograms.cpuTime.snapshot());
+            for (PerformanceHistograms performanceHistograms : histograms.performanceStats.values()) {
+                Histogram.Snapshot performanceElapsed = performanceHistograms.elapsed.snapshot();
+                Histogram.Snapshot count = performanceHistograms.count.snapshot();
+                if (count.count == 0) continue;
+                collect(stats, performanceHistograms.name + "_count", count);
+                collect(stats, performanceHistograms.name + "_elapsed", performanceElapsed);
+            }
+        }
+    }
+
+    private String name(String actionName, String key) {
+        return actionName + "_" + statName(key);
+    }
+
+    private void collect(Map<String, Double> stats, String name, Histogram.Snapshot snapshot) {
+        stats.put(name + "_p50", (double) snapshot.percentile(50));
+        stats.put(name + "_p99", (double) snapshot.percentile(99));
+        stats.put(name + "_max", (double) snapshot.max);
+    }
+
+    private static final class ActionHistograms {
+        final String name;
+        final Histogram elapsed = new Histogram();
+        final Histogram cpuTime = new Histogram();
+        final Map<String, PerformanceHistograms> performanceStats = Maps.newConcurrentHashMap();
+
+        ActionHistograms(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class PerformanceHistograms {
+        final String name;
+        final Histogram count = new Histogram();
+        final Histogram elapsed = new Histogram();
+
+        PerformanceHistograms(String name) {
+            this.name = name;
+        }
+    }
+}
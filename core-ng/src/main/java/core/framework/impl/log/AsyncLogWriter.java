@@ -0,0 +1,87 @@
+package core.framework.impl.log;
+
+import core.framework.impl.log.stat.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * write action/trace log in single writer thread, request thread only puts action log into bounded queue,
+ * writer drains all queued logs and flushes action log once per batch (group commit), logs are dropped if queue is full
+ *
+ * @author neo
+ */
+public final class AsyncLogWriter implements Metrics {
+    private static final int MAX_BATCH_SIZE = 1000;
+    final LongAdder dropped = new LongAdder();
+    private final Logger logger = LoggerFactory.getLogger(AsyncLogWriter.class);
+    private final BlockingQueue<ActionLog> queue;
+    private final Thread writerThread;
+    private ActionLogger actionLogger;
+    private TraceLogger traceLogger;
+    private volatile boolean stop;
+
+    public AsyncLogWriter(int maxQueueSize) {
+        queue = new ArrayBlockingQueue<>(maxQueueSize);
+        writerThread = new Thread(this::process, "log-writer");
+        writerThread.setPriority(Thread.NORM_PRIORITY - 1);
+    }
+
+    void start(ActionLogger actionLogger, TraceLogger traceLogger) {
+        this.actionLogger = actionLogger;
+        this.traceLogger = traceLogger;
+        writerThread.start();
+    }
+
+    void stop() {
+        logger.info("stop async log writer");
+        stop = true;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));    // wait writer to flush remaining logs
+        } catch (InterruptedException e) {
+            logger.warn("failed to wait log writer to finish", e);
+        }
+    }
+
+    void add(ActionLog log) {
+        if (!queue.offer(log)) dropped.increment();
+    }
+
+    @Override
+    public void collect(Map<String, Double> stats) {
+        stats.put("log_writer_queue_size", (double) queue.size());
+        stats.put("log_writer_dropped_count", (double) dropped.sumThenReset());
+    }
+
+    private void process() {
+        List<ActionLog> logs = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!stop || !queue.isEmpty()) {
+            try {
+                ActionLog log = queue.poll(500, TimeUnit.MILLISECONDS);     // check stop periodically
+                if (log == null) continue;
+                logs.add(log);
+                queue.drainTo(logs, MAX_BATCH_SIZE - 1);
+                write(logs);
+            } catch (Throwable e) {
+                logger.warn("failed to write action log", e);
+            } finally {
+                logs.clear();
+            }
+        }
+    }
+
+    private void write(List<ActionLog> logs) {
+        for (ActionLog log : logs) {
+            if (traceLogger != null) traceLogger.writeEvents(log);
+            if (actionLogger != null) actionLogger.append(log);
+        }
+        if (actionLogger != null) actionLogger.flush();
+    }
+}
@@ -0,0 +1,42 @@
+package core.framework.impl.log;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * time ordered id in hex, [48 bits epoch millis][24 bits sequence][40 bits node], 28 chars,
+ * ids sort by time, and by sequence within same millisecond of same node, node is random per process,
+ * it's lock free and does not touch SecureRandom after class init, unlike UUID.randomUUID(), so not to be used where id must be unpredictable, e.g. session id
+ *
+ * @author neo
+ */
+public final class IdGenerator {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final long NODE;
+    private static final AtomicInteger SEQUENCE;
+
+    static {
+        SecureRandom random = new SecureRandom();
+        NODE = random.nextLong() & 0xFFFFFFFFFFL;
+        SEQUENCE = new AtomicInteger(random.nextInt());
+    }
+
+    public static String next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static String next(long time) {
+        char[] id = new char[28];
+        hex(id, 0, time, 12);
+        hex(id, 12, SEQUENCE.getAndIncrement(), 6);
+        hex(id, 18, NODE, 10);
+        return new String(id);
+    }
+
+    private static void hex(char[] id, int offset, long value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            id[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -6,9 +6,6 @@ import core.framework.api.util.Strings;
 import core.framework.impl.log.marker.ErrorCodeMarker;
 import org.slf4j.Marker;
 
-import java.time.Instant;
-import java.time.format.DateTimeFormatter;
-
 /**
  * @author neo
  */
@@ -17,7 +14,7 @@ final class LogEvent {
     private final String thread;
     private final String logger;
     private final Marker marker;
-    private final long time = System.currentTimeMillis();
+    private final long time;
     private final String message;
     private final Object[] arguments;
     private final Throwable exception;
@@ -25,20 +22,25 @@ final class LogEvent {
     private String logMessage;
 
     LogEvent(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        this(System.currentTimeMillis(), Thread.currentThread().getName(), logger, marker, level, message, arguments, exception);
+    }
+
+    LogEvent(long time, String thread, String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        this.time = time;
+        this.thread = thread;
         this.level = level;
         this.marker = marker;
         this.logger = logger;
         this.message = message;
         this.arguments = arguments;
         this.exception = exception;
-        thread = Thread.currentThread().getName();
     }
 
     String logMessage() {
         if (logMessage == null) {
             StringBuilder builder = new StringBuilder(256);
-            builder.append(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(time)))
-                .append(" [")
+            TimestampFormatter.append(builder, time);
+            builder.append(" [")
                 .append(thread)
                 .append("] ")
                 .append(level.name())
@@ -1,5 +1,6 @@
 package core.framework.impl.log;
 
+import core.framework.api.log.OverflowPolicy;
 import core.framework.api.util.Maps;
 import core.framework.api.util.Network;
 import core.framework.api.util.Threads;
@@ -19,43 +20,54 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * messages are queued in bounded queue, forwarder thread drains queue in batch and sends to kafka,
+ * kafka producer groups records into batches per partition (linger) and compresses each batch with lz4,
+ * so each record is still one json message for log processor
+ *
  * @author neo
  */
 public final class LogForwarder {
     private static final int MAX_TRACE_LENGTH = 1000000; // 1M
+    private static final int MAX_BATCH_SIZE = 1000;
     public final ProducerMetrics producerMetrics;
+    public final LogForwarderMetrics metrics;
     private final Logger logger = LoggerFactory.getLogger(LogForwarder.class);
     private final String appName;
 
-    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final LogQueue queue;
     private final KafkaProducer<String, byte[]> kafkaProducer;
 
     private final AtomicBoolean stop = new AtomicBoolean(false);
     private final Thread logForwarderThread;
     private final JSONWriter<ActionLogMessage> actionLogWriter = JSONWriter.of(ActionLogMessage.class);
     private final JSONWriter<StatMessage> statWriter = JSONWriter.of(StatMessage.class);
-    private final Callback callback = (metadata, exception) -> {
-        if (exception != null) {
-            logger.warn("failed to send log message", exception);
-            queue.clear();
-        }
-    };
+    private final Callback callback;
 
-    public LogForwarder(String uri, String appName) {
+    public LogForwarder(String uri, String appName, int maxQueueSize, OverflowPolicy overflowPolicy) {
         this.appName = appName;
+        queue = new LogQueue(maxQueueSize, overflowPolicy);
+        metrics = new LogForwarderMetrics(queue);
+        callback = (metadata, exception) -> {
+            if (exception != null) {
+                logger.warn("failed to send log message", exception);
+                metrics.failed.increment();
+            }
+        };
         Map<String, Object> config = Maps.newHashMap();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, uri);
         config.put(ProducerConfig.ACKS_CONFIG, "0");    // no acknowledge to maximize performance
         config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, Duration.ofSeconds(30).toMillis());  // metadata update timeout
         config.put(ProducerConfig.CLIENT_ID_CONFIG, "log-forwarder");
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);   // 256K per partition batch, log messages are large with trace
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 50);   // wait up to 50ms to fill batch, delay is fine for log
         kafkaProducer = new KafkaProducer<>(config, new StringSerializer(), new ByteArraySerializer());
 
         producerMetrics = new ProducerMetrics("log-forwarder");
@@ -63,19 +75,19 @@ public final class LogForwarder {
 
         logForwarderThread = new Thread(() -> {
             logger.info("log forwarder thread started, uri={}", uri);
+            List<Object> messages = new ArrayList<>(MAX_BATCH_SIZE);
             while (!stop.get()) {
                 try {
-                    Object message = queue.take();
-                    if (message instanceof ActionLogMessage) {
-                        kafkaProducer.send(new ProducerRecord<>("action-log", actionLogWriter.toJSON((ActionLogMessage) message)), callback);
-                    } else if (message instanceof StatMessage) {
-                        kafkaProducer.send(new ProducerRecord<>("stat", statWriter.toJSON((StatMessage) message)), callback);
-                    }
+                    messages.add(queue.take());
+                    queue.drainTo(messages, MAX_BATCH_SIZE - 1);
+                    send(messages);
                 } catch (Throwable e) {
                     if (!stop.get()) {
                         logger.warn("failed to send log message, retry in 30 seconds", e);
                         Threads.sleepRoughly(Duration.ofSeconds(30));
                     }
+                } finally {
+                    messages.clear();
                 }
             }
         });
@@ -83,6 +95,23 @@ public final class LogForwarder {
         logForwarderThread.setPriority(Thread.NORM_PRIORITY - 1);
     }
 
+    private void send(List<Object> messages) {
+        int index = 0;
+        try {
+            for (Object message : messages) {
+                if (message instanceof ActionLogMessage) {
+                    kafkaProducer.send(new ProducerRecord<>("action-log", actionLogWriter.toJSON((ActionLogMessage) message)), callback);
+                } else if (message instanceof StatMessage) {
+                    kafkaProducer.send(new ProducerRecord<>("stat", statWriter.toJSON((StatMessage) message)), callback);
+                }
+                index++;
+            }
+        } catch (Throwable e) {
+            metrics.failed.add(messages.size() - index);     // drop rest of batch, e.g. kafka is not available
+            throw e;
+        }
+    }
+
     public void start() {
         logForwarderThread.start();
     }
@@ -134,7 +163,7 @@ public final class LogForwarder {
 
     public void forwardStats(Map<String, Double> stats) {
         StatMessage message = new StatMessage();
-        message.id = UUID.randomUUID().toString();
+        message.id = IdGenerator.next();
         message.date = Instant.now();
         message.app = appName;
         message.serverIP = Network.localHostAddress();
@@ -0,0 +1,25 @@
+package core.framework.impl.log;
+
+import core.framework.impl.log.stat.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author neo
+ */
+public final class LogForwarderMetrics implements Metrics {
+    final LongAdder failed = new LongAdder();
+    private final LogQueue queue;
+
+    LogForwarderMetrics(LogQueue queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public void collect(Map<String, Double> stats) {
+        stats.put("log_forwarder_queue_size", (double) queue.size());   // lag of forwarder
+        stats.put("log_forwarder_dropped_count", (double) queue.dropped.sumThenReset());
+        stats.put("log_forwarder_failed_count", (double) failed.sumThenReset());
+    }
+}
@@ -18,6 +18,9 @@ public final class LogManager {
     public ActionLogger actionLogger;
     public TraceLogger traceLogger;
     public LogForwarder logForwarder;
+    public AsyncLogWriter asyncLogWriter;
+    public ActionMetrics actionMetrics;
+    public ActionLogSampler actionLogSampler;
     public MessageFilter filter;
 
     public LogManager() {
@@ -25,30 +28,40 @@ public final class LogManager {
     }
 
     public void begin(String message) {
-        this.actionLog.set(new ActionLog(message));
+        ActionLog actionLog = new ActionLog(message);
+        actionLog.filter = filter;
+        this.actionLog.set(actionLog);
     }
 
     public void end(String message) {
         ActionLog actionLog = currentActionLog();
         this.actionLog.remove();
         actionLog.end(message);
+        if (actionMetrics != null) actionMetrics.record(actionLog);
 
-        if (traceLogger != null) traceLogger.write(actionLog);  // trace log generate logPath context to action log, so make it process first
-        if (actionLogger != null) actionLogger.write(actionLog);
-        if (logForwarder != null) logForwarder.forwardLog(actionLog);
+        if (asyncLogWriter != null) {
+            if (traceLogger != null) traceLogger.logPath(actionLog);    // logPath context is required by log forwarder, so assign before queue
+            asyncLogWriter.add(actionLog);
+        } else {
+            if (traceLogger != null) traceLogger.write(actionLog);  // trace log generate logPath context to action log, so make it process first
+            if (actionLogger != null) actionLogger.write(actionLog);
+        }
+        if (logForwarder != null && (actionLogSampler == null || actionLogSampler.keep(actionLog))) logForwarder.forwardLog(actionLog);
     }
 
-    public void process(LogEvent event) {
+    void process(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
         ActionLog actionLog = currentActionLog();
-        if (actionLog != null) actionLog.process(event);    // process is called by loggerImpl.log, begin() may not be called before
+        if (actionLog != null) actionLog.process(logger, marker, level, message, arguments, exception);    // process is called by loggerImpl.log, begin() may not be called before
     }
 
     public void start() {
+        if (asyncLogWriter != null) asyncLogWriter.start(actionLogger, traceLogger);
         if (logForwarder != null) logForwarder.start();
     }
 
     public void stop() {
         if (logForwarder != null) logForwarder.stop();
+        if (asyncLogWriter != null) asyncLogWriter.stop();
         if (actionLogger != null) actionLogger.close();
     }
 
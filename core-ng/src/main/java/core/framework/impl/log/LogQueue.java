@@ -0,0 +1,56 @@
+package core.framework.impl.log;
+
+import core.framework.api.log.OverflowPolicy;
+import core.framework.impl.log.queue.ActionLogMessage;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * bounded queue (ring buffer backed) between log producers and forwarder thread, producers never block,
+ * messages are dropped according to overflow policy when forwarder can not catch up
+ *
+ * @author neo
+ */
+final class LogQueue {
+    final LongAdder dropped = new LongAdder();
+    private final ArrayBlockingQueue<Object> queue;
+    private final OverflowPolicy policy;
+    private final int sampleThreshold;
+
+    LogQueue(int maxSize, OverflowPolicy policy) {
+        queue = new ArrayBlockingQueue<>(maxSize);
+        this.policy = policy;
+        sampleThreshold = maxSize / 2;
+    }
+
+    void add(Object message) {
+        if (policy == OverflowPolicy.SAMPLE && queue.size() >= sampleThreshold && sampleOut(message)) {
+            dropped.increment();
+            return;
+        }
+        while (!queue.offer(message)) {
+            if (queue.poll() != null) dropped.increment();
+        }
+    }
+
+    private boolean sampleOut(Object message) {
+        return message instanceof ActionLogMessage
+            && "OK".equals(((ActionLogMessage) message).result)
+            && ThreadLocalRandom.current().nextInt(10) != 0;
+    }
+
+    Object take() throws InterruptedException {
+        return queue.take();
+    }
+
+    int drainTo(List<Object> messages, int maxMessages) {
+        return queue.drainTo(messages, maxMessages);
+    }
+
+    int size() {
+        return queue.size();
+    }
+}
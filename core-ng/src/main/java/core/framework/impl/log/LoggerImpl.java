@@ -43,11 +43,11 @@ public final class LoggerImpl extends AbstractLogger {
     @Override
     public void log(Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
         if (level.value >= traceLevel.value) {
-            LogEvent event = new LogEvent(logger, marker, level, message, arguments, exception);
-            event.filter = logManager.filter;
-            logManager.process(event);
+            logManager.process(logger, marker, level, message, arguments, exception);
 
-            if (level.value >= infoLevel.value) {
+            if (level.value >= infoLevel.value) {   // only create event for console output, action log keeps raw arguments
+                LogEvent event = new LogEvent(logger, marker, level, message, arguments, exception);
+                event.filter = logManager.filter;
                 output.print(event.logMessage());
             }
         }
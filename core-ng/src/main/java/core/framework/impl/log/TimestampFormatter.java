@@ -0,0 +1,48 @@
+package core.framework.impl.log;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * format epoch millis as ISO instant in UTC, e.g. 2017-03-01T08:30:15.123Z, always with 3 digits of millis to keep fixed length,
+ * the "yyyy-MM-ddTHH:mm:ss" part is cached per second and shared by all threads, so only millis is appended for most log lines
+ *
+ * @author neo
+ */
+public final class TimestampFormatter {
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static volatile CachedSecond cachedSecond = new CachedSecond(0, SECOND_FORMAT.format(Instant.EPOCH));
+
+    public static String format(long time) {
+        StringBuilder builder = new StringBuilder(24);
+        append(builder, time);
+        return builder.toString();
+    }
+
+    public static void append(StringBuilder builder, long time) {
+        long second = Math.floorDiv(time, 1000);
+        CachedSecond cached = cachedSecond;
+        if (cached.second != second) {     // with async writer, time may go back and forth around second boundary, it only costs one more format
+            cached = new CachedSecond(second, SECOND_FORMAT.format(Instant.ofEpochSecond(second)));
+            cachedSecond = cached;
+        }
+        int millis = (int) Math.floorMod(time, 1000);
+        builder.append(cached.value)
+            .append('.')
+            .append((char) ('0' + millis / 100))
+            .append((char) ('0' + millis / 10 % 10))
+            .append((char) ('0' + millis % 10))
+            .append('Z');
+    }
+
+    private static final class CachedSecond {
+        final long second;
+        final String value;
+
+        CachedSecond(long second, String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+}
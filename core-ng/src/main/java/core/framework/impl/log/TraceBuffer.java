@@ -0,0 +1,101 @@
+package core.framework.impl.log;
+
+import core.framework.api.log.MessageFilter;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * reusable per thread event storage for action log, events are kept as raw fields in arrays, message is not formatted,
+ * LogEvent is only created when trace log is flushed (result is WARN/ERROR or trace=true), so OK action allocates nothing per event,
+ * <p>
+ * buffer must be released when action log ends, it creates new buffer if pooled buffer is still in use, e.g. begin action log within another action on same thread
+ *
+ * @author neo
+ */
+final class TraceBuffer {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_POOLED_CAPACITY = 1024;   // not to hold large buffer per thread after action with huge trace
+    private static final ThreadLocal<TraceBuffer> BUFFERS = ThreadLocal.withInitial(TraceBuffer::new);
+
+    static TraceBuffer acquire() {
+        TraceBuffer buffer = BUFFERS.get();
+        if (buffer.inUse) return new TraceBuffer();
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    int size;
+    private boolean inUse;
+    private long[] times;
+    private LogLevel[] levels;
+    private String[] loggers;
+    private Marker[] markers;
+    private String[] messages;
+    private Object[][] arguments;
+    private Throwable[] exceptions;
+
+    private TraceBuffer() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    void add(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        if (size == times.length) grow();
+        times[size] = System.currentTimeMillis();
+        levels[size] = level;
+        loggers[size] = logger;
+        markers[size] = marker;
+        messages[size] = message;
+        this.arguments[size] = arguments;
+        exceptions[size] = exception;
+        size++;
+    }
+
+    List<LogEvent> events(String thread, MessageFilter filter) {
+        List<LogEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LogEvent event = new LogEvent(times[i], thread, loggers[i], markers[i], levels[i], messages[i], arguments[i], exceptions[i]);
+            event.filter = filter;
+            events.add(event);
+        }
+        return events;
+    }
+
+    void release() {
+        if (times.length > MAX_POOLED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else {
+            Arrays.fill(loggers, 0, size, null);    // not to hold references of arguments/exceptions after action ends
+            Arrays.fill(markers, 0, size, null);
+            Arrays.fill(levels, 0, size, null);
+            Arrays.fill(messages, 0, size, null);
+            Arrays.fill(arguments, 0, size, null);
+            Arrays.fill(exceptions, 0, size, null);
+        }
+        size = 0;
+        inUse = false;
+    }
+
+    private void grow() {
+        int capacity = times.length << 1;
+        times = Arrays.copyOf(times, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        loggers = Arrays.copyOf(loggers, capacity);
+        markers = Arrays.copyOf(markers, capacity);
+        messages = Arrays.copyOf(messages, capacity);
+        arguments = Arrays.copyOf(arguments, capacity);
+        exceptions = Arrays.copyOf(exceptions, capacity);
+    }
+
+    private void allocate(int capacity) {
+        times = new long[capacity];
+        levels = new LogLevel[capacity];
+        loggers = new String[capacity];
+        markers = new Marker[capacity];
+        messages = new String[capacity];
+        arguments = new Object[capacity][];
+        exceptions = new Throwable[capacity];
+    }
+}
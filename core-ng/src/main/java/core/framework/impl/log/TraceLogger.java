@@ -37,16 +37,28 @@ public final class TraceLogger {
 
     private final PrintStream errorLogger = System.err;
     private final Path traceLogPath;
-    private boolean console;
 
     TraceLogger(Path traceLogPath) {
         this.traceLogPath = traceLogPath;
     }
 
     void write(ActionLog log) {
+        logPath(log);
+        writeEvents(log);
+    }
+
+    // trace log generates logPath context to action log, it must be called before action log is written or forwarded
+    void logPath(ActionLog log) {
+        if (traceLogPath == null || !log.flushTraceLog()) return;
+        String logPath = traceLogFilePath(traceLogPath.toString(), LocalDateTime.ofInstant(log.date, ZoneId.systemDefault()), log.action, log.id);
+        log.context.put("logPath", logPath);    // not log as event but add value to context, no need to see logPath in trace
+    }
+
+    void writeEvents(ActionLog log) {
         if (!log.flushTraceLog()) return;
 
-        Writer writer = createWriter(log);
+        Writer fileWriter = createFileWriter(log.context.get("logPath"));
+        Writer writer = fileWriter != null ? fileWriter : new BufferedWriter(new OutputStreamWriter(System.err, Charsets.UTF_8));
         try {
             for (LogEvent event : log.events) {
                 String message = event.logMessage();
@@ -55,11 +67,11 @@ public final class TraceLogger {
         } catch (IOException e) {
             errorLogger.println("failed to write trace log, error=" + Exceptions.stackTrace(e));
         } finally {
-            close(writer);
+            close(writer, fileWriter == null);
         }
     }
 
-    private void close(Writer writer) {
+    private void close(Writer writer, boolean console) {
         try {
             if (console) {
                 writer.flush();     // do not close System.err (when traceLogPath is null)
@@ -71,21 +83,17 @@ public final class TraceLogger {
         }
     }
 
-    private Writer createWriter(ActionLog log) {
-        if (traceLogPath != null) {
-            try {
-                String logPath = traceLogFilePath(traceLogPath.toString(), LocalDateTime.ofInstant(log.date, ZoneId.systemDefault()), log.action, log.id);
-                log.context.put("logPath", logPath);    // not log as event but add value to context, no need to see logPath in trace
-                Path path = Paths.get(logPath).toAbsolutePath();
-                createDir(path.getParent());
-                createFile(path);
-                return Files.newBufferedWriter(path, Charsets.UTF_8, StandardOpenOption.APPEND);
-            } catch (IOException e) {
-                errorLogger.println("failed to create trace log file, error=" + Exceptions.stackTrace(e));
-            }
+    private Writer createFileWriter(String logPath) {
+        if (logPath == null) return null;
+        try {
+            Path path = Paths.get(logPath).toAbsolutePath();
+            createDir(path.getParent());
+            createFile(path);
+            return Files.newBufferedWriter(path, Charsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            errorLogger.println("failed to create trace log file, error=" + Exceptions.stackTrace(e));
+            return null;
         }
-        console = true;
-        return new BufferedWriter(new OutputStreamWriter(System.err, Charsets.UTF_8));
     }
 
     String traceLogFilePath(String logDirectory, LocalDateTime date, String action, String id) {
@@ -0,0 +1,77 @@
+package core.framework.impl.log.stat;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * lock free histogram with log-linear buckets (similar to HdrHistogram), each power of 2 range is split into 16 sub buckets,
+ * so recorded value has at most 1/16 (6.25%) relative error, which is good enough for latency stats,
+ * <p>
+ * snapshot() resets the histogram, to collect stats per interval
+ *
+ * @author neo
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket & (SUB_BUCKETS - 1);
+        long lowerBound = (SUB_BUCKETS | subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        if (value < 0) return;
+        counts.incrementAndGet(bucket(value));
+        max.accumulate(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = counts.getAndSet(i, 0);
+            snapshot[i] = bucketCount;
+            count += bucketCount;
+        }
+        return new Snapshot(snapshot, count, max.getThenReset());
+    }
+
+    public static final class Snapshot {
+        public final long count;
+        public final long max;
+        private final long[] counts;
+
+        Snapshot(long[] counts, long count, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.max = max;
+        }
+
+        // return upper bound of the bucket where the percentile falls in, capped by max
+        public long percentile(double percentile) {
+            if (count == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long accumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= target) return Math.min(bucketUpperBound(i), max);
+            }
+            return max;
+        }
+    }
+}
@@ -8,6 +8,6 @@ import com.rabbitmq.client.AMQP;
 public interface RabbitMQ {
     void publish(String exchange, String routingKey, byte[] message, AMQP.BasicProperties properties);
 
-    // consumer must be used in current thread, since the impl uses LockSupport.park()
-    RabbitMQConsumer consumer(String queue, int prefetchCount);
+    // deliveries are pushed to handler by rabbitMQ client thread
+    RabbitMQConsumer consumer(String queue, int prefetchCount, RabbitMQConsumer.DeliveryHandler handler);
 }
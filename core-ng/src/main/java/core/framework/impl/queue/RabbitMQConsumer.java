@@ -5,7 +5,6 @@ import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Consumer;
 import com.rabbitmq.client.ConsumerCancelledException;
 import com.rabbitmq.client.Envelope;
-import com.rabbitmq.client.QueueingConsumer;
 import com.rabbitmq.client.ShutdownSignalException;
 import com.rabbitmq.utility.Utility;
 import core.framework.api.log.ActionLogContext;
@@ -16,46 +15,54 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.locks.LockSupport;
 
 /**
+ * push based consumer, rabbitMQ client thread dispatches deliveries to handler directly, in flight deliveries are bounded by prefetch count,
+ * <p>
+ * acks are batched, handled delivery is acked with multiple=true once all previous deliveries are handled,
+ * and either ackBatchSize deliveries are handled since last ack or there is no more in flight delivery,
+ * delivery not handled (e.g. rejected by handler pool during shutdown) must be rejected to requeue, so it won't block acks of later deliveries
+ *
  * @author neo
  */
 public class RabbitMQConsumer implements Consumer, AutoCloseable {
     private final Logger logger = LoggerFactory.getLogger(RabbitMQConsumer.class);
-    private final QueueingConsumer.Delivery stopSignal = new QueueingConsumer.Delivery(null, null, null);
-    private final Queue<QueueingConsumer.Delivery> deliveries = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch shutdownLatch = new CountDownLatch(1);
+    private final Map<Long, Boolean> pendingDeliveries = new LinkedHashMap<>();   // deliveryTag -> handled, in delivery order, guarded by itself
     private final Channel channel;
     private final String queue;
     private final long slowOperationThresholdInNanos;
-    private final Thread consumerThread;
+    private final DeliveryHandler handler;
+    private final int ackBatchSize;
+    private final String consumerTag;
+    private long handledDeliveryTag;
+    private int unackedCount;
     private volatile ShutdownSignalException shutdown;
     private volatile ConsumerCancelledException cancelled;
 
-    // refer to com.rabbitmq.client.QueueingConsumer
-    public RabbitMQConsumer(Channel channel, String queue, int prefetchCount, long slowOperationThresholdInNanos) {
+    public RabbitMQConsumer(Channel channel, String queue, int prefetchCount, long slowOperationThresholdInNanos, DeliveryHandler handler) {
         this.channel = channel;
         this.queue = queue;
         this.slowOperationThresholdInNanos = slowOperationThresholdInNanos;
+        this.handler = handler;
+        ackBatchSize = Math.max(1, prefetchCount / 4);    // ack before broker stops delivering at prefetch limit
         try {
             channel.basicQos(prefetchCount);
-            channel.basicConsume(queue, false, this);   // QOS only works with manual ack
+            consumerTag = channel.basicConsume(queue, false, this);   // QOS only works with manual ack
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
-        consumerThread = Thread.currentThread();
     }
 
     @Override
     public void handleShutdownSignal(String consumerTag, ShutdownSignalException shutdown) {
         this.shutdown = shutdown;
-        deliveries.add(stopSignal);
-        LockSupport.unpark(consumerThread);
+        shutdownLatch.countDown();
     }
 
     @Override
@@ -76,79 +83,80 @@ public class RabbitMQConsumer implements Consumer, AutoCloseable {
     @Override
     public void handleCancel(String consumerTag) throws IOException {
         cancelled = new ConsumerCancelledException();
-        deliveries.add(stopSignal);
-        LockSupport.unpark(consumerThread);
+        shutdownLatch.countDown();
     }
 
     @Override
     public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties, byte[] body) {
-        if (shutdown != null) throw Utility.fixStackTrace(shutdown);
-        deliveries.add(new QueueingConsumer.Delivery(envelope, properties, body));
-        LockSupport.unpark(consumerThread);
-    }
-
-    public QueueingConsumer.Delivery nextDelivery() throws ShutdownSignalException, ConsumerCancelledException, InterruptedException {
-        while (true) {
-            QueueingConsumer.Delivery delivery = poll();
-            if (delivery != null) {
-                return delivery;
-            } else {
-                park();
-            }
+        long deliveryTag = envelope.getDeliveryTag();
+        synchronized (pendingDeliveries) {
+            pendingDeliveries.put(deliveryTag, Boolean.FALSE);
         }
+        handler.handle(this, deliveryTag, properties, body);
     }
 
-    public Deque<QueueingConsumer.Delivery> nextDeliveries(int maxSize) throws ShutdownSignalException, ConsumerCancelledException, InterruptedException {
-        while (true) {
-            QueueingConsumer.Delivery delivery = poll();
-            if (delivery != null) {
-                Deque<QueueingConsumer.Delivery> deliveries = new LinkedList<>();
-                deliveries.add(delivery);
-                while (deliveries.size() < maxSize) {
-                    delivery = poll();
-                    if (delivery == null) break;
-                    deliveries.add(delivery);
-                }
-                return deliveries;
-            } else {
-                park();
-            }
-        }
+    // block until channel is shutdown or consumer is cancelled by broker
+    public void await() throws InterruptedException {
+        shutdownLatch.await();
+        if (shutdown != null) throw Utility.fixStackTrace(shutdown);
+        if (cancelled != null) throw Utility.fixStackTrace(cancelled);
     }
 
-    private QueueingConsumer.Delivery poll() {
-        QueueingConsumer.Delivery delivery = deliveries.poll();
-        if (stopSignal.equals(delivery) || shutdown != null || cancelled != null) {
-            if (stopSignal.equals(delivery)) deliveries.add(stopSignal);
-            if (shutdown != null) throw Utility.fixStackTrace(shutdown);
-            if (cancelled != null) throw Utility.fixStackTrace(cancelled);
+    // stop receiving new deliveries, in flight deliveries can still be acknowledged until close
+    public void cancel() {
+        try {
+            channel.basicCancel(consumerTag);
+        } catch (IOException e) {
+            logger.warn("failed to cancel consumer, queue={}", queue, e);
         }
-        return delivery;
     }
 
-    private void park() throws InterruptedException {
-        LockSupport.park();
-        if (Thread.interrupted()) throw new InterruptedException();
+    public void acknowledge(long deliveryTag) {
+        synchronized (pendingDeliveries) {    // keep multiple acks in order
+            pendingDeliveries.put(deliveryTag, Boolean.TRUE);     // update value keeps insertion order
+            acknowledgeHandledDeliveries();
+        }
     }
 
-    public void acknowledgeAll(long deliveryTag) {
-        acknowledge(deliveryTag, true);
+    public void reject(long deliveryTag) {
+        synchronized (pendingDeliveries) {    // requeue before any later multiple ack covers this delivery tag
+            try {
+                channel.basicReject(deliveryTag, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            } finally {
+                pendingDeliveries.remove(deliveryTag);
+                logger.debug("reject, queue={}, deliveryTag={}, requeue=true", queue, deliveryTag);
+            }
+            acknowledgeHandledDeliveries();
+        }
     }
 
-    public void acknowledge(long deliveryTag) {
-        acknowledge(deliveryTag, false);
+    private void acknowledgeHandledDeliveries() {    // must be called with lock of pendingDeliveries
+        Iterator<Map.Entry<Long, Boolean>> iterator = pendingDeliveries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Boolean> entry = iterator.next();
+            if (!entry.getValue()) break;
+            handledDeliveryTag = entry.getKey();
+            unackedCount++;
+            iterator.remove();
+        }
+        if (unackedCount > 0 && (unackedCount >= ackBatchSize || pendingDeliveries.isEmpty())) {
+            unackedCount = 0;
+            acknowledgeAll(handledDeliveryTag);
+        }
     }
 
-    private void acknowledge(long deliveryTag, boolean multiple) {
+    private void acknowledgeAll(long deliveryTag) {
         StopWatch watch = new StopWatch();
         try {
-            channel.basicAck(deliveryTag, multiple);
+            channel.basicAck(deliveryTag, true);
         } catch (IOException e) {
             throw new UncheckedIOException(e.getMessage(), e);
         } finally {
             long elapsedTime = watch.elapsedTime();
             ActionLogContext.track("rabbitMQ", elapsedTime);
-            logger.debug("acknowledge, queue={}, deliveryTag={}, multiple={}, elapsedTime={}", queue, deliveryTag, multiple, elapsedTime);
+            logger.debug("acknowledge, queue={}, deliveryTag={}, multiple=true, elapsedTime={}", queue, deliveryTag, elapsedTime);
             if (elapsedTime > slowOperationThresholdInNanos) {
                 logger.warn(Markers.errorCode("SLOW_RABBITMQ"), "slow rabbitMQ operation, elapsedTime={}", elapsedTime);
             }
@@ -165,4 +173,10 @@ public class RabbitMQConsumer implements Consumer, AutoCloseable {
             logger.warn("failed to close channel", e);
         }
     }
+
+    @FunctionalInterface
+    public interface DeliveryHandler {
+        // called by rabbitMQ client thread, must not block, and must call consumer.acknowledge(deliveryTag) once message is handled
+        void handle(RabbitMQConsumer consumer, long deliveryTag, AMQP.BasicProperties properties, byte[] body);
+    }
 }
@@ -93,9 +93,9 @@ public final class RabbitMQImpl implements RabbitMQ {
     }
 
     @Override
-    public RabbitMQConsumer consumer(String queue, int prefetchCount) {
+    public RabbitMQConsumer consumer(String queue, int prefetchCount, RabbitMQConsumer.DeliveryHandler handler) {
         Channel channel = createChannel();
-        return new RabbitMQConsumer(channel, queue, prefetchCount, slowOperationThresholdInNanos);
+        return new RabbitMQConsumer(channel, queue, prefetchCount, slowOperationThresholdInNanos, handler);
     }
 
     @Override
@@ -1,7 +1,6 @@
 package core.framework.impl.queue;
 
 import com.rabbitmq.client.AMQP;
-import com.rabbitmq.client.QueueingConsumer;
 import core.framework.api.module.MessageHandlerConfig;
 import core.framework.api.queue.Message;
 import core.framework.api.queue.MessageHandler;
@@ -20,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -41,6 +41,7 @@ public final class RabbitMQListener implements MessageHandlerConfig {
     private final Map<String, JSONReader> readers = Maps.newHashMap();
     private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
     private ExecutorService handlerExecutor;
+    private volatile RabbitMQConsumer consumer;
 
     public RabbitMQListener(RabbitMQ rabbitMQ, String queue, MessageValidator validator, LogManager logManager) {
         this.queue = queue;
@@ -50,14 +51,12 @@ public final class RabbitMQListener implements MessageHandlerConfig {
         listenerThread = new Thread(() -> {
             logger.info("rabbitMQ listener started, queue={}", queue);
             while (!stop.get()) {
-                try (RabbitMQConsumer consumer = rabbitMQ.consumer(queue, poolSize * 2)) { // prefetch one more for each handler to improve throughput
-                    while (!stop.get()) {
-                        QueueingConsumer.Delivery delivery = consumer.nextDelivery();
-                        handlerExecutor.submit(() -> handleDelivery(consumer, delivery));
-                    }
+                try (RabbitMQConsumer consumer = rabbitMQ.consumer(queue, prefetchCount(), this::dispatch)) {
+                    this.consumer = consumer;
+                    consumer.await();
                 } catch (Throwable e) {
-                    if (!stop.get()) {  // if not initiated by shutdown, exception types can be ShutdownSignalException, InterruptedException
-                        logger.error("failed to pull message, retry in 30 seconds", e);
+                    if (!stop.get()) {  // if not initiated by shutdown, exception types can be ShutdownSignalException, ConsumerCancelledException
+                        logger.error("failed to consume message, retry in 30 seconds", e);
                         Threads.sleepRoughly(Duration.ofSeconds(30));
                     }
                 }
@@ -84,54 +83,66 @@ public final class RabbitMQListener implements MessageHandlerConfig {
     }
 
     public void start() {
-        handlerExecutor = ThreadPools.cachedThreadPool(poolSize, "rabbitMQ-" + queue + "-handler-");
+        handlerExecutor = ThreadPools.boundedThreadPool(poolSize, prefetchCount(), "rabbitMQ-" + queue + "-handler-");
         listenerThread.start();
     }
 
     public void stop() {
         logger.info("stop rabbitMQ listener, queue={}", queue);
         stop.set(true);
-        listenerThread.interrupt();
+        RabbitMQConsumer consumer = this.consumer;
+        if (consumer != null) consumer.cancel();    // stop new deliveries, and keep channel open to ack in flight deliveries
         handlerExecutor.shutdown();
         try {
             handlerExecutor.awaitTermination(10, TimeUnit.SECONDS);     // wait 10 seconds to finish current tasks
         } catch (InterruptedException e) {
             logger.warn("failed to wait all tasks to finish", e);
         }
+        listenerThread.interrupt();     // close channel, unacked deliveries will be redelivered
+    }
+
+    // prefetch one more for each handler to improve throughput, and handler queue is bounded by prefetch
+    private int prefetchCount() {
+        return poolSize * 2;
+    }
+
+    private void dispatch(RabbitMQConsumer consumer, long deliveryTag, AMQP.BasicProperties properties, byte[] body) {
+        try {
+            handlerExecutor.execute(() -> handleDelivery(consumer, deliveryTag, properties, body));
+        } catch (RejectedExecutionException e) {    // handler pool is shutdown or full, requeue to let broker redeliver
+            logger.warn("handler pool rejected delivery, requeue message, queue={}, deliveryTag={}", queue, deliveryTag);
+            consumer.reject(deliveryTag);
+        }
     }
 
-    private void acknowledge(RabbitMQConsumer consumer, QueueingConsumer.Delivery delivery) {
+    private void acknowledge(RabbitMQConsumer consumer, long deliveryTag) {
         try {
-            consumer.acknowledge(delivery.getEnvelope().getDeliveryTag());
+            consumer.acknowledge(deliveryTag);
         } catch (Throwable e) {
             logManager.logError(e);
         }
     }
 
-    private Void handleDelivery(RabbitMQConsumer consumer, QueueingConsumer.Delivery delivery) throws Exception {
+    private void handleDelivery(RabbitMQConsumer consumer, long deliveryTag, AMQP.BasicProperties properties, byte[] body) {
         try {
             logManager.begin("=== message handling begin ===");
-            handleDelivery(delivery);
-            return null;
+            handleDelivery(properties, body);
         } catch (Throwable e) {
             logManager.logError(e);
-            throw e;
         } finally {
-            acknowledge(consumer, delivery);
+            acknowledge(consumer, deliveryTag);
             logManager.end("=== message handling end ===");
         }
     }
 
-    private <T> void handleDelivery(QueueingConsumer.Delivery delivery) throws Exception {
+    private <T> void handleDelivery(AMQP.BasicProperties properties, byte[] body) throws Exception {
         ActionLog actionLog = logManager.currentActionLog();
 
-        AMQP.BasicProperties properties = delivery.getProperties();
         String messageType = properties.getType();
 
         actionLog.action(action(messageType));
         actionLog.context("messageType", messageType);
 
-        byte[] body = delivery.getBody();
         logger.debug("body={}", LogParam.of(body));
 
         if (Strings.isEmpty(messageType)) throw new Error("message type must not be empty");
@@ -0,0 +1,193 @@
+package core.framework.impl.redis;
+
+import core.framework.api.log.ActionLogContext;
+import core.framework.api.util.Lists;
+import core.framework.api.util.StopWatch;
+import core.framework.impl.resource.Pool;
+import core.framework.impl.resource.PoolItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * commands from all threads are queued, and dispatcher threads drain queue and send them in one pipeline per connection,
+ * replies are matched back to commands in order by jedis pipeline,
+ * so few connections can serve many concurrent threads, and round trip is shared by all commands in same batch
+ * <p>
+ * queue is bounded, command fails fast if queue is full, and command whose caller is timed out is dropped without sending,
+ * as caller already treats it as failure, sending write command afterwards may overwrite newer value
+ *
+ * @author neo
+ */
+public final class AutoPipeline {
+    private final Logger logger = LoggerFactory.getLogger(AutoPipeline.class);
+    final BlockingQueue<Command<?>> queue;
+    private final RedisImpl redis;
+    private final Pool<BinaryJedis> pool;
+    private final Thread[] dispatchers;
+    private final int maxBatchSize = 500;
+    private volatile boolean stop;
+
+    AutoPipeline(RedisImpl redis, Pool<BinaryJedis> pool, int connections, int maxQueueSize) {
+        this.redis = redis;
+        this.pool = pool;
+        queue = new ArrayBlockingQueue<>(maxQueueSize);
+        dispatchers = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            Thread dispatcher = new Thread(this::dispatch, "redis-pipeline-" + i);
+            dispatcher.setDaemon(true);
+            dispatchers[i] = dispatcher;
+        }
+    }
+
+    public void start() {
+        logger.info("start redis auto pipeline, connections={}", dispatchers.length);
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.start();
+        }
+    }
+
+    public void stop() {
+        logger.info("stop redis auto pipeline");
+        stop = true;
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.interrupt();
+        }
+        List<Command<?>> commands = Lists.newArrayList();
+        queue.drainTo(commands);
+        fail(commands, new JedisConnectionException("redis client is closed"));
+    }
+
+    <T> T execute(String operation, Object params, Function<Pipeline, Response<T>> function) {
+        StopWatch watch = new StopWatch();
+        long timeout = redis.timeout.toNanos();
+        Command<T> command = new Command<>(function, System.nanoTime() + timeout);
+        try {
+            if (!queue.offer(command)) throw new JedisConnectionException("redis pipeline queue is full, queueSize=" + queue.size());
+            return command.future.get(timeout, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;   // keep original exception, e.g. JedisConnectionException is handled by cache store
+            throw new Error(cause);
+        } catch (TimeoutException e) {
+            if (command.drop()) throw new JedisConnectionException("timeout to wait for redis pipeline, command is dropped", e);
+            throw new JedisConnectionException("timeout to wait for redis response", e);
+        } catch (InterruptedException e) {
+            throw new Error("interrupted during waiting for redis response", e);
+        } finally {
+            long elapsedTime = watch.elapsedTime();
+            ActionLogContext.track("redis", elapsedTime);
+            logger.debug("{}, params={}, elapsedTime={}", operation, params, elapsedTime);
+            redis.checkSlowOperation(elapsedTime);
+        }
+    }
+
+    private void dispatch() {
+        List<Command<?>> batch = Lists.newArrayList();
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+                sync(batch);
+            } catch (InterruptedException e) {
+                logger.debug("redis pipeline dispatcher is interrupted");
+            } catch (Throwable e) {
+                logger.warn("failed to dispatch redis commands", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sync(List<Command<?>> batch) {
+        StopWatch watch = new StopWatch();
+        List<Command<?>> commands = Lists.newArrayList();
+        long now = System.nanoTime();
+        for (Command<?> command : batch) {
+            if (command.send(now)) commands.add(command);
+            else command.future.completeExceptionally(new JedisConnectionException("redis command is timed out before sending"));
+        }
+        if (commands.isEmpty()) return;
+
+        PoolItem<BinaryJedis> item = null;
+        try {
+            item = pool.borrowItem();
+            Pipeline pipeline = item.resource.pipelined();
+            for (Command<?> command : commands) {
+                command.queue(pipeline);
+            }
+            pipeline.sync();
+            for (Command<?> command : commands) {
+                command.complete();
+            }
+        } catch (Throwable e) {
+            if (item != null && e instanceof JedisConnectionException) item.broken = true;
+            fail(commands, e);
+        } finally {
+            if (item != null) pool.returnItem(item);
+            logger.debug("sync redis pipeline, commands={}, dropped={}, elapsedTime={}", commands.size(), batch.size() - commands.size(), watch.elapsedTime());
+        }
+    }
+
+    private void fail(List<Command<?>> commands, Throwable e) {
+        for (Command<?> command : commands) {
+            command.future.completeExceptionally(e);    // no effect if command is completed already
+        }
+    }
+
+    static final class Command<T> {
+        private static final int STATE_QUEUED = 0;
+        private static final int STATE_SENT = 1;
+        private static final int STATE_DROPPED = 2;
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(STATE_QUEUED);
+        private final Function<Pipeline, Response<T>> function;
+        private final long deadline;
+        private Response<T> response;
+
+        Command(Function<Pipeline, Response<T>> function, long deadline) {
+            this.function = function;
+            this.deadline = deadline;
+        }
+
+        // called by dispatcher, return false if caller is timed out
+        boolean send(long now) {
+            if (now - deadline >= 0) {
+                state.compareAndSet(STATE_QUEUED, STATE_DROPPED);
+                return false;
+            }
+            return state.compareAndSet(STATE_QUEUED, STATE_SENT);
+        }
+
+        // called by caller on timeout, return false if command is already sent
+        boolean drop() {
+            return state.compareAndSet(STATE_QUEUED, STATE_DROPPED) || state.get() == STATE_DROPPED;
+        }
+
+        void queue(Pipeline pipeline) {
+            response = function.apply(pipeline);
+        }
+
+        void complete() {
+            try {
+                future.complete(response == null ? null : response.get());   // response is null if function queued nothing
+            } catch (RuntimeException e) {  // error reply of this command, e.g. JedisDataException
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
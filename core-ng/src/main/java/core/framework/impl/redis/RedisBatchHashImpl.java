@@ -0,0 +1,55 @@
+package core.framework.impl.redis;
+
+import core.framework.api.redis.RedisBatchHash;
+import core.framework.api.redis.RedisResult;
+import core.framework.api.util.Maps;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+final class RedisBatchHashImpl implements RedisBatchHash {
+    private final RedisBatchImpl batch;
+    private final RedisImpl redis;
+
+    RedisBatchHashImpl(RedisBatchImpl batch, RedisImpl redis) {
+        this.batch = batch;
+        this.redis = redis;
+    }
+
+    @Override
+    public RedisResult<String> get(String key, String field) {
+        return batch.add(pipeline -> pipeline.hget(redis.encode(key), redis.encode(field)), redis::decode);
+    }
+
+    @Override
+    public RedisResult<Map<String, String>> getAll(String key) {
+        return batch.add(pipeline -> pipeline.hgetAll(redis.encode(key)), redisValues -> {
+            Map<String, String> values = Maps.newHashMapWithExpectedSize(redisValues.size());
+            for (Map.Entry<byte[], byte[]> entry : redisValues.entrySet()) {
+                values.put(redis.decode(entry.getKey()), redis.decode(entry.getValue()));
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public void set(String key, String field, String value) {
+        batch.add(pipeline -> pipeline.hset(redis.encode(key), redis.encode(field), redis.encode(value)));
+    }
+
+    @Override
+    public void multiSet(String key, Map<String, String> values) {
+        Map<byte[], byte[]> redisValues = Maps.newHashMapWithExpectedSize(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            redisValues.put(redis.encode(entry.getKey()), redis.encode(entry.getValue()));
+        }
+        batch.add(pipeline -> pipeline.hmset(redis.encode(key), redisValues));
+    }
+
+    @Override
+    public void del(String key, String... fields) {
+        batch.add(pipeline -> pipeline.hdel(redis.encode(key), redis.encode(fields)));
+    }
+}
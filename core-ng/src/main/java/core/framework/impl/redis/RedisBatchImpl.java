@@ -0,0 +1,127 @@
+package core.framework.impl.redis;
+
+import core.framework.api.log.ActionLogContext;
+import core.framework.api.redis.RedisBatch;
+import core.framework.api.redis.RedisBatchHash;
+import core.framework.api.redis.RedisBatchSet;
+import core.framework.api.redis.RedisResult;
+import core.framework.api.util.Lists;
+import core.framework.api.util.StopWatch;
+import core.framework.impl.resource.PoolItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @author neo
+ */
+public final class RedisBatchImpl implements RedisBatch {
+    private final Logger logger = LoggerFactory.getLogger(RedisBatchImpl.class);
+    private final RedisImpl redis;
+    private final List<RedisResultImpl<?, ?>> commands = Lists.newArrayList();
+    private final RedisBatchHash hash;
+    private final RedisBatchSet set;
+    private boolean executed;
+
+    RedisBatchImpl(RedisImpl redis) {
+        this.redis = redis;
+        hash = new RedisBatchHashImpl(this, redis);
+        set = new RedisBatchSetImpl(this, redis);
+    }
+
+    @Override
+    public RedisResult<String> get(String key) {
+        return add(pipeline -> pipeline.get(redis.encode(key)), redis::decode);
+    }
+
+    @Override
+    public void set(String key, String value) {
+        add(pipeline -> pipeline.set(redis.encode(key), redis.encode(value)));
+    }
+
+    @Override
+    public void set(String key, String value, Duration expiration) {
+        add(pipeline -> pipeline.setex(redis.encode(key), (int) expiration.getSeconds(), redis.encode(value)));
+    }
+
+    @Override
+    public RedisBatchSet set() {
+        return set;
+    }
+
+    @Override
+    public RedisResult<Boolean> setIfAbsent(String key, String value, Duration expiration) {
+        return add(pipeline -> pipeline.set(redis.encode(key), redis.encode(value), RedisImpl.NX, RedisImpl.EX, (int) expiration.getSeconds()), "OK"::equals);
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        add(pipeline -> pipeline.expire(redis.encode(key), (int) duration.getSeconds()));
+    }
+
+    @Override
+    public void del(String key) {
+        add(pipeline -> pipeline.del(redis.encode(key)));
+    }
+
+    @Override
+    public RedisBatchHash hash() {
+        return hash;
+    }
+
+    @Override
+    public void execute() {
+        if (executed) throw new Error("redis batch is already executed");
+        executed = true;
+        if (commands.isEmpty()) return;
+
+        if (redis.autoPipeline != null) {
+            redis.autoPipeline.execute("batch", commands.size(), pipeline -> {
+                queue(pipeline);
+                return null;
+            });
+            return;
+        }
+
+        StopWatch watch = new StopWatch();
+        PoolItem<BinaryJedis> item = redis.pool.borrowItem();
+        try {
+            Pipeline pipeline = item.resource.pipelined();
+            queue(pipeline);
+            pipeline.sync();
+        } catch (JedisConnectionException e) {
+            item.broken = true;
+            throw e;
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsedTime = watch.elapsedTime();
+            ActionLogContext.track("redis", elapsedTime);
+            logger.debug("batch, commands={}, elapsedTime={}", commands.size(), elapsedTime);
+            redis.checkSlowOperation(elapsedTime);
+        }
+    }
+
+    private void queue(Pipeline pipeline) {
+        for (RedisResultImpl<?, ?> command : commands) {
+            command.queue(pipeline);
+        }
+    }
+
+    <R> void add(Function<Pipeline, Response<R>> command) {
+        add(command, response -> null);
+    }
+
+    <R, T> RedisResult<T> add(Function<Pipeline, Response<R>> command, Function<R, T> decoder) {
+        if (executed) throw new Error("redis batch is already executed");
+        RedisResultImpl<R, T> result = new RedisResultImpl<>(command, decoder);
+        commands.add(result);
+        return result;
+    }
+}
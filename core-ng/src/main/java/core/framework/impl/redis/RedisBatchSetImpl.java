@@ -0,0 +1,46 @@
+package core.framework.impl.redis;
+
+import core.framework.api.redis.RedisBatchSet;
+import core.framework.api.redis.RedisResult;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author neo
+ */
+final class RedisBatchSetImpl implements RedisBatchSet {
+    private final RedisBatchImpl batch;
+    private final RedisImpl redis;
+
+    RedisBatchSetImpl(RedisBatchImpl batch, RedisImpl redis) {
+        this.batch = batch;
+        this.redis = redis;
+    }
+
+    @Override
+    public RedisResult<Boolean> add(String key, String value) {
+        return batch.add(pipeline -> pipeline.sadd(redis.encode(key), redis.encode(value)), reply -> reply == 1);
+    }
+
+    @Override
+    public RedisResult<Set<String>> members(String key) {
+        return batch.add(pipeline -> pipeline.smembers(redis.encode(key)), redisMembers -> {
+            Set<String> members = new HashSet<>(redisMembers.size());
+            for (byte[] redisMember : redisMembers) {
+                members.add(redis.decode(redisMember));
+            }
+            return members;
+        });
+    }
+
+    @Override
+    public RedisResult<Boolean> isMember(String key, String value) {
+        return batch.add(pipeline -> pipeline.sismember(redis.encode(key), redis.encode(value)), reply -> reply);
+    }
+
+    @Override
+    public RedisResult<Boolean> remove(String key, String... values) {
+        return batch.add(pipeline -> pipeline.srem(redis.encode(key), redis.encode(values)), reply -> reply == 1);
+    }
+}
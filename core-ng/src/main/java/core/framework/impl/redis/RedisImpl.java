@@ -3,6 +3,7 @@ package core.framework.impl.redis;
 import core.framework.api.log.ActionLogContext;
 import core.framework.api.log.Markers;
 import core.framework.api.redis.Redis;
+import core.framework.api.redis.RedisBatch;
 import core.framework.api.redis.RedisHash;
 import core.framework.api.redis.RedisSet;
 import core.framework.api.util.Charsets;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import redis.clients.jedis.BinaryJedis;
 import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.exceptions.JedisConnectionException;
@@ -32,21 +34,23 @@ import java.util.function.Consumer;
  * @author neo
  */
 public final class RedisImpl implements Redis {
-    private static final byte[] NX = Strings.bytes("NX");
-    private static final byte[] EX = Strings.bytes("EX");
+    static final byte[] NX = Strings.bytes("NX");
+    static final byte[] EX = Strings.bytes("EX");
     public final Pool<BinaryJedis> pool;
     private final Logger logger = LoggerFactory.getLogger(RedisImpl.class);
     private final RedisSet redisSet = new RedisSetImpl(this);
     private final RedisHash redisHash = new RedisHashImpl(this);
-    private String host;
+    String host;
     private long slowOperationThresholdInNanos = Duration.ofMillis(500).toNanos();
-    private Duration timeout;
+    Duration timeout;
+    AutoPipeline autoPipeline;
 
     public RedisImpl() {
         pool = new Pool<>(this::createClient, BinaryJedis::close);
         pool.name("redis");
         pool.size(5, 50);
         pool.maxIdleTime(Duration.ofMinutes(30));
+        pool.validator(this::validateClient);
         timeout(Duration.ofSeconds(5));
     }
 
@@ -59,6 +63,13 @@ public final class RedisImpl implements Redis {
         pool.checkoutTimeout(timeout);
     }
 
+    // multiplex commands from all threads to given number of connections with pipeline, it only applies to key/value commands, caller must start/stop returned auto pipeline
+    public AutoPipeline autoPipelining(int connections) {
+        if (autoPipeline != null) throw new Error("auto pipelining is already enabled");
+        autoPipeline = new AutoPipeline(this, pool, connections, 10000);  // bound pending commands, fail fast if redis can not keep up
+        return autoPipeline;
+    }
+
     public void slowOperationThreshold(Duration slowOperationThreshold) {
         slowOperationThresholdInNanos = slowOperationThreshold.toNanos();
     }
@@ -70,6 +81,10 @@ public final class RedisImpl implements Redis {
         return client;
     }
 
+    private boolean validateClient(BinaryJedis client) {
+        return "PONG".equals(client.ping());
+    }
+
     public void close() {
         logger.info("close redis client, host={}", host);
         pool.close();
@@ -81,6 +96,8 @@ public final class RedisImpl implements Redis {
     }
 
     public byte[] getBytes(String key) {
+        if (autoPipeline != null) return autoPipeline.execute("get", key, pipeline -> pipeline.get(encode(key)));
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
@@ -99,6 +116,11 @@ public final class RedisImpl implements Redis {
 
     @Override
     public void set(String key, String value) {
+        if (autoPipeline != null) {
+            autoPipeline.execute("set", key, pipeline -> pipeline.set(encode(key), encode(value)));
+            return;
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
@@ -121,6 +143,11 @@ public final class RedisImpl implements Redis {
     }
 
     public void set(String key, byte[] value, Duration expiration) {
+        if (autoPipeline != null) {
+            autoPipeline.execute("set", key, pipeline -> pipeline.setex(encode(key), (int) expiration.getSeconds(), value));
+            return;
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
@@ -144,6 +171,11 @@ public final class RedisImpl implements Redis {
 
     @Override
     public boolean setIfAbsent(String key, String value, Duration expiration) {
+        if (autoPipeline != null) {
+            String result = autoPipeline.execute("setIfAbsent", key, pipeline -> pipeline.set(encode(key), encode(value), NX, EX, (int) expiration.getSeconds()));
+            return "OK".equals(result);
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
@@ -163,6 +195,11 @@ public final class RedisImpl implements Redis {
 
     @Override
     public void expire(String key, Duration duration) {
+        if (autoPipeline != null) {
+            autoPipeline.execute("expire", key, pipeline -> pipeline.expire(encode(key), (int) duration.getSeconds()));
+            return;
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
@@ -181,6 +218,11 @@ public final class RedisImpl implements Redis {
 
     @Override
     public void del(String key) {
+        if (autoPipeline != null) {
+            autoPipeline.execute("del", key, pipeline -> pipeline.del(encode(key)));
+            return;
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
@@ -208,18 +250,17 @@ public final class RedisImpl implements Redis {
     }
 
     public Map<String, byte[]> multiGetBytes(String... keys) {
+        if (autoPipeline != null) {
+            List<byte[]> redisValues = autoPipeline.execute("mget", keys, pipeline -> pipeline.mget(encode(keys)));
+            return values(keys, redisValues);
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
             byte[][] redisKeys = encode(keys);
-            Map<String, byte[]> values = Maps.newHashMapWithExpectedSize(keys.length);
             List<byte[]> redisValues = item.resource.mget(redisKeys);
-            int index = 0;
-            for (byte[] redisValue : redisValues) {
-                if (redisValue != null) values.put(keys[index], redisValue);
-                index++;
-            }
-            return values;
+            return values(keys, redisValues);
         } catch (JedisConnectionException e) {
             item.broken = true;
             throw e;
@@ -232,21 +273,27 @@ public final class RedisImpl implements Redis {
         }
     }
 
+    private Map<String, byte[]> values(String[] keys, List<byte[]> redisValues) {
+        Map<String, byte[]> values = Maps.newHashMapWithExpectedSize(keys.length);
+        int index = 0;
+        for (byte[] redisValue : redisValues) {
+            if (redisValue != null) values.put(keys[index], redisValue);
+            index++;
+        }
+        return values;
+    }
+
     @Override
     public void multiSet(Map<String, String> values) {
+        if (autoPipeline != null) {
+            autoPipeline.execute("mset", values, pipeline -> pipeline.mset(keyValues(values)));
+            return;
+        }
+
         StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try {
-            byte[][] keyValues = new byte[values.size() * 2][];
-            int i = 0;
-            for (Map.Entry<String, String> entry : values.entrySet()) {
-                String key = entry.getKey();
-                String value = entry.getValue();
-                keyValues[i] = encode(key);
-                keyValues[i + 1] = encode(value);
-                i = i + 2;
-            }
-            item.resource.mset(keyValues);
+            item.resource.mset(keyValues(values));
         } catch (JedisConnectionException e) {
             item.broken = true;
             throw e;
@@ -259,9 +306,33 @@ public final class RedisImpl implements Redis {
         }
     }
 
+    private byte[][] keyValues(Map<String, String> values) {
+        byte[][] keyValues = new byte[values.size() * 2][];
+        int i = 0;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            keyValues[i] = encode(key);
+            keyValues[i + 1] = encode(value);
+            i = i + 2;
+        }
+        return keyValues;
+    }
+
     public void multiSet(Map<String, byte[]> values, Duration expiration) {
-        StopWatch watch = new StopWatch();
         int expirationInSeconds = (int) expiration.getSeconds();
+        if (autoPipeline != null) {
+            autoPipeline.execute("mset", LogParam.of(values), pipeline -> {
+                Response<String> response = null;
+                for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                    response = pipeline.setex(encode(entry.getKey()), expirationInSeconds, entry.getValue());
+                }
+                return response;
+            });
+            return;
+        }
+
+        StopWatch watch = new StopWatch();
         PoolItem<BinaryJedis> item = pool.borrowItem();
         try (Pipeline pipeline = item.resource.pipelined()) {
             for (Map.Entry<String, byte[]> entry : values.entrySet()) {
@@ -315,6 +386,28 @@ public final class RedisImpl implements Redis {
         }
     }
 
+    public void publish(String channel, byte[] message) {
+        StopWatch watch = new StopWatch();
+        PoolItem<BinaryJedis> item = pool.borrowItem();
+        try {
+            item.resource.publish(encode(channel), message);
+        } catch (JedisConnectionException e) {
+            item.broken = true;
+            throw e;
+        } finally {
+            pool.returnItem(item);
+            long elapsedTime = watch.elapsedTime();
+            ActionLogContext.track("redis", elapsedTime);
+            logger.debug("publish, channel={}, message={}, elapsedTime={}", channel, LogParam.of(message), elapsedTime);
+            checkSlowOperation(elapsedTime);
+        }
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new RedisBatchImpl(this);
+    }
+
     byte[] encode(String value) {   // redis does not accept null
         return Strings.bytes(value);
     }
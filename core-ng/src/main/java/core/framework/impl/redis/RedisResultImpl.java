@@ -0,0 +1,31 @@
+package core.framework.impl.redis;
+
+import core.framework.api.redis.RedisResult;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.function.Function;
+
+/**
+ * @author neo
+ */
+final class RedisResultImpl<R, T> implements RedisResult<T> {
+    private final Function<Pipeline, Response<R>> command;
+    private final Function<R, T> decoder;
+    private Response<R> response;
+
+    RedisResultImpl(Function<Pipeline, Response<R>> command, Function<R, T> decoder) {
+        this.command = command;
+        this.decoder = decoder;
+    }
+
+    void queue(Pipeline pipeline) {
+        response = command.apply(pipeline);
+    }
+
+    @Override
+    public T get() {
+        if (response == null) throw new Error("redis batch is not executed yet");
+        return decoder.apply(response.get());
+    }
+}
@@ -0,0 +1,59 @@
+package core.framework.impl.redis;
+
+import core.framework.api.util.Strings;
+import core.framework.api.util.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedis;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Protocol;
+
+import java.time.Duration;
+
+/**
+ * subscribe on dedicated connection (not from pool), since subscribed connection is blocked to wait for messages
+ *
+ * @author neo
+ */
+public final class RedisSubscriber {
+    private final Logger logger = LoggerFactory.getLogger(RedisSubscriber.class);
+    private final RedisImpl redis;
+    private final String channel;
+    private final BinaryJedisPubSub listener;
+    private final Thread subscriberThread;
+    private volatile boolean stop;
+
+    public RedisSubscriber(RedisImpl redis, String channel, BinaryJedisPubSub listener) {
+        this.redis = redis;
+        this.channel = channel;
+        this.listener = listener;
+        subscriberThread = new Thread(this::subscribe, "redis-subscriber-" + channel);
+        subscriberThread.setDaemon(true);
+    }
+
+    public void start() {
+        subscriberThread.start();
+    }
+
+    public void stop() {
+        logger.info("stop redis subscriber, channel={}", channel);
+        stop = true;
+        if (listener.isSubscribed()) listener.unsubscribe();
+        subscriberThread.interrupt();
+    }
+
+    private void subscribe() {
+        logger.info("redis subscriber thread started, host={}, channel={}", redis.host, channel);
+        while (!stop) {
+            // no read timeout, subscriber waits for messages until unsubscribed
+            try (BinaryJedis client = new BinaryJedis(redis.host, Protocol.DEFAULT_PORT, (int) redis.timeout.toMillis(), 0)) {
+                client.subscribe(listener, Strings.bytes(channel));
+            } catch (Throwable e) {
+                if (!stop) {
+                    logger.warn("failed to subscribe redis channel, retry in 10 seconds, channel={}", channel, e);
+                    Threads.sleepRoughly(Duration.ofSeconds(10));
+                }
+            }
+        }
+    }
+}
@@ -4,11 +4,11 @@ import core.framework.api.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.Iterator;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -20,20 +20,31 @@ import java.util.function.Supplier;
  * is to keep original exception, and simplify context variable access (read or write var within method),
  * <p>
  * the downside is boilerplate code, so to keep it only for internal
+ * <p>
+ * borrow/return is lock free, each item holds its own state, borrower tries the item last used by current thread first, then scans shared items,
+ * returned item is handed off to waiting borrower if one is polling, waiters also rescan idle items periodically, so waiters are not served in strict order,
+ * total is reserved by CAS before creating, so it never exceeds maxSize
  *
  * @author neo
  */
 public final class Pool<T> {
-    final BlockingDeque<PoolItem<T>> idleItems = new LinkedBlockingDeque<>();
+    private static final long MAX_HANDOFF_WAIT_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    final List<PoolItem<T>> items = new CopyOnWriteArrayList<>();   // read heavy, only write on create/recycle
+    public final PoolMetrics metrics = new PoolMetrics(this);
     private final Logger logger = LoggerFactory.getLogger(Pool.class);
+    private final ThreadLocal<WeakReference<PoolItem<T>>> lastUsedItem = new ThreadLocal<>();    // weak reference, not to keep recycled item reachable from thread
+    private final SynchronousQueue<PoolItem<T>> handoffQueue = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger(0);
     private final AtomicInteger total = new AtomicInteger(0);
     private final Supplier<T> factory;
     private final ResourceCloseHandler<T> closeHandler;
-    private String name;
+    String name;
+    private ResourceValidator<T> validator;
     private int minSize = 1;
     private int maxSize = 50;
     private Duration maxIdleTime = Duration.ofMinutes(30);
-    private long checkoutTimeoutInMs = Duration.ofSeconds(30).toMillis();
+    private long checkoutTimeoutInNanos = Duration.ofSeconds(30).toNanos();
 
     public Pool(Supplier<T> factory, ResourceCloseHandler<T> closeHandler) {
         this.factory = factory;
@@ -54,14 +65,22 @@ public final class Pool<T> {
     }
 
     public void checkoutTimeout(Duration checkoutTimeout) {
-        checkoutTimeoutInMs = checkoutTimeout.toMillis();
+        checkoutTimeoutInNanos = checkoutTimeout.toNanos();
+    }
+
+    public void validator(ResourceValidator<T> validator) {
+        this.validator = validator;
     }
 
     public PoolItem<T> borrowItem() {
-        PoolItem<T> item = idleItems.poll();
+        WeakReference<PoolItem<T>> lastUsed = lastUsedItem.get();
+        PoolItem<T> item = lastUsed == null ? null : lastUsed.get();
+        if (item != null && item.acquire()) return item;
+
+        item = acquireIdleItem();
         if (item != null) return item;
 
-        if (total.get() < maxSize) {
+        if (reserveNewItem()) {
             return createNewItem();
         } else {
             return waitNextAvailableItem();
@@ -70,15 +89,44 @@ public final class Pool<T> {
 
     public void returnItem(PoolItem<T> item) {
         if (item.broken) {
+            metrics.brokenItems.increment();
             recycleItem(item);
-        } else {
-            item.returnTime = System.currentTimeMillis();
-            idleItems.push(item);
+            return;
+        }
+
+        item.returnTime = System.currentTimeMillis();
+        WeakReference<PoolItem<T>> lastUsed = lastUsedItem.get();
+        if (lastUsed == null || lastUsed.get() != item) lastUsedItem.set(new WeakReference<>(item));
+        releaseItem(item);
+    }
+
+    private void releaseItem(PoolItem<T> item) {
+        item.state.set(PoolItem.STATE_IDLE);
+        // handoff only succeeds if waiter is polling, otherwise waiter picks up idle item by rescan, not to spin on returning thread
+        if (waiters.get() > 0) handoffQueue.offer(item);
+    }
+
+    private PoolItem<T> acquireIdleItem() {
+        for (PoolItem<T> item : items) {
+            if (item.acquire()) return item;
+        }
+        return null;
+    }
+
+    private boolean reserveNewItem() {
+        while (true) {
+            int current = total.get();
+            if (current >= maxSize) return false;
+            if (total.compareAndSet(current, current + 1)) return true;
         }
     }
 
     private void recycleItem(PoolItem<T> item) {
         StopWatch watch = new StopWatch();
+        item.state.set(PoolItem.STATE_REMOVED);
+        items.remove(item);
+        WeakReference<PoolItem<T>> lastUsed = lastUsedItem.get();
+        if (lastUsed != null && lastUsed.get() == item) lastUsedItem.remove();
         int total = this.total.decrementAndGet();
         try {
             closeResource(item.resource);
@@ -89,56 +137,101 @@ public final class Pool<T> {
 
     private PoolItem<T> waitNextAvailableItem() {
         StopWatch watch = new StopWatch();
+        waiters.incrementAndGet();
         try {
-            PoolItem<T> item = idleItems.poll(checkoutTimeoutInMs, TimeUnit.MILLISECONDS);
-            if (item == null) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
-            return item;
+            PoolItem<T> item = acquireIdleItem();   // item may be returned after scan but before waiter registered
+            if (item != null) return item;
+
+            long timeout = checkoutTimeoutInNanos;
+            while (timeout > 0) {
+                long start = System.nanoTime();
+                item = handoffQueue.poll(Math.min(timeout, MAX_HANDOFF_WAIT_IN_NANOS), TimeUnit.NANOSECONDS);
+                if (item != null && item.acquire()) return item;
+                item = acquireIdleItem();   // item returned before waiter starts polling is not handed off
+                if (item != null) return item;
+                timeout -= System.nanoTime() - start;
+            }
+            metrics.checkoutTimeouts.increment();
+            throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
         } catch (InterruptedException e) {
             throw new Error("interrupted during waiting for next available resource", e);
         } finally {
-            logger.debug("wait for next available resource, pool={}, total={}, elapsed={}", name, total.get(), watch.elapsedTime());
+            waiters.decrementAndGet();
+            long elapsedTime = watch.elapsedTime();
+            metrics.waitElapsed.record(elapsedTime);
+            logger.debug("wait for next available resource, pool={}, total={}, elapsed={}", name, total.get(), elapsedTime);
         }
     }
 
+    // total must be reserved before calling
     private PoolItem<T> createNewItem() {
         StopWatch watch = new StopWatch();
-        total.incrementAndGet();
         try {
-            return new PoolItem<>(factory.get());
+            PoolItem<T> item = new PoolItem<>(factory.get());
+            items.add(item);
+            return item;
         } catch (Throwable e) {
             total.getAndDecrement();
             throw e;
         } finally {
-            logger.debug("create new resource, pool={}, total={}, elapsed={}", name, total.get(), watch.elapsedTime());
+            long elapsedTime = watch.elapsedTime();
+            metrics.createElapsed.record(elapsedTime);
+            logger.debug("create new resource, pool={}, total={}, elapsed={}", name, total.get(), elapsedTime);
         }
     }
 
+    // run by background task, borrowers skip items under maintenance, and new resources are created ahead of demand, not on request thread
     public void refresh() {
         logger.info("refresh resource pool, pool={}", name);
         recycleIdleItems();
+        validateIdleItems();
         replenish();
     }
 
     private void recycleIdleItems() {
-        Iterator<PoolItem<T>> iterator = idleItems.descendingIterator();
-        long maxIdleTimeInSeconds = maxIdleTime.getSeconds();
-        Instant now = Instant.now();
-
-        while (iterator.hasNext()) {
-            PoolItem<T> item = iterator.next();
-            if (Duration.between(Instant.ofEpochMilli(item.returnTime), now).getSeconds() > maxIdleTimeInSeconds) {
-                boolean removed = idleItems.remove(item);
-                if (!removed) return;
+        long maxIdleTimeInMs = maxIdleTime.toMillis();
+        long now = System.currentTimeMillis();
+
+        for (PoolItem<T> item : items) {
+            if (now - item.returnTime > maxIdleTimeInMs && item.acquire()) {
                 recycleItem(item);
-            } else {
-                return;
             }
         }
     }
 
+    private void validateIdleItems() {
+        if (validator == null) return;
+
+        for (PoolItem<T> item : items) {
+            if (item.acquireForValidation()) {
+                if (validate(item.resource)) {
+                    releaseItem(item);
+                } else {
+                    metrics.brokenItems.increment();
+                    recycleItem(item);
+                }
+            }
+        }
+    }
+
+    private boolean validate(T resource) {
+        try {
+            return validator.validate(resource);
+        } catch (Exception e) {
+            logger.warn("failed to validate resource, pool={}", name, e);
+            return false;
+        }
+    }
+
     private void replenish() {
-        while (total.get() < minSize) {
-            returnItem(createNewItem());
+        try {
+            while (total.get() < minSize && reserveNewItem()) {
+                PoolItem<T> item = createNewItem();
+                item.returnTime = System.currentTimeMillis();
+                releaseItem(item);
+            }
+        } catch (Throwable e) {
+            logger.warn("failed to replenish resource pool, pool={}", name, e);     // not to fail startup, pool will create resource on demand or retry in next refresh
         }
     }
 
@@ -152,10 +245,12 @@ public final class Pool<T> {
 
     public void close() {
         total.set(maxSize);   // make sure no more new resource will be created
-        while (true) {
-            PoolItem<T> item = idleItems.poll();
-            if (item == null) return;
-            closeResource(item.resource);
+        for (PoolItem<T> item : items) {
+            if (item.acquire()) {
+                item.state.set(PoolItem.STATE_REMOVED);
+                items.remove(item);
+                closeResource(item.resource);
+            }
         }
     }
 }
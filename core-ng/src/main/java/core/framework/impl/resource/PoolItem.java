@@ -1,14 +1,30 @@
 package core.framework.impl.resource;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author neo
  */
 public final class PoolItem<T> {
+    static final int STATE_IDLE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = 2;
+    static final int STATE_VALIDATING = 3;     // held by pool maintenance, not checked out by borrower
+
     public final T resource;
+    final AtomicInteger state = new AtomicInteger(STATE_IN_USE);   // item is always created for borrower
     public boolean broken;
     long returnTime;    // according to profiling, use System.currentTimeMillis instead of Instant.now()
 
     public PoolItem(T resource) {
         this.resource = resource;
     }
+
+    boolean acquire() {
+        return state.get() == STATE_IDLE && state.compareAndSet(STATE_IDLE, STATE_IN_USE);
+    }
+
+    boolean acquireForValidation() {
+        return state.get() == STATE_IDLE && state.compareAndSet(STATE_IDLE, STATE_VALIDATING);
+    }
 }
@@ -0,0 +1,69 @@
+package core.framework.impl.resource;
+
+import core.framework.impl.log.stat.Histogram;
+import core.framework.impl.log.stat.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * borrow from idle items is not tracked to keep hot path free of contention, only wait/create/broken/timeout are recorded,
+ * active only counts items checked out by borrowers, items under validation are counted as idle
+ *
+ * @author neo
+ */
+public final class PoolMetrics implements Metrics {
+    final Histogram waitElapsed = new Histogram();
+    final Histogram createElapsed = new Histogram();
+    final LongAdder checkoutTimeouts = new LongAdder();
+    final LongAdder brokenItems = new LongAdder();
+    private final Pool<?> pool;
+
+    PoolMetrics(Pool<?> pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void collect(Map<String, Double> stats) {
+        int total = 0;
+        int active = 0;
+        int idle = 0;
+        for (PoolItem<?> item : pool.items) {
+            int state = item.state.get();
+            if (state == PoolItem.STATE_REMOVED) continue;   // being recycled, removed from items right after
+            total++;
+            if (state == PoolItem.STATE_IN_USE) active++;
+            else idle++;
+        }
+        stats.put(statName("total"), (double) total);
+        stats.put(statName("active"), (double) active);
+        stats.put(statName("idle"), (double) idle);
+
+        Histogram.Snapshot wait = waitElapsed.snapshot();
+        stats.put(statName("wait_count"), (double) wait.count);
+        stats.put(statName("wait_elapsed_p50"), (double) wait.percentile(50));
+        stats.put(statName("wait_elapsed_p99"), (double) wait.percentile(99));
+        stats.put(statName("wait_elapsed_max"), (double) wait.max);
+        stats.put(statName("checkout_timeout_count"), (double) checkoutTimeouts.sumThenReset());
+
+        Histogram.Snapshot create = createElapsed.snapshot();
+        stats.put(statName("create_count"), (double) create.count);
+        stats.put(statName("create_elapsed_p99"), (double) create.percentile(99));
+        stats.put(statName("create_elapsed_max"), (double) create.max);
+        stats.put(statName("broken_count"), (double) brokenItems.sumThenReset());
+    }
+
+    String statName(String statName) {
+        StringBuilder builder = new StringBuilder("pool");
+        String name = pool.name;
+        if (name != null) {
+            builder.append('_');
+            for (int i = 0; i < name.length(); i++) {
+                char ch = name.charAt(i);
+                builder.append(ch == '-' ? '_' : ch);
+            }
+        }
+        builder.append('_').append(statName);
+        return builder.toString();
+    }
+}
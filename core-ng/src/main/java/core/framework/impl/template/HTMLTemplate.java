@@ -1,32 +1,48 @@
 package core.framework.impl.template;
 
 import core.framework.api.util.Exceptions;
+import core.framework.impl.template.fragment.CompiledTemplate;
 import core.framework.impl.template.fragment.ContainerFragment;
 
+import java.io.OutputStream;
+
 /**
  * @author neo
  */
 public class HTMLTemplate extends ContainerFragment {
     private final Class<?> modelClass;
+    CompiledTemplate compiledTemplate;
 
     HTMLTemplate(Class<?> modelClass) {
         this.modelClass = modelClass;
     }
 
     public String process(TemplateContext context) {
+        validate(context);
+        TemplateOutput output = new TemplateOutput(2048);
+        process(output, context);
+        return output.text();
+    }
+
+    // stream utf-8 encoded content, content is written to stream in chunks while rendering
+    public void process(TemplateContext context, OutputStream stream) {
+        validate(context);
+        TemplateOutput output = TemplateOutput.stream(stream);
+        process(output, context);
+        output.flush();
+    }
+
+    @Override
+    public void process(TemplateOutput output, TemplateContext context) {
+        if (compiledTemplate != null) compiledTemplate.process(output, context);
+        else processChildren(output, context);
+    }
+
+    private void validate(TemplateContext context) {
         if (context.root == null)
             throw Exceptions.error("root must not be null");
 
         if (!modelClass.isInstance(context.root))
             throw Exceptions.error("model class does not match, expectedClass={}, actualClass={}", modelClass.getCanonicalName(), context.root.getClass().getCanonicalName());
-
-        StringBuilder builder = new StringBuilder(2048);
-        process(builder, context);
-        return builder.toString();
-    }
-
-    @Override
-    public void process(StringBuilder builder, TemplateContext context) {
-        processChildren(builder, context);
     }
 }
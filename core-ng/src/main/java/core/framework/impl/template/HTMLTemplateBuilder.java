@@ -1,5 +1,6 @@
 package core.framework.impl.template;
 
+import core.framework.impl.template.fragment.TemplateCompiler;
 import core.framework.impl.template.node.Document;
 import core.framework.impl.template.parser.HTMLParser;
 import core.framework.impl.template.source.TemplateSource;
@@ -14,6 +15,7 @@ public class HTMLTemplateBuilder {
 
     public CDNManager cdn;
     public MessageProvider message;
+    public boolean compiled;    // generate one class per template to render, instead of interpreting fragments with dynamic class per expression
 
     public HTMLTemplateBuilder(TemplateSource source, Class<?> modelClass) {
         new ModelClassValidator(modelClass).validate();
@@ -26,8 +28,11 @@ public class HTMLTemplateBuilder {
         TemplateMetaContext context = new TemplateMetaContext(modelClass);
         context.cdn = cdn;
         context.message = message;
+        context.compiled = compiled;
         HTMLTemplate template = new HTMLTemplate(context.rootClass);
         document.buildTemplate(template, context, source);
+        template.encodeStaticContent();
+        if (compiled) template.compiledTemplate = new TemplateCompiler(template, context.rootClass, source.name()).compile();
         return template;
     }
 }
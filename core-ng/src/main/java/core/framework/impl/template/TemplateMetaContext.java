@@ -12,6 +12,7 @@ public class TemplateMetaContext {
     public final Map<String, Class<?>> paramClasses = Maps.newHashMap();
     public CDNManager cdn;
     public MessageProvider message;
+    public boolean compiled;    // expressions are generated into template class by TemplateCompiler, not as dynamic class per expression
 
     public TemplateMetaContext(Class<?> rootClass) {
         this.rootClass = rootClass;
@@ -0,0 +1,180 @@
+package core.framework.impl.template;
+
+import core.framework.api.util.Charsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * utf-8 encoded template output, text is encoded and html escaped into byte buffer directly without intermediate string,
+ * with stream, the buffer is reused by current thread and written to stream as chunk once it is full, otherwise buffer grows to hold whole content
+ *
+ * @author neo
+ */
+public final class TemplateOutput {
+    private static final int STREAM_BUFFER_SIZE = 16384;
+    private static final ThreadLocal<byte[]> STREAM_BUFFERS = ThreadLocal.withInitial(() -> new byte[STREAM_BUFFER_SIZE]);
+    private static final byte[] MIN_LONG = String.valueOf(Long.MIN_VALUE).getBytes(Charsets.UTF_8);
+    private static final byte[] LT = "&lt;".getBytes(Charsets.UTF_8);
+    private static final byte[] GT = "&gt;".getBytes(Charsets.UTF_8);
+    private static final byte[] QUOT = "&quot;".getBytes(Charsets.UTF_8);
+    private static final byte[] AMP = "&amp;".getBytes(Charsets.UTF_8);
+    private static final byte[] APOS = "&#39;".getBytes(Charsets.UTF_8);
+    private static final byte[] SLASH = "&#47;".getBytes(Charsets.UTF_8);
+
+    public static TemplateOutput stream(OutputStream stream) {
+        return new TemplateOutput(stream, STREAM_BUFFERS.get());
+    }
+
+    private final OutputStream stream;
+    private byte[] buffer;
+    private int position;
+
+    public TemplateOutput(int capacity) {
+        this(null, new byte[capacity]);
+    }
+
+    private TemplateOutput(OutputStream stream, byte[] buffer) {
+        this.stream = stream;
+        this.buffer = buffer;
+    }
+
+    public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    public void write(byte[] bytes, int offset, int length) {
+        if (position + length > buffer.length) {
+            ensureCapacity(length);
+            if (length > buffer.length) {   // only for stream, larger than buffer, write directly
+                writeToStream(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    public void write(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            i = writeChar(text, i, length);
+        }
+    }
+
+    public void writeEscapedHTML(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '<':
+                    write(LT);
+                    break;
+                case '>':
+                    write(GT);
+                    break;
+                case '"':
+                    write(QUOT);
+                    break;
+                case '&':
+                    write(AMP);
+                    break;
+                case '\'':
+                    write(APOS);
+                    break;
+                case '/':
+                    write(SLASH);
+                    break;
+                default:
+                    i = writeChar(text, i, length);
+                    break;
+            }
+        }
+    }
+
+    // write digits directly, digits and '-' need no escaping
+    public void write(long value) {
+        if (value == Long.MIN_VALUE) {  // can not be negated
+            write(MIN_LONG);
+            return;
+        }
+        if (position + 20 > buffer.length) ensureCapacity(20);
+        long number = value;
+        if (number < 0) {
+            buffer[position++] = '-';
+            number = -number;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        for (int left = start, right = position - 1; left < right; left++, right--) {
+            byte digit = buffer[left];
+            buffer[left] = buffer[right];
+            buffer[right] = digit;
+        }
+    }
+
+    public void flush() {
+        if (position > 0) {
+            writeToStream(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    public String text() {
+        return new String(buffer, 0, position, Charsets.UTF_8);
+    }
+
+    public byte[] bytes() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    // return index of last consumed char, surrogate pair consumes 2 chars
+    private int writeChar(String text, int index, int length) {
+        if (position + 4 > buffer.length) ensureCapacity(4);
+        char ch = text.charAt(index);
+        if (ch < 0x80) {
+            buffer[position++] = (byte) ch;
+        } else if (ch < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (ch >> 6));
+            buffer[position++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (Character.isSurrogate(ch)) {
+            if (Character.isHighSurrogate(ch) && index + 1 < length && Character.isLowSurrogate(text.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(ch, text.charAt(index + 1));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                return index + 1;
+            }
+            buffer[position++] = '?';   // malformed surrogate, same as String.getBytes()
+        } else {
+            buffer[position++] = (byte) (0xE0 | (ch >> 12));
+            buffer[position++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (ch & 0x3F));
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int length) {
+        if (stream != null) {
+            flush();
+        } else {
+            byte[] newBuffer = new byte[Math.max(buffer.length * 2, position + length)];
+            System.arraycopy(buffer, 0, newBuffer, 0, position);
+            buffer = newBuffer;
+        }
+    }
+
+    private void writeToStream(byte[] bytes, int offset, int length) {
+        try {
+            stream.write(bytes, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -29,30 +29,30 @@ public class ExpressionBuilder {
     }
 
     public ExpressionHolder build() {
-        Expression expression = buildExpression();
+        String code = new ExpressionTranslator(token, context).translate();
+        Expression expression = context.compiled ? null : buildExpression(code);
         Type returnType = returnType(token, context.rootClass);
-        return new ExpressionHolder(expression, returnType, expressionSource, location);
+        return new ExpressionHolder(expression, returnType, code, expressionSource, location);
     }
 
-    private Expression buildExpression() {
+    private Expression buildExpression(String code) {
         try {
             DynamicInstanceBuilder<Expression> builder = new DynamicInstanceBuilder<>(Expression.class, Expression.class.getCanonicalName());
-            builder.addMethod(buildEval());
+            builder.addMethod(buildEval(code));
             return builder.build();
         } catch (CodeCompileException e) {
             throw new Error(Strings.format("failed to compile expression, expression={}, location={}", expressionSource, location), e);
         }
     }
 
-    private String buildEval() {
+    private String buildEval(String code) {
         CodeBuilder builder = new CodeBuilder();
         builder.append("public Object eval({} context) {\n", TemplateContext.class.getCanonicalName());
         builder.indent(1).append("{} $root = ({})context.root;\n", context.rootClass.getCanonicalName(), context.rootClass.getCanonicalName());
         context.paramClasses.forEach((name, paramClass) -> builder.indent(1).append("{} {} = ({})context.context(\"{}\");\n",
             paramClass.getCanonicalName(), name, paramClass.getCanonicalName(), name));
 
-        String translatedExpression = new ExpressionTranslator(token, context).translate();
-        builder.indent(1).append("return {};\n", translatedExpression);
+        builder.indent(1).append("return {};\n", code);
 
         builder.append("}");
         return builder.build();
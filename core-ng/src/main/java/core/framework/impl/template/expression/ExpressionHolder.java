@@ -10,13 +10,15 @@ import java.lang.reflect.Type;
  */
 public class ExpressionHolder {
     public final Type returnType;
+    public final String code;   // translated java code, refers to $root and for variables
     private final Expression expression;
     private final String expressionSource;
     private final String location;
 
-    public ExpressionHolder(Expression expression, Type returnType, String expressionSource, String location) {
+    public ExpressionHolder(Expression expression, Type returnType, String code, String expressionSource, String location) {
         this.expression = expression;
         this.returnType = returnType;
+        this.code = code;
         this.expressionSource = expressionSource;
         this.location = location;
     }
@@ -1,9 +1,11 @@
 package core.framework.impl.template.fragment;
 
+import core.framework.api.util.Charsets;
 import core.framework.api.util.Exceptions;
 import core.framework.impl.reflect.GenericTypes;
 import core.framework.impl.template.TemplateContext;
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
 import core.framework.impl.template.expression.ExpressionBuilder;
 import core.framework.impl.template.expression.ExpressionHolder;
 
@@ -11,11 +13,11 @@ import core.framework.impl.template.expression.ExpressionHolder;
  * @author neo
  */
 public class BooleanAttributeFragment implements Fragment {
-    private final String name;
-    private final ExpressionHolder expression;
+    private final byte[] attribute;
+    final ExpressionHolder expression;
 
     public BooleanAttributeFragment(String name, String expression, TemplateMetaContext context, String location) {
-        this.name = name;
+        attribute = (' ' + name).getBytes(Charsets.UTF_8);
         this.expression = new ExpressionBuilder(expression, context, location).build();
         if (!Boolean.class.equals(GenericTypes.rawClass(this.expression.returnType)))
             throw Exceptions.error("boolean attribute expression must return Boolean, condition={}, returnType={}, location={}",
@@ -23,10 +25,14 @@ public class BooleanAttributeFragment implements Fragment {
     }
 
     @Override
-    public void process(StringBuilder builder, TemplateContext context) {
-        Object result = expression.eval(context);
+    public void process(TemplateOutput output, TemplateContext context) {
+        write(output, expression.eval(context));
+    }
+
+    // used by generated code
+    public void write(TemplateOutput output, Object result) {
         if (Boolean.TRUE.equals(result)) {
-            builder.append(' ').append(name);
+            output.write(attribute);
         }
     }
 }
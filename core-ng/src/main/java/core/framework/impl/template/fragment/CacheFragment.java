@@ -0,0 +1,108 @@
+package core.framework.impl.template.fragment;
+
+import core.framework.api.util.Exceptions;
+import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
+import core.framework.impl.template.expression.ExpressionBuilder;
+import core.framework.impl.template.expression.ExpressionHolder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * rendered content is cached by key expression value, statement is "key" or "key:ttl", e.g. c:cache="categoryVersion:30m", default ttl is 10 minutes,
+ * template is built per language, so cached content is per language as well,
+ * content must only depend on key, it renders once per key until expired
+ *
+ * @author neo
+ */
+public class CacheFragment extends ContainerFragment {
+    private static final Pattern STATEMENT_PATTERN = Pattern.compile("([#a-zA-Z0-9\\.\\(\\)]+)(:([0-9]+)([smh]))?");
+    private static final int MAX_ENTRIES = 1000;
+
+    final ExpressionHolder expression;
+    private final long ttlInMs;
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {     // access order, guarded by itself
+        private static final long serialVersionUID = 2134698709174561233L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public CacheFragment(String statement, TemplateMetaContext context, String location) {
+        Matcher matcher = STATEMENT_PATTERN.matcher(statement);
+        if (!matcher.matches())
+            throw Exceptions.error("statement must match \"key\" or \"key:ttl\", ttl unit can be s/m/h, statement={}, location={}", statement, location);
+
+        expression = new ExpressionBuilder(matcher.group(1), context, location).build();
+        ttlInMs = matcher.group(2) == null ? Duration.ofMinutes(10).toMillis() : ttl(Long.parseLong(matcher.group(3)), matcher.group(4)).toMillis();
+    }
+
+    private Duration ttl(long value, String unit) {
+        switch (unit) {
+            case "s":
+                return Duration.ofSeconds(value);
+            case "m":
+                return Duration.ofMinutes(value);
+            default:
+                return Duration.ofHours(value);
+        }
+    }
+
+    @Override
+    public void process(TemplateOutput output, TemplateContext context) {
+        Object key = expression.eval(context);
+        byte[] content = get(key);
+        if (content != null) {
+            output.write(content);
+        } else if (key == null) {   // not to cache without key
+            processChildren(output, context);
+        } else {
+            TemplateOutput contentOutput = new TemplateOutput(1024);
+            processChildren(contentOutput, context);
+            put(key, contentOutput, output);
+        }
+    }
+
+    // used by generated code, return null if key is null or not cached
+    public byte[] get(Object key) {
+        if (key == null) return null;
+        String cacheKey = String.valueOf(key);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(cacheKey);
+            if (entry == null) return null;
+            if (now >= entry.expirationTime) {
+                entries.remove(cacheKey);
+                return null;
+            }
+            return entry.content;
+        }
+    }
+
+    // used by generated code, cache rendered content and write to output
+    public void put(Object key, TemplateOutput contentOutput, TemplateOutput output) {
+        byte[] content = contentOutput.bytes();
+        Entry entry = new Entry(content, System.currentTimeMillis() + ttlInMs);
+        synchronized (entries) {
+            entries.put(String.valueOf(key), entry);
+        }
+        output.write(content);
+    }
+
+    private static final class Entry {
+        final byte[] content;
+        final long expirationTime;
+
+        Entry(byte[] content, long expirationTime) {
+            this.content = content;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package core.framework.impl.template.fragment;
+
+import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateOutput;
+
+/**
+ * @author neo
+ */
+public interface CompiledTemplate {
+    void process(TemplateOutput output, TemplateContext context);
+}
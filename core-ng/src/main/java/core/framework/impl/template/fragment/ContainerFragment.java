@@ -1,15 +1,20 @@
 package core.framework.impl.template.fragment;
 
+import core.framework.api.util.Charsets;
+import core.framework.api.util.Lists;
 import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateOutput;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 
 /**
  * @author neo
  */
 public abstract class ContainerFragment implements Fragment {
-    private final Deque<Fragment> children = new ArrayDeque<>();
+    final Deque<Fragment> children = new ArrayDeque<>();
 
     public void addStaticContent(String content) {
         if (!children.isEmpty()) {
@@ -28,9 +33,40 @@ public abstract class ContainerFragment implements Fragment {
         children.add(fragment);
     }
 
-    protected void processChildren(StringBuilder builder, TemplateContext context) {
+    // encode all static content under this container into one utf-8 byte array after template is built, each static fragment refers to its slice
+    public void encodeStaticContent() {
+        List<StaticFragment> fragments = Lists.newArrayList();
+        collectStaticFragments(fragments);
+        List<byte[]> contents = new ArrayList<>(fragments.size());
+        int length = 0;
+        for (StaticFragment fragment : fragments) {
+            byte[] content = fragment.content.toString().getBytes(Charsets.UTF_8);
+            contents.add(content);
+            length += content.length;
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (int i = 0; i < fragments.size(); i++) {
+            StaticFragment fragment = fragments.get(i);
+            byte[] content = contents.get(i);
+            System.arraycopy(content, 0, bytes, offset, content.length);
+            fragment.bytes = bytes;
+            fragment.offset = offset;
+            fragment.length = content.length;
+            offset += content.length;
+        }
+    }
+
+    private void collectStaticFragments(List<StaticFragment> fragments) {
+        for (Fragment child : children) {
+            if (child instanceof StaticFragment) fragments.add((StaticFragment) child);
+            else if (child instanceof ContainerFragment) ((ContainerFragment) child).collectStaticFragments(fragments);
+        }
+    }
+
+    protected void processChildren(TemplateOutput output, TemplateContext context) {
         for (Fragment child : children) {
-            child.process(builder, context);
+            child.process(output, context);
         }
     }
 }
@@ -4,6 +4,7 @@ import core.framework.api.util.Exceptions;
 import core.framework.impl.reflect.GenericTypes;
 import core.framework.impl.template.TemplateContext;
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
 import core.framework.impl.template.expression.ExpressionBuilder;
 import core.framework.impl.template.expression.ExpressionHolder;
 
@@ -18,7 +19,7 @@ public class ForFragment extends ContainerFragment {
     private static final Pattern STATEMENT_PATTERN = Pattern.compile("([a-zA-Z0-9]+):([#a-zA-Z0-9\\.\\(\\)]+)");
     public final String variable;
     public final Class<?> valueClass;
-    private final ExpressionHolder expression;
+    final ExpressionHolder expression;
 
     public ForFragment(String statement, TemplateMetaContext context, String location) {
         Matcher matcher = STATEMENT_PATTERN.matcher(statement);
@@ -37,11 +38,11 @@ public class ForFragment extends ContainerFragment {
     }
 
     @Override
-    public void process(StringBuilder builder, TemplateContext context) {
+    public void process(TemplateOutput output, TemplateContext context) {
         List<?> list = (List<?>) expression.eval(context);
         for (Object item : list) {
             context.contextObjects.put(variable, item);
-            processChildren(builder, context);
+            processChildren(output, context);
         }
         context.contextObjects.remove(variable);
     }
@@ -1,10 +1,11 @@
 package core.framework.impl.template.fragment;
 
 import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateOutput;
 
 /**
  * @author neo
  */
 interface Fragment {
-    void process(StringBuilder builder, TemplateContext context);
+    void process(TemplateOutput output, TemplateContext context);
 }
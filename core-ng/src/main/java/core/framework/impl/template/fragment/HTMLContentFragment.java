@@ -2,6 +2,7 @@ package core.framework.impl.template.fragment;
 
 import core.framework.impl.template.TemplateContext;
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
 import core.framework.impl.template.expression.ExpressionBuilder;
 import core.framework.impl.template.expression.ExpressionHolder;
 
@@ -9,17 +10,21 @@ import core.framework.impl.template.expression.ExpressionHolder;
  * @author neo
  */
 public class HTMLContentFragment implements Fragment {
-    private final ExpressionHolder expression;
+    final ExpressionHolder expression;
 
     public HTMLContentFragment(String expression, TemplateMetaContext context, String location) {
         this.expression = new ExpressionBuilder(expression, context, location).build();
     }
 
     @Override
-    public void process(StringBuilder builder, TemplateContext context) {
-        Object result = expression.eval(context);
+    public void process(TemplateOutput output, TemplateContext context) {
+        write(output, expression.eval(context));
+    }
+
+    // used by generated code
+    public void write(TemplateOutput output, Object result) {
         if (result != null) {
-            builder.append(String.valueOf(result));
+            output.write(String.valueOf(result));
         }
     }
 }
@@ -4,6 +4,7 @@ import core.framework.api.util.Exceptions;
 import core.framework.impl.reflect.GenericTypes;
 import core.framework.impl.template.TemplateContext;
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
 import core.framework.impl.template.expression.ExpressionBuilder;
 import core.framework.impl.template.expression.ExpressionHolder;
 
@@ -15,8 +16,8 @@ import java.util.regex.Pattern;
  */
 public class IfFragment extends ContainerFragment {
     private static final Pattern STATEMENT_PATTERN = Pattern.compile("((!)?)([#a-zA-Z1-9\\.\\(\\)]+)");
-    private final ExpressionHolder expression;
-    private final boolean reverse;
+    final ExpressionHolder expression;
+    final boolean reverse;
 
     public IfFragment(String statement, TemplateMetaContext context, String location) {
         Matcher matcher = STATEMENT_PATTERN.matcher(statement);
@@ -33,11 +34,11 @@ public class IfFragment extends ContainerFragment {
     }
 
     @Override
-    public void process(StringBuilder builder, TemplateContext context) {
+    public void process(TemplateOutput output, TemplateContext context) {
         Object result = expression.eval(context);
         Boolean expected = reverse ? Boolean.FALSE : Boolean.TRUE;
         if (expected.equals(result)) {
-            processChildren(builder, context);
+            processChildren(output, context);
         }
     }
 }
@@ -1,16 +1,20 @@
 package core.framework.impl.template.fragment;
 
 import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateOutput;
 
 /**
  * @author neo
  */
 public class StaticFragment implements Fragment {
-    private final StringBuilder content = new StringBuilder();
+    final StringBuilder content = new StringBuilder();
+    byte[] bytes;       // slice of utf-8 encoded static content of whole template, assigned by ContainerFragment.encodeStaticContent()
+    int offset;
+    int length;
 
     @Override
-    public void process(StringBuilder builder, TemplateContext context) {
-        builder.append(content);
+    public void process(TemplateOutput output, TemplateContext context) {
+        output.write(bytes, offset, length);
     }
 
     void append(String content) {
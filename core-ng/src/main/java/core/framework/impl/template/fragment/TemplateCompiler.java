@@ -0,0 +1,176 @@
+package core.framework.impl.template.fragment;
+
+import core.framework.api.util.Exceptions;
+import core.framework.api.util.Lists;
+import core.framework.api.util.Strings;
+import core.framework.impl.code.CodeBuilder;
+import core.framework.impl.code.CodeCompileException;
+import core.framework.impl.code.DynamicInstanceBuilder;
+import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateOutput;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * generate one class to render whole template, for variables are local variables and fragments are inlined as straight code,
+ * fragments with state (e.g. enum contents, cache) are referred as fields,
+ * generated variables are prefixed with $ (e.g. $output, $context, $root), not to conflict with for variables in template,
+ * large block is split into methods, to keep methods small for JIT inlining and far below 8000 bytes limit (-XX:HugeMethodLimit), otherwise JIT does not compile it
+ *
+ * @author neo
+ */
+public final class TemplateCompiler {
+    private static final int MAX_BLOCK_CODE_LENGTH = 2000;
+
+    private final ContainerFragment template;
+    private final Class<?> rootClass;
+    private final String location;
+    private final List<Object> fields = Lists.newArrayList();
+    private final List<String> fieldClasses = Lists.newArrayList();
+    private final List<String> methods = Lists.newArrayList();
+    private final Deque<ForFragment> loops = new ArrayDeque<>();    // for variables in scope
+    private int index;
+
+    public TemplateCompiler(ContainerFragment template, Class<?> rootClass, String location) {
+        this.template = template;
+        this.rootClass = rootClass;
+        this.location = location;
+    }
+
+    public CompiledTemplate compile() {
+        String body = children(template, "$output");
+
+        CodeBuilder process = new CodeBuilder();
+        process.append("public void process({} $output, {} $context) {\n", TemplateOutput.class.getCanonicalName(), TemplateContext.class.getCanonicalName());
+        process.indent(1).append("{} $root = ({}) $context.root;\n", rootClass.getCanonicalName(), rootClass.getCanonicalName());
+        process.append(body);
+        process.append("}");
+
+        try {
+            DynamicInstanceBuilder<CompiledTemplate> builder = new DynamicInstanceBuilder<>(CompiledTemplate.class, CompiledTemplate.class.getCanonicalName());
+            CodeBuilder constructor = new CodeBuilder().append("{\n");
+            for (int i = 0; i < fields.size(); i++) {
+                String fieldClass = fieldClasses.get(i);
+                builder.addField(Strings.format("private final {} field{};", fieldClass, i));
+                constructor.indent(1).append("this.field{} = ({}) $1[{}];\n", i, fieldClass, i);
+            }
+            constructor.append("}");
+            builder.constructor(new Class[]{Object[].class}, constructor.build());
+            for (String method : methods) {
+                builder.addMethod(method);
+            }
+            builder.addMethod(process.build());
+            return builder.build((Object) fields.toArray());
+        } catch (CodeCompileException e) {
+            throw new Error(Strings.format("failed to compile template, location={}", location), e);
+        }
+    }
+
+    private String children(ContainerFragment container, String output) {
+        StringBuilder code = new StringBuilder();
+        StringBuilder block = new StringBuilder();
+        for (Fragment child : container.children) {
+            String childCode = fragment(child, output);
+            if (block.length() > 0 && block.length() + childCode.length() > MAX_BLOCK_CODE_LENGTH) {
+                code.append(method(block.toString(), output));
+                block.setLength(0);
+            }
+            block.append(childCode);
+        }
+        return code.append(block).toString();
+    }
+
+    // extract block into method, pass all variables in scope as params
+    private String method(String block, String output) {
+        String name = "block" + methods.size();
+        CodeBuilder params = new CodeBuilder().append("{} {}, {} $context, {} $root",
+            TemplateOutput.class.getCanonicalName(), output, TemplateContext.class.getCanonicalName(), rootClass.getCanonicalName());
+        CodeBuilder arguments = new CodeBuilder().append("{}, $context, $root", output);
+        for (ForFragment loop : loops) {
+            params.append(", {} {}", loop.valueClass.getCanonicalName(), loop.variable);
+            arguments.append(", {}", loop.variable);
+        }
+        methods.add(Strings.format("private void {}({}) {\n{}}", name, params.build(), block));
+        return Strings.format("{}({});\n", name, arguments.build());
+    }
+
+    private String fragment(Fragment fragment, String output) {
+        if (fragment instanceof StaticFragment) {
+            StaticFragment staticFragment = (StaticFragment) fragment;
+            if (staticFragment.length == 0) return "";
+            return Strings.format("{}.write({}, {}, {});\n", output, field(staticFragment.bytes, "byte[]"), staticFragment.offset, staticFragment.length);
+        } else if (fragment instanceof TextContentFragment) {
+            return Strings.format("{}.write({}, {});\n", field(fragment), output, ((TextContentFragment) fragment).expression.code);
+        } else if (fragment instanceof HTMLContentFragment) {
+            return Strings.format("{}.write({}, {});\n", field(fragment), output, ((HTMLContentFragment) fragment).expression.code);
+        } else if (fragment instanceof BooleanAttributeFragment) {
+            return Strings.format("{}.write({}, {});\n", field(fragment), output, ((BooleanAttributeFragment) fragment).expression.code);
+        } else if (fragment instanceof URLFragment) {
+            return Strings.format("{}.write({}, {}, $context);\n", field(fragment), output, ((URLFragment) fragment).expression.code);
+        } else if (fragment instanceof IfFragment) {
+            return ifFragment((IfFragment) fragment, output);
+        } else if (fragment instanceof ForFragment) {
+            return forFragment((ForFragment) fragment, output);
+        } else if (fragment instanceof CacheFragment) {
+            return cacheFragment((CacheFragment) fragment, output);
+        }
+        throw Exceptions.error("unsupported fragment, fragmentClass={}", fragment.getClass().getCanonicalName());
+    }
+
+    private String ifFragment(IfFragment fragment, String output) {
+        CodeBuilder builder = new CodeBuilder();
+        builder.append("if (Boolean.{}.equals({})) {\n", fragment.reverse ? "FALSE" : "TRUE", fragment.expression.code);
+        builder.append(children(fragment, output));
+        builder.append("}\n");
+        return builder.build();
+    }
+
+    private String forFragment(ForFragment fragment, String output) {
+        String iterator = "$iterator" + (index++);
+        String valueClass = fragment.valueClass.getCanonicalName();
+        CodeBuilder builder = new CodeBuilder();
+        builder.append("java.util.Iterator {} = ({}).iterator();\n", iterator, fragment.expression.code);
+        builder.append("while ({}.hasNext()) {\n", iterator);
+        builder.indent(1).append("{} {} = ({}) {}.next();\n", valueClass, fragment.variable, valueClass, iterator);
+        loops.addLast(fragment);
+        builder.append(children(fragment, output));
+        loops.removeLast();
+        builder.append("}\n");
+        return builder.build();
+    }
+
+    private String cacheFragment(CacheFragment fragment, String output) {
+        int index = this.index++;
+        String field = field(fragment);
+        String key = "$key" + index;
+        String content = "$content" + index;
+        String contentOutput = "$output" + index;
+        CodeBuilder builder = new CodeBuilder();
+        builder.append("Object {} = {};\n", key, fragment.expression.code);
+        builder.append("byte[] {} = {}.get({});\n", content, field, key);
+        builder.append("if ({} != null) {\n", content);
+        builder.indent(1).append("{}.write({});\n", output, content);
+        builder.append("} else {\n");
+        builder.indent(1).append("{} {} = {} == null ? {} : new {}(1024);\n", TemplateOutput.class.getCanonicalName(), contentOutput, key, output, TemplateOutput.class.getCanonicalName());
+        builder.append(children(fragment, contentOutput));
+        builder.indent(1).append("if ({} != null) {}.put({}, {}, {});\n", key, field, key, contentOutput, output);
+        builder.append("}\n");
+        return builder.build();
+    }
+
+    private String field(Fragment fragment) {
+        return field(fragment, fragment.getClass().getCanonicalName());
+    }
+
+    private String field(Object value, String fieldClass) {
+        int index = fields.indexOf(value);
+        if (index < 0) {
+            index = fields.size();
+            fields.add(value);
+            fieldClasses.add(fieldClass);
+        }
+        return "this.field" + index;
+    }
+}
@@ -1,80 +1,54 @@
 package core.framework.impl.template.fragment;
 
+import core.framework.impl.reflect.GenericTypes;
 import core.framework.impl.template.TemplateContext;
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
 import core.framework.impl.template.expression.ExpressionBuilder;
 import core.framework.impl.template.expression.ExpressionHolder;
 
 /**
+ * integer is written as digits and enum as pre-escaped bytes by ordinal, other value is escaped into output directly
+ *
  * @author neo
  */
 public class TextContentFragment implements Fragment {
-    static String escapeHTML(String text) {
-        int length = text.length();
-        int index = findHTMLReservedChar(text);
-        if (index == length) return text;
-        StringBuilder builder = new StringBuilder(length * 2);
-        for (int i = 0; i < index; i++) builder.append(text.charAt(i));
-        for (; index < length; index++) {
-            char ch = text.charAt(index);
-            switch (ch) {
-                case '<':
-                    builder.append("&lt;");
-                    break;
-                case '>':
-                    builder.append("&gt;");
-                    break;
-                case '"':
-                    builder.append("&quot;");
-                    break;
-                case '&':
-                    builder.append("&amp;");
-                    break;
-                case '\'':
-                    builder.append("&#39;");
-                    break;
-                case '/':
-                    builder.append("&#47;");
-                    break;
-                default:
-                    builder.append(ch);
-                    break;
-            }
-        }
-        return builder.toString();
+    final ExpressionHolder expression;
+    private final boolean integer;
+    private final byte[][] enumContents;
+
+    public TextContentFragment(String expression, TemplateMetaContext context, String location) {
+        this.expression = new ExpressionBuilder(expression, context, location).build();
+        Class<?> valueClass = GenericTypes.rawClass(this.expression.returnType);
+        integer = Integer.class.equals(valueClass) || Long.class.equals(valueClass);
+        enumContents = valueClass.isEnum() ? enumContents(valueClass) : null;
     }
 
-    private static int findHTMLReservedChar(String text) {
-        int length = text.length();
-        int index = 0;
-        for (; index < length; index++) {
-            char ch = text.charAt(index);
-            switch (ch) {
-                case '<':
-                case '>':
-                case '"':
-                case '&':
-                case '\'':
-                case '/':
-                    return index;
-                default:
-                    break;
-            }
+    private byte[][] enumContents(Class<?> enumClass) {
+        Object[] constants = enumClass.getEnumConstants();
+        byte[][] contents = new byte[constants.length][];
+        for (int i = 0; i < constants.length; i++) {
+            TemplateOutput output = new TemplateOutput(16);
+            output.writeEscapedHTML(String.valueOf(constants[i]));
+            contents[i] = output.bytes();
         }
-        return index;
+        return contents;
     }
 
-    private final ExpressionHolder expression;
-
-    public TextContentFragment(String expression, TemplateMetaContext context, String location) {
-        this.expression = new ExpressionBuilder(expression, context, location).build();
+    @Override
+    public void process(TemplateOutput output, TemplateContext context) {
+        write(output, expression.eval(context));
     }
 
-    @Override
-    public void process(StringBuilder builder, TemplateContext context) {
-        Object result = expression.eval(context);
-        if (result != null) {
-            builder.append(escapeHTML(String.valueOf(result)));
+    // used by generated code
+    public void write(TemplateOutput output, Object result) {
+        if (result == null) return;
+        if (integer) {
+            output.write(((Number) result).longValue());
+        } else if (enumContents != null) {
+            output.write(enumContents[((Enum<?>) result).ordinal()]);
+        } else {
+            output.writeEscapedHTML(String.valueOf(result));
         }
     }
 }
@@ -5,6 +5,7 @@ import core.framework.api.util.Exceptions;
 import core.framework.api.util.Strings;
 import core.framework.impl.template.TemplateContext;
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TemplateOutput;
 import core.framework.impl.template.expression.ExpressionBuilder;
 import core.framework.impl.template.expression.ExpressionHolder;
 import org.slf4j.Logger;
@@ -85,7 +86,7 @@ public class URLFragment implements Fragment {  // this is for dynamic href/src
     }
 
     private final Logger logger = LoggerFactory.getLogger(URLFragment.class);
-    private final ExpressionHolder expression;
+    final ExpressionHolder expression;
     private final String location;
     private final boolean cdn;
 
@@ -99,9 +100,13 @@ public class URLFragment implements Fragment {  // this is for dynamic href/src
     }
 
     @Override
-    public void process(StringBuilder builder, TemplateContext context) {
-        String url = (String) expression.eval(context);
-        builder.append(url(url, context));
+    public void process(TemplateOutput output, TemplateContext context) {
+        write(output, (String) expression.eval(context), context);
+    }
+
+    // used by generated code
+    public void write(TemplateOutput output, String url, TemplateContext context) {
+        output.write(url(url, context));
     }
 
     private String url(String url, TemplateContext context) {
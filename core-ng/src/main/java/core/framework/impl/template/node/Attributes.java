@@ -47,7 +47,8 @@ public class Attributes {
             || "m:text".equals(name)
             || "c:include".equals(name)
             || "c:for".equals(name)
-            || "c:if".equals(name))
+            || "c:if".equals(name)
+            || "c:cache".equals(name))
             return true;
 
         return !attribute.isDynamic() && (attributes.containsKey("c:" + name) || attributes.containsKey("m:" + name));   // there is dynamic attribute to overwrite
@@ -73,7 +74,7 @@ public class Attributes {
     public List<Attribute> flowAttributes() {
         List<Attribute> attributes = new ArrayList<>();
         this.attributes.forEach((name, attr) -> {
-            if ("c:if".equals(name) || "c:for".equals(name)) attributes.add(attr);
+            if ("c:if".equals(name) || "c:for".equals(name) || "c:cache".equals(name)) attributes.add(attr);
         });
         return attributes;
     }
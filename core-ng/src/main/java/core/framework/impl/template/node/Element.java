@@ -1,6 +1,7 @@
 package core.framework.impl.template.node;
 
 import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.fragment.CacheFragment;
 import core.framework.impl.template.fragment.ContainerFragment;
 import core.framework.impl.template.fragment.ForFragment;
 import core.framework.impl.template.fragment.IfFragment;
@@ -32,6 +33,10 @@ public class Element extends ContainerNode {
                 context.paramClasses.put(forFragment.variable, forFragment.valueClass);
                 currentParent.add(forFragment);
                 currentParent = forFragment;
+            } else if ("c:cache".equals(attribute.name)) {
+                CacheFragment cacheFragment = new CacheFragment(attribute.value, context, attribute.location);
+                currentParent.add(cacheFragment);
+                currentParent = cacheFragment;
             }
         }
 
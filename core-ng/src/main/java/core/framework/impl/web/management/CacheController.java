@@ -53,6 +53,9 @@ public class CacheController {
         view.name = cache.name;
         view.type = cache.valueType.getTypeName();
         view.duration = (int) cache.duration.getSeconds();
+        view.hits = cache.hits.sum();
+        view.misses = cache.misses.sum();
+        view.evictions = cacheManager.evictions(cache.name).orElse(null);
         return view;
     }
 }
@@ -7,7 +7,7 @@ import core.framework.impl.json.JSONMapper;
 import core.framework.impl.log.LogParam;
 import core.framework.impl.web.BeanValidator;
 import core.framework.impl.web.request.RequestImpl;
-import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,12 +29,12 @@ class BeanBodyResponseHandler implements BodyHandler {
     }
 
     @Override
-    public void handle(ResponseImpl response, Sender sender, RequestImpl request) {
+    public void handle(ResponseImpl response, HttpServerExchange exchange, RequestImpl request) {
         Object bean = ((BeanBody) response.body).bean;
         validateBeanType(bean);
         byte[] body = JSONMapper.toJSON(bean);
         logger.debug("[response] body={}", LogParam.of(body));
-        sender.send(ByteBuffer.wrap(body));
+        exchange.getResponseSender().send(ByteBuffer.wrap(body));
     }
 
     // to validate response bean, since it can not get declaration type from instance, try to construct original type as much as it can.
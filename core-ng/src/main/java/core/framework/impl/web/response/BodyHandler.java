@@ -2,12 +2,12 @@ package core.framework.impl.web.response;
 
 import core.framework.api.web.ResponseImpl;
 import core.framework.impl.web.request.RequestImpl;
-import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
 
 /**
  * @author neo
  */
 @FunctionalInterface
 interface BodyHandler {
-    void handle(ResponseImpl response, Sender sender, RequestImpl request);
+    void handle(ResponseImpl response, HttpServerExchange exchange, RequestImpl request);
 }
@@ -18,11 +18,11 @@ import java.nio.channels.FileChannel;
  */
 class FileBodyResponseHandler implements BodyHandler {
     @Override
-    public void handle(ResponseImpl response, Sender sender, RequestImpl request) {
+    public void handle(ResponseImpl response, HttpServerExchange exchange, RequestImpl request) {
         File file = ((FileBody) response.body).file;
         try {
             final FileChannel channel = new FileInputStream(file).getChannel();
-            sender.transferFrom(channel, new IoCallback() {
+            exchange.getResponseSender().transferFrom(channel, new IoCallback() {
                 @Override
                 public void onComplete(HttpServerExchange exchange, Sender sender) {
                     IoUtils.safeClose(channel);
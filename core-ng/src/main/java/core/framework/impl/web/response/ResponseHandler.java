@@ -57,7 +57,7 @@ public class ResponseHandler {
         if (handler == null)
             throw Exceptions.error("unexpected body class, body={}", response.body.getClass().getCanonicalName());
         logger.debug("responseHandlerClass={}", handler.getClass().getCanonicalName());
-        handler.handle(response, exchange.getResponseSender(), request);
+        handler.handle(response, exchange, request);
 
         ActionLogContext.put("responseCode", status.code);  // set response code context at last, to avoid error handle to log same action log key on exception
     }
@@ -3,7 +3,12 @@ package core.framework.impl.web.response;
 import core.framework.api.web.ResponseImpl;
 import core.framework.impl.web.request.RequestImpl;
 import core.framework.impl.web.site.TemplateManager;
-import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import org.xnio.IoUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 /**
  * @author neo
@@ -16,9 +21,25 @@ class TemplateBodyResponseHandler implements BodyHandler {
     }
 
     @Override
-    public void handle(ResponseImpl response, Sender sender, RequestImpl request) {
+    public void handle(ResponseImpl response, HttpServerExchange exchange, RequestImpl request) {
         TemplateBody body = (TemplateBody) response.body;
-        String content = templateManager.process(body.templatePath, body.model, body.language);
-        sender.send(content);
+        exchange.startBlocking();   // handler runs in worker thread, content is streamed while rendering, and content-length is set if whole content fits in one chunk
+        boolean completed = false;
+        try {
+            OutputStream stream = exchange.getOutputStream();
+            templateManager.process(body.templatePath, body.model, body.language, stream);
+            stream.close();     // only close on success, so error page can still be rendered if nothing was sent
+            completed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!completed && exchange.isResponseStarted()) abort(exchange);
+        }
+    }
+
+    // partial content was sent, close connection without terminating chunked body, so client won't take truncated page as complete response
+    private void abort(HttpServerExchange exchange) {
+        exchange.setPersistent(false);
+        IoUtils.safeClose(exchange.getConnection());
     }
 }
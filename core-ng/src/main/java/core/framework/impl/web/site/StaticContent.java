@@ -0,0 +1,236 @@
+package core.framework.impl.web.site;
+
+import core.framework.api.http.ContentType;
+import core.framework.api.http.HTTPHeaders;
+import core.framework.api.http.HTTPStatus;
+import core.framework.api.util.Encodings;
+import core.framework.api.util.Files;
+import core.framework.api.util.StopWatch;
+import core.framework.api.web.Request;
+import core.framework.api.web.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * file held in memory with precomputed gzip variant and etag, conditional GET and single byte range are served from memory,
+ * file larger than MAX_MEMORY_SIZE or given memory limit is served from disk, with weak etag derived from size and last modified time
+ *
+ * @author neo
+ */
+final class StaticContent {
+    static final int MAX_MEMORY_SIZE = 1024 * 1024;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticContent.class);
+
+    static StaticContent load(Path file, long maxMemorySize) {
+        StopWatch watch = new StopWatch();
+        try {
+            Instant lastModified = Files.lastModified(file);   // get before reading content, if file changes during loading, it will be reloaded in local env
+            long size = Files.size(file);
+            ContentType contentType = MimeTypes.get(file.getFileName().toString());
+            if (size > Math.min(MAX_MEMORY_SIZE, maxMemorySize)) {
+                String etag = "W/\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+                return new StaticContent(file, contentType, lastModified, null, etag, null);
+            }
+            byte[] content = Files.bytes(file);
+            String etag = "\"" + hash(content) + "\"";
+            byte[] gzipContent = compressible(contentType) ? gzip(content) : null;
+            return new StaticContent(file, contentType, lastModified, content, etag, gzipContent);
+        } finally {
+            LOGGER.debug("load, file={}, elapsedTime={}", file, watch.elapsedTime());
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(content);   // only to identify content, not for security
+            return Encodings.base64URLSafe(digest).substring(0, 22);    // remove padding "=="
+        } catch (NoSuchAlgorithmException e) {
+            throw new Error(e);
+        }
+    }
+
+    private static boolean compressible(ContentType contentType) {
+        if (contentType == null) return false;
+        String mediaType = contentType.mediaType();
+        return mediaType.startsWith("text/") || mediaType.endsWith("javascript") || mediaType.endsWith("json") || mediaType.endsWith("xml");
+    }
+
+    // return null if it is not smaller than original
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (GZIPOutputStream stream = new GZIPOutputStream(output)) {
+            stream.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.size() < content.length ? output.toByteArray() : null;
+    }
+
+    final Path file;
+    final Instant lastModified;
+    private final ContentType contentType;
+    private final byte[] content;
+    private final byte[] gzipContent;
+    private final String etag;
+    private final String gzipETag;
+    private final String lastModifiedValue;
+    private final Instant lastModifiedInSeconds;   // http date has second precision
+
+    private StaticContent(Path file, ContentType contentType, Instant lastModified, byte[] content, String etag, byte[] gzipContent) {
+        this.file = file;
+        this.contentType = contentType;
+        this.lastModified = lastModified;
+        this.content = content;
+        this.etag = etag;
+        this.gzipContent = gzipContent;
+        gzipETag = gzipContent == null ? null : etag.substring(0, etag.length() - 1) + "-gzip\"";    // each representation must have different strong etag
+        lastModifiedInSeconds = lastModified.truncatedTo(ChronoUnit.SECONDS);
+        lastModifiedValue = HTTP_DATE.format(lastModifiedInSeconds);
+    }
+
+    // memory held by content and gzip variant
+    long memorySize() {
+        return (content == null ? 0 : content.length) + (gzipContent == null ? 0 : gzipContent.length);
+    }
+
+    Response response(Request request) {
+        Optional<String> range = content == null ? Optional.empty() : request.header(HTTPHeaders.RANGE);
+        // range is always served from original content
+        boolean gzip = gzipContent != null && !range.isPresent() && acceptGzip(request.header(HTTPHeaders.ACCEPT_ENCODING).orElse(null));
+        String etag = gzip ? gzipETag : this.etag;
+
+        if (notModified(request, etag)) return headers(Response.empty().status(HTTPStatus.NOT_MODIFIED), etag);
+        if (content == null) return headers(Response.file(file.toFile()).contentType(contentType), etag);
+
+        if (range.isPresent() && ifRange(request.header(HTTPHeaders.IF_RANGE).orElse(null))) {
+            Response response = range(range.get());
+            if (response != null) return headers(response, etag);
+        }
+
+        Response response = Response.bytes(gzip ? gzipContent : content, contentType);
+        if (gzip) response.header(HTTPHeaders.CONTENT_ENCODING, "gzip");
+        return headers(response, etag);
+    }
+
+    private Response headers(Response response, String etag) {
+        response.header(HTTPHeaders.ETAG, etag)
+            .header(HTTPHeaders.LAST_MODIFIED, lastModifiedValue);
+        if (content != null) response.header(HTTPHeaders.ACCEPT_RANGES, "bytes");
+        if (gzipContent != null) response.header(HTTPHeaders.VARY, HTTPHeaders.ACCEPT_ENCODING);
+        return response;
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since, refer to https://tools.ietf.org/html/rfc7232#section-6
+    private boolean notModified(Request request, String etag) {
+        Optional<String> ifNoneMatch = request.header(HTTPHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch.isPresent()) {
+            for (String value : ifNoneMatch.get().split(",")) {
+                String tag = value.trim();
+                if ("*".equals(tag) || weakTag(tag).equals(weakTag(etag))) return true;
+            }
+            return false;
+        }
+        Instant ifModifiedSince = parseDate(request.header(HTTPHeaders.IF_MODIFIED_SINCE).orElse(null));
+        return ifModifiedSince != null && !lastModifiedInSeconds.isAfter(ifModifiedSince);
+    }
+
+    // If-Range requires strong etag match or exact last modified date, refer to https://tools.ietf.org/html/rfc7233#section-3.2
+    private boolean ifRange(String ifRange) {
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"")) return ifRange.equals(etag);
+        if (ifRange.startsWith("W/")) return false;
+        return lastModifiedInSeconds.equals(parseDate(ifRange));
+    }
+
+    // only support single range, return null to ignore range and serve full content, refer to https://tools.ietf.org/html/rfc7233#section-2.1
+    private Response range(String range) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) return null;
+        int index = range.indexOf('-');
+        if (index < 0) return null;
+        String startValue = range.substring(6, index).trim();
+        String endValue = range.substring(index + 1).trim();
+        long length = content.length;
+        long start;
+        long end;
+        try {
+            if (startValue.isEmpty()) {     // suffix range, last N bytes
+                if (endValue.isEmpty()) return null;
+                long suffixLength = Long.parseLong(endValue);
+                if (suffixLength < 0) return null;
+                start = Math.max(0, length - suffixLength);
+                end = suffixLength == 0 ? -1 : length - 1;
+            } else {
+                start = Long.parseLong(startValue);
+                if (start < 0) return null;
+                end = length - 1;
+                if (!endValue.isEmpty()) {
+                    long lastPosition = Long.parseLong(endValue);
+                    if (lastPosition < start) return null;
+                    end = Math.min(end, lastPosition);
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (start >= length || end < start) {
+            return Response.empty().status(HTTPStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HTTPHeaders.CONTENT_RANGE, "bytes */" + length);
+        }
+        return Response.bytes(Arrays.copyOfRange(content, (int) start, (int) end + 1), contentType)
+            .status(HTTPStatus.PARTIAL_CONTENT)
+            .header(HTTPHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+    }
+
+    private boolean acceptGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String value : acceptEncoding.split(",")) {
+            String encoding = value.trim();
+            if ("gzip".equals(encoding)) return true;
+            if (encoding.startsWith("gzip;")) return !zeroQuality(encoding.substring(5));
+        }
+        return false;
+    }
+
+    // "gzip;q=0" means not acceptable, refer to https://tools.ietf.org/html/rfc7231#section-5.3.4
+    private boolean zeroQuality(String params) {
+        int index = params.indexOf("q=");
+        if (index < 0) return false;
+        String quality = params.substring(index + 2).trim();
+        for (int i = 0; i < quality.length(); i++) {
+            char ch = quality.charAt(i);
+            if (ch != '0' && ch != '.') return false;
+        }
+        return true;
+    }
+
+    private String weakTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private Instant parseDate(String value) {
+        if (value == null) return null;
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;    // ignore invalid date, refer to https://tools.ietf.org/html/rfc7232#section-3.3
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package core.framework.impl.web.site;
+
+import core.framework.api.util.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * file is loaded on first request, then served from memory without touching file system,
+ * total memory is bounded by MAX_MEMORY_SIZE (approximately, concurrent loads may exceed a little), files loaded after it's reached are served from disk,
+ * in local env, last modified time is checked on every request to reload changed file, same as template
+ *
+ * @author neo
+ */
+final class StaticContentCache {
+    static final long MAX_MEMORY_SIZE = 32 * 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(StaticContentCache.class);
+    private final Map<Path, StaticContent> contents = new ConcurrentHashMap<>();
+    private final AtomicLong memorySize = new AtomicLong();
+    private final boolean localEnv;
+    private final long maxMemorySize;
+
+    StaticContentCache(boolean localEnv) {
+        this(localEnv, MAX_MEMORY_SIZE);
+    }
+
+    StaticContentCache(boolean localEnv, long maxMemorySize) {
+        this.localEnv = localEnv;
+        this.maxMemorySize = maxMemorySize;
+    }
+
+    // return null if file does not exist
+    StaticContent get(Path file) {
+        StaticContent content = contents.get(file);
+        if (content != null && !localEnv) return content;
+
+        if (!java.nio.file.Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            if (content != null) remove(file);
+            return null;
+        }
+        if (content == null || !Files.lastModified(file).equals(content.lastModified)) {
+            content = StaticContent.load(file, maxMemorySize - memorySize.get());
+            memorySize.addAndGet(content.memorySize());
+            StaticContent previous = contents.put(file, content);
+            if (previous != null) memorySize.addAndGet(-previous.memorySize());
+            logger.debug("cache static content, file={}, memorySize={}", file, memorySize.get());
+        }
+        return content;
+    }
+
+    long memorySize() {
+        return memorySize.get();
+    }
+
+    private void remove(Path file) {
+        StaticContent previous = contents.remove(file);
+        if (previous != null) memorySize.addAndGet(-previous.memorySize());
+    }
+}
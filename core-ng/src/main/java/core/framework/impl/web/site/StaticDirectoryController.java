@@ -1,6 +1,5 @@
 package core.framework.impl.web.site;
 
-import core.framework.api.http.ContentType;
 import core.framework.api.web.Controller;
 import core.framework.api.web.Request;
 import core.framework.api.web.Response;
@@ -8,9 +7,6 @@ import core.framework.api.web.exception.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.LinkOption;
 import java.nio.file.Path;
 
 /**
@@ -19,24 +15,21 @@ import java.nio.file.Path;
 public final class StaticDirectoryController implements Controller {
     private final Logger logger = LoggerFactory.getLogger(StaticDirectoryController.class);
     private final Path contentDirectory;
+    private final StaticContentCache cache;
 
-    public StaticDirectoryController(Path contentDirectory) {
-        this.contentDirectory = contentDirectory;
+    public StaticDirectoryController(Path contentDirectory, boolean localEnv) {
+        this.contentDirectory = contentDirectory.normalize();
+        cache = new StaticContentCache(localEnv);     // files are loaded on first request, not to read whole directory during configuration
     }
 
     @Override
     public Response execute(Request request) throws Exception {
         String path = request.pathParam("path");
-        Path filePath = contentDirectory.resolve(path);
+        Path filePath = contentDirectory.resolve(path).normalize();
         logger.debug("requestFile={}", filePath);
 
-        if (!Files.isRegularFile(filePath, LinkOption.NOFOLLOW_LINKS) || !filePath.startsWith(contentDirectory))
-            throw new NotFoundException("not found, path=" + request.path());
-
-        File file = filePath.toFile();
-        Response response = Response.file(file);
-        ContentType contentType = MimeTypes.get(file.getName());
-        if (contentType != null) response.contentType(contentType);
-        return response;
+        StaticContent content = filePath.startsWith(contentDirectory) ? cache.get(filePath) : null;
+        if (content == null) throw new NotFoundException("not found, path=" + request.path());
+        return content.response(request);
     }
 }
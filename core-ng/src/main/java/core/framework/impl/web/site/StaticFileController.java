@@ -1,13 +1,12 @@
 package core.framework.impl.web.site;
 
-import core.framework.api.http.ContentType;
 import core.framework.api.web.Controller;
 import core.framework.api.web.Request;
 import core.framework.api.web.Response;
+import core.framework.api.web.exception.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.nio.file.Path;
 
 /**
@@ -16,20 +15,19 @@ import java.nio.file.Path;
 public final class StaticFileController implements Controller {
     private final Logger logger = LoggerFactory.getLogger(StaticFileController.class);
     private final Path contentFile;
-    private final ContentType contentType;
+    private final StaticContentCache cache;
 
-    public StaticFileController(Path contentFile) {
+    public StaticFileController(Path contentFile, boolean localEnv) {
         this.contentFile = contentFile;
-        contentType = MimeTypes.get(contentFile.getFileName().toString());
+        cache = new StaticContentCache(localEnv);
     }
 
     @Override
     public Response execute(Request request) throws Exception {
         logger.debug("requestFile={}", contentFile);
 
-        File file = contentFile.toFile();
-        Response response = Response.file(file);
-        if (contentType != null) response.contentType(contentType);
-        return response;
+        StaticContent content = cache.get(contentFile);
+        if (content == null) throw new NotFoundException("not found, path=" + request.path());
+        return content.response(request);
     }
 }
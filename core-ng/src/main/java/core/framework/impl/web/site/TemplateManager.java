@@ -13,6 +13,7 @@ import core.framework.impl.template.source.FileTemplateSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Map;
@@ -27,18 +28,19 @@ public class TemplateManager {
     private final Logger logger = LoggerFactory.getLogger(TemplateManager.class);
     private final Map<String, Instant> templateLastModifiedTimes = Maps.newConcurrentHashMap();
     private final WebDirectory webDirectory;
+    public boolean compiled;
 
     public TemplateManager(WebDirectory webDirectory, MessageManager messageManager) {
         this.webDirectory = webDirectory;
         this.messageManager = messageManager;
     }
 
-    public String process(String templatePath, Object model, String language) {
+    public void process(String templatePath, Object model, String language, OutputStream stream) {
         StopWatch watch = new StopWatch();
         try {
             HTMLTemplate template = get(templatePath, model.getClass(), language);
             TemplateContext context = new TemplateContext(model, cdnManager);
-            return template.process(context);
+            template.process(context, stream);
         } finally {
             logger.debug("process, templatePath={}, elapsedTime={}", templatePath, watch.elapsedTime());
         }
@@ -81,6 +83,7 @@ public class TemplateManager {
     private Map<String, HTMLTemplate> load(String templatePath, Class<?> modelClass) {
         HTMLTemplateBuilder builder = new HTMLTemplateBuilder(new FileTemplateSource(webDirectory.root(), templatePath), modelClass);
         builder.cdn = cdnManager;
+        builder.compiled = compiled;
         Map<String, HTMLTemplate> templates = Maps.newHashMap();
         for (String language : messageManager.languages) {
             builder.message = key -> messageManager.get(key, language);
@@ -25,6 +25,16 @@ public class HTMLTemplateEngineTest {
         Assert.assertThat(html, CoreMatchers.containsString("<img src=http://domain/image.png>"));
     }
 
+    @Test
+    public void processCompiled() {
+        engine.compile();
+        engine.add("test", "<html><img c:src=\"imageURL\"></html>", TestModel.class);
+        TestModel model = new TestModel();
+        model.imageURL = "http://domain/image.png";
+        String html = engine.process("test", model);
+        Assert.assertThat(html, CoreMatchers.containsString("<img src=http://domain/image.png>"));
+    }
+
     public static class TestModel {
         public String imageURL;
     }
@@ -0,0 +1,113 @@
+package core.framework.impl.cache;
+
+import core.framework.api.cache.IncompatibleCacheValueException;
+import core.framework.api.util.Lists;
+import core.framework.api.util.Maps;
+import core.framework.api.util.Types;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author neo
+ */
+public class BinaryCacheCodecTest {
+    @Test
+    public void encodeAndDecode() {
+        BinaryCacheCodec<TestCacheValue> codec = new BinaryCacheCodec<>(TestCacheValue.class);
+        TestCacheValue value = new TestCacheValue();
+        value.stringField = "value";
+        value.intField = -1;
+        value.longField = Long.MAX_VALUE;
+        value.doubleField = 1.5;
+        value.booleanField = true;
+        value.decimalField = new BigDecimal("12.30");
+        value.dateField = LocalDate.of(2017, 3, 1);
+        value.dateTimeField = LocalDateTime.of(2017, 3, 1, 10, 30, 15, 100);
+        value.zonedDateTimeField = ZonedDateTime.of(value.dateTimeField, ZoneId.of("America/New_York"));
+        value.instantField = Instant.ofEpochSecond(100, 200);
+        value.enumField = TestEnum.B;
+        value.listField = Lists.newArrayList("a", null, "b");
+        value.mapField = Maps.newHashMap("key", "value");
+        value.child = new TestChildValue();
+        value.child.stringField = "child";
+
+        byte[] data = codec.encode(value);
+        TestCacheValue decodedValue = codec.decode(data, 0, data.length);
+
+        assertEquals(value.stringField, decodedValue.stringField);
+        assertEquals(value.intField, decodedValue.intField);
+        assertEquals(value.longField, decodedValue.longField);
+        assertEquals(value.doubleField, decodedValue.doubleField);
+        assertEquals(value.booleanField, decodedValue.booleanField);
+        assertEquals(value.decimalField, decodedValue.decimalField);
+        assertEquals(value.dateField, decodedValue.dateField);
+        assertEquals(value.dateTimeField, decodedValue.dateTimeField);
+        assertEquals(value.zonedDateTimeField, decodedValue.zonedDateTimeField);
+        assertEquals(value.instantField, decodedValue.instantField);
+        assertEquals(value.enumField, decodedValue.enumField);
+        assertEquals(value.listField, decodedValue.listField);
+        assertEquals(value.mapField, decodedValue.mapField);
+        assertEquals("child", decodedValue.child.stringField);
+        assertNull(decodedValue.child.intField);
+    }
+
+    @Test
+    public void encodeAndDecodeList() {
+        BinaryCacheCodec<List<String>> codec = new BinaryCacheCodec<>(Types.list(String.class));
+        byte[] data = codec.encode(Lists.newArrayList("1", "2"));
+
+        assertEquals(Lists.newArrayList("1", "2"), codec.decode(data, 0, data.length));
+    }
+
+    @Test(expected = IncompatibleCacheValueException.class)
+    public void decodeWithDifferentSchema() {
+        byte[] data = new BinaryCacheCodec<String>(String.class).encode("value");
+
+        new BinaryCacheCodec<TestCacheValue>(TestCacheValue.class).decode(data, 0, data.length);
+    }
+
+    @Test
+    public void encodeAndDecodeNull() {
+        BinaryCacheCodec<String> codec = new BinaryCacheCodec<>(String.class);
+        byte[] data = codec.encode(null);
+
+        assertNull(codec.decode(data, 0, data.length));
+    }
+
+    public enum TestEnum {
+        A, B
+    }
+
+    public static class TestCacheValue {
+        public String stringField;
+        public Integer intField;
+        public Long longField;
+        public Double doubleField;
+        public Boolean booleanField;
+        public BigDecimal decimalField;
+        public LocalDate dateField;
+        public LocalDateTime dateTimeField;
+        public ZonedDateTime zonedDateTimeField;
+        public Instant instantField;
+        public TestEnum enumField;
+        public List<String> listField;
+        public Map<String, String> mapField;
+        public TestChildValue child;
+    }
+
+    public static class TestChildValue {
+        public String stringField;
+        public Integer intField;
+    }
+}
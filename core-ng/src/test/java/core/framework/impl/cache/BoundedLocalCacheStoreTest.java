@@ -0,0 +1,93 @@
+package core.framework.impl.cache;
+
+import core.framework.api.util.Strings;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author neo
+ */
+public class BoundedLocalCacheStoreTest {
+    @Test
+    public void putAndDelete() {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(10, Long.MAX_VALUE);
+        cacheStore.put("name:key", Strings.bytes("1"), Duration.ofMinutes(1));
+        cacheStore.put("name:key", Strings.bytes("2"), Duration.ofMinutes(1));
+        assertArrayEquals(Strings.bytes("2"), cacheStore.get("name:key"));
+        assertEquals(1, cacheStore.size());
+
+        cacheStore.delete("name:key");
+        assertNull(cacheStore.get("name:key"));
+        assertEquals(0, cacheStore.size());
+    }
+
+    @Test
+    public void cleanup() {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(10, Long.MAX_VALUE);
+        cacheStore.put("name:key1", Strings.bytes("1"), Duration.ZERO);
+        cacheStore.put("name:key2", Strings.bytes("2"), Duration.ofMinutes(1));
+        cacheStore.cleanup();
+
+        assertEquals(1, cacheStore.size());
+        assertNotNull(cacheStore.get("name:key2"));
+    }
+
+    @Test
+    public void evictWithMaxSize() {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(10, Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            cacheStore.put("name:key" + i, Strings.bytes(String.valueOf(i)), Duration.ofMinutes(1));
+        }
+
+        assertEquals(10, cacheStore.size());
+        assertEquals(90, cacheStore.evictions("name"));
+    }
+
+    @Test
+    public void evictWithMaxMemory() {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(100, 1000);
+        for (int i = 0; i < 10; i++) {
+            cacheStore.put("name:key" + i, new byte[300], Duration.ofMinutes(1));
+        }
+
+        assertEquals(2, cacheStore.size());
+        assertEquals(8, cacheStore.evictions("name"));
+    }
+
+    @Test
+    public void keepFrequentlyUsedEntries() {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(50, Long.MAX_VALUE);
+        for (int i = 0; i < 50; i++) {
+            cacheStore.put("name:hot" + i, Strings.bytes(String.valueOf(i)), Duration.ofMinutes(1));
+            for (int j = 0; j < 5; j++) {
+                cacheStore.get("name:hot" + i);
+            }
+        }
+        for (int i = 0; i < 200; i++) {     // one time scan should not flush hot entries
+            cacheStore.get("name:cold" + i);
+            cacheStore.put("name:cold" + i, Strings.bytes(String.valueOf(i)), Duration.ofMinutes(1));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(cacheStore.get("name:hot" + i));
+        }
+    }
+
+    @Test
+    public void rejectIsNotEviction() {
+        BoundedLocalCacheStore cacheStore = new BoundedLocalCacheStore(1, Long.MAX_VALUE);
+        cacheStore.put("name:hot", Strings.bytes("1"), Duration.ofMinutes(1));
+        cacheStore.get("name:hot");
+
+        cacheStore.put("name:cold", Strings.bytes("2"), Duration.ofMinutes(1));     // rejected as less frequently used
+        assertNull(cacheStore.get("name:cold"));
+        assertNotNull(cacheStore.get("name:hot"));
+        assertEquals(0, cacheStore.evictions("name"));
+    }
+}
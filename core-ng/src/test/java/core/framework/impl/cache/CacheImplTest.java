@@ -9,10 +9,15 @@ import org.mockito.Mockito;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +42,31 @@ public class CacheImplTest {
         assertEquals(1, (int) value);
     }
 
+    @Test
+    public void getCachedNull() {
+        when(cacheStore.get("name:key")).thenReturn(Strings.bytes("null"));
+
+        assertNull(cache.get("key", key -> {
+            throw new Error("cached null should not be loaded");
+        }));
+        assertEquals(1, cache.hits.sum());
+    }
+
+    @Test
+    public void getWithIncompatibleValue() {
+        LocalCacheStore cacheStore = new LocalCacheStore();
+        CacheImpl<String> previousCache = new CacheImpl<>("name", String.class, Duration.ofHours(1), cacheStore);     // value class of previous version
+        previousCache.codec = new BinaryCacheCodec<>(String.class);
+        previousCache.jsonCodec = false;
+        previousCache.put("key", "value");
+
+        CacheImpl<Integer> cache = new CacheImpl<>("name", Integer.class, Duration.ofHours(1), cacheStore);
+        cache.codec = new BinaryCacheCodec<>(Integer.class);
+        cache.jsonCodec = false;
+        assertEquals(1, (int) cache.get("key", key -> 1));
+        assertEquals(1, cache.misses.sum());
+    }
+
     @Test
     public void getIfMiss() {
         when(cacheStore.get("name:key")).thenReturn(null);
@@ -69,4 +99,106 @@ public class CacheImplTest {
 
         verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && Arrays.equals(argument.get("name:key2"), Strings.bytes("2"))), eq(Duration.ofHours(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getWithNearCache() {
+        cache.nearCache = new NearCache<>(10, Duration.ofMinutes(1));
+        when(cacheStore.get("name:key")).thenReturn(Strings.bytes("1"));
+
+        assertEquals(1, (int) cache.get("key", key -> null));
+        assertEquals(1, (int) cache.get("key", key -> null));
+
+        verify(cacheStore, times(1)).get("name:key");
+    }
+
+    @Test
+    public void evictWithNearCache() {
+        cache.nearCache = new NearCache<>(10, Duration.ofMinutes(1));
+        cache.put("key", 1);
+        cache.evict("key");
+
+        verify(cacheStore).delete("name:key");
+        assertEquals(null, cache.nearCache.get("name:key"));
+    }
+
+    @Test
+    public void getWithSingleFlight() throws InterruptedException {
+        when(cacheStore.get("name:key")).thenReturn(null);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Integer> loader = key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return 1;
+        };
+
+        Thread thread1 = new Thread(() -> cache.get("key", loader));
+        thread1.start();
+        loading.await();
+        AtomicInteger result = new AtomicInteger();
+        Thread thread2 = new Thread(() -> result.set(cache.get("key", loader)));
+        thread2.start();
+        while (thread2.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        thread1.join();
+        thread2.join();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, result.get());
+    }
+
+    @Test
+    public void getWithStaleWhileRevalidate() {
+        CacheImpl<Integer> cache = new CacheImpl<>("name", Integer.class, Duration.ZERO, new LocalCacheStore());
+        cache.maxStale = Duration.ofHours(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, (int) cache.get("key", key -> loads.incrementAndGet()));
+        assertEquals(1, (int) cache.get("key", key -> loads.incrementAndGet()));     // return stale value and refresh
+        assertEquals(2, loads.get());
+        assertEquals(2, (int) cache.get("key", key -> loads.incrementAndGet()));
+        assertEquals("3", cache.get("key").get());   // refreshed again by last get
+    }
+
+    @Test
+    public void getWithBinaryCodecAndCompression() {
+        CacheImpl<Integer> cache = new CacheImpl<>("name", Integer.class, Duration.ofHours(1), new LocalCacheStore());
+        cache.codec = new BinaryCacheCodec<>(Integer.class);
+        cache.jsonCodec = false;
+        cache.compressionThreshold = 0;
+
+        cache.put("key", 1);
+        assertEquals(1, (int) cache.get("key", key -> null));
+        assertEquals("1", cache.get("key").get());
+    }
+
+    @Test
+    public void getWithTruncatedCompressedValue() {
+        LocalCacheStore cacheStore = new LocalCacheStore();
+        CacheImpl<String> cache = new CacheImpl<>("name", String.class, Duration.ofHours(1), cacheStore);
+        cache.compressionThreshold = 0;
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append("value");
+        }
+        cache.put("key", value.toString());
+        byte[] cacheValue = cacheStore.get("name:key");
+        cacheStore.put("name:key", Arrays.copyOf(cacheValue, cacheValue.length - 10), Duration.ofHours(1));     // truncated deflate payload
+
+        assertEquals("loaded", cache.get("key", key -> "loaded"));
+        assertEquals(1, cache.misses.sum());
+        assertEquals("\"loaded\"", cache.get("key").get());     // replaced by loaded value, get(key) returns json
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new Error(e);
+        }
+    }
+}
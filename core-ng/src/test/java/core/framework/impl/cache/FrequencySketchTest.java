@@ -0,0 +1,58 @@
+package core.framework.impl.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class FrequencySketchTest {
+    @Test
+    public void increment() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        assertEquals(0, sketch.frequency("key"));
+
+        sketch.increment("key");
+        sketch.increment("key");
+        assertEquals(2, sketch.frequency("key"));
+
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("key");
+        }
+        assertEquals(15, sketch.frequency("key"));
+    }
+
+    @Test
+    public void reset() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("key");
+        }
+        for (int i = 0; i < 160; i++) {
+            sketch.increment("other-key" + i);
+        }
+        assertTrue(sketch.frequency("key") < 10);
+    }
+
+    @Test
+    public void incrementConcurrently() throws InterruptedException {
+        FrequencySketch sketch = new FrequencySketch(1 << 20);     // large table to avoid reset
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    sketch.increment("key");
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(15, sketch.frequency("key"));
+        assertEquals(0, sketch.frequency("other-key"));    // counter never overflows into neighbour
+    }
+}
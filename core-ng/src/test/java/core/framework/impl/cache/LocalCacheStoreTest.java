@@ -1,10 +1,15 @@
 package core.framework.impl.cache;
 
+import core.framework.api.util.Strings;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 /**
@@ -24,4 +29,49 @@ public class LocalCacheStoreTest {
         assertNull(values.get("key1"));
         assertNull(values.get("key2"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void put() {
+        cacheStore.put("name:key", Strings.bytes("1"), Duration.ofMinutes(1));
+        assertArrayEquals(Strings.bytes("1"), cacheStore.get("name:key"));
+
+        cacheStore.put("name:key", Strings.bytes("2"), Duration.ofMinutes(1));
+        assertArrayEquals(Strings.bytes("2"), cacheStore.get("name:key"));
+        assertEquals(1, cacheStore.size());
+    }
+
+    @Test
+    public void getExpired() {
+        cacheStore.put("name:key", Strings.bytes("1"), Duration.ZERO);
+
+        assertNull(cacheStore.get("name:key"));
+        assertEquals(0, cacheStore.size());
+    }
+
+    @Test
+    public void delete() {
+        cacheStore.put("name:key", Strings.bytes("1"), Duration.ofMinutes(1));
+        cacheStore.delete("name:key");
+
+        assertNull(cacheStore.get("name:key"));
+    }
+
+    @Test
+    public void cleanup() {
+        cacheStore.put("name:key1", Strings.bytes("1"), Duration.ZERO);
+        cacheStore.put("name:key2", Strings.bytes("2"), Duration.ofMinutes(1));
+        cacheStore.cleanup();
+
+        assertEquals(1, cacheStore.size());
+        assertNotNull(cacheStore.get("name:key2"));
+    }
+
+    @Test
+    public void unbounded() {
+        for (int i = 0; i < 20000; i++) {
+            cacheStore.put("name:key" + i, Strings.bytes(String.valueOf(i)), Duration.ofMinutes(1));
+        }
+
+        assertEquals(20000, cacheStore.size());
+    }
+}
@@ -0,0 +1,54 @@
+package core.framework.impl.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author neo
+ */
+public class NearCacheTest {
+    private NearCache<String> nearCache;
+
+    @Before
+    public void createNearCache() {
+        nearCache = new NearCache<>(32, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void get() {
+        assertNull(nearCache.get("key"));
+
+        nearCache.put("key", "value");
+        assertEquals("value", nearCache.get("key"));
+    }
+
+    @Test
+    public void getExpired() {
+        NearCache<String> nearCache = new NearCache<>(32, Duration.ZERO);
+        nearCache.put("key", "value");
+
+        assertNull(nearCache.get("key"));
+        assertEquals(0, nearCache.size());
+    }
+
+    @Test
+    public void evict() {
+        nearCache.put("key", "value");
+        nearCache.evict("key");
+
+        assertNull(nearCache.get("key"));
+    }
+
+    @Test
+    public void maxSize() {
+        for (int i = 0; i < 1000; i++) {
+            nearCache.put("key" + i, "value" + i);
+        }
+        assertEquals(32, nearCache.size());
+    }
+}
@@ -0,0 +1,104 @@
+package core.framework.impl.kafka;
+
+import core.framework.impl.log.LogManager;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class KafkaMessagePublisherTest {
+    private KafkaMessagePublisher<TestMessage> publisher;
+    private MockProducer<String, byte[]> producer;
+    private LogManager logManager;
+
+    @Before
+    public void createKafkaMessagePublisher() {
+        producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        MessageValidator validator = new MessageValidator();
+        validator.register(TestMessage.class);
+        logManager = new LogManager();
+        publisher = new KafkaMessagePublisher<>(producer, validator, "topic", TestMessage.class, logManager, null);
+    }
+
+    @Test
+    public void message() {
+        logManager.begin("begin");
+        String refId = "ref\"id\\\n\t\u0001\u001f\u00e9\u4e2d\ud83d\ude00";   // quote, backslash, control chars, 2/3/4 bytes utf-8 chars
+        logManager.currentActionLog().refId(refId);
+        logManager.currentActionLog().trace = true;
+        TestMessage value = new TestMessage();
+        value.stringField = "value";
+        byte[] message = publisher.message(value);
+        logManager.end("end");
+        assertEquals('}', message[message.length - 1]);     // message array is sized exactly
+
+        KafkaMessage<TestMessage> kafkaMessage = new KafkaMessageReader<>(TestMessage.class, null).read(message);
+        assertEquals("value", kafkaMessage.value.stringField);
+        assertEquals(refId, kafkaMessage.headers.get(KafkaMessage.HEADER_REF_ID));
+        assertEquals("true", kafkaMessage.headers.get(KafkaMessage.HEADER_TRACE));
+        assertNotNull(kafkaMessage.headers.get(KafkaMessage.HEADER_CLIENT_IP));
+    }
+
+    @Test
+    public void messageWithoutActionLog() {
+        TestMessage value = new TestMessage();
+        value.stringField = "value";
+        byte[] message = publisher.message(value);
+
+        KafkaMessage<TestMessage> kafkaMessage = new KafkaMessageReader<>(TestMessage.class, null).read(message);
+        assertEquals("value", kafkaMessage.value.stringField);
+        assertNull(kafkaMessage.headers.get(KafkaMessage.HEADER_REF_ID));
+        assertNotNull(kafkaMessage.headers.get(KafkaMessage.HEADER_CLIENT_IP));
+    }
+
+    @Test
+    public void binaryMessage() {
+        MessageValidator validator = new MessageValidator();
+        validator.register(TestMessage.class);
+        JSONMessageCodec<TestMessage> codec = new JSONMessageCodec<>(TestMessage.class);
+        KafkaMessagePublisher<TestMessage> publisher = new KafkaMessagePublisher<>(producer, validator, "topic", TestMessage.class, logManager, codec);
+
+        logManager.begin("begin");
+        TestMessage value = new TestMessage();
+        value.stringField = "value";
+        byte[] message = publisher.message(value);
+        String refId = logManager.currentActionLog().refId();
+        logManager.end("end");
+
+        KafkaMessage<TestMessage> kafkaMessage = new KafkaMessageReader<>(TestMessage.class, codec).read(message);
+        assertEquals("value", kafkaMessage.value.stringField);
+        assertEquals(refId, kafkaMessage.headers.get(KafkaMessage.HEADER_REF_ID));
+        assertNotNull(kafkaMessage.headers.get(KafkaMessage.HEADER_CLIENT_IP));
+    }
+
+    @Test
+    public void publishAsync() {
+        TestMessage value = new TestMessage();
+        value.stringField = "value";
+        CompletableFuture<Void> future = publisher.publishAsync("key", value);
+        producer.completeNext();
+
+        assertTrue(future.isDone());
+        assertEquals("key", producer.history().get(0).key());
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class TestMessage {
+        @XmlElement(name = "string_field")
+        public String stringField;
+    }
+}
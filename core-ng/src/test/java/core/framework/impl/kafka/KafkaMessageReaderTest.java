@@ -0,0 +1,66 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.util.Charsets;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author neo
+ */
+public class KafkaMessageReaderTest {
+    private KafkaMessageReader<KafkaMessagePublisherTest.TestMessage> reader;
+    private JSONMessageCodec<KafkaMessagePublisherTest.TestMessage> codec;
+
+    @Before
+    public void createKafkaMessageReader() {
+        codec = new JSONMessageCodec<>(KafkaMessagePublisherTest.TestMessage.class);
+        reader = new KafkaMessageReader<>(KafkaMessagePublisherTest.TestMessage.class, codec);
+    }
+
+    @Test
+    public void readJSONEnvelope() {
+        byte[] message = "{\"headers\":{\"refId\":\"id\"},\"value\":{\"string_field\":\"value\"}}".getBytes(Charsets.UTF_8);
+        assertFalse(BinaryMessageEnvelope.isBinary(message));
+
+        KafkaMessage<KafkaMessagePublisherTest.TestMessage> kafkaMessage = reader.read(message);
+        assertEquals("id", kafkaMessage.headers.get("refId"));
+        assertEquals("value", kafkaMessage.value.stringField);
+    }
+
+    @Test
+    public void readBinaryEnvelope() {
+        KafkaMessagePublisherTest.TestMessage value = new KafkaMessagePublisherTest.TestMessage();
+        value.stringField = "value";
+        byte[] message = BinaryMessageEnvelope.encode(codec.encode(value), BinaryMessageEnvelope.header("refId", "id"), null, BinaryMessageEnvelope.header("client", "客户"));
+        assertTrue(BinaryMessageEnvelope.isBinary(message));
+
+        Map<String, String> headers = BinaryMessageEnvelope.headers(message);
+        assertEquals(2, headers.size());
+        assertEquals("客户", headers.get("client"));
+
+        KafkaMessage<KafkaMessagePublisherTest.TestMessage> kafkaMessage = reader.read(message);
+        assertEquals("id", kafkaMessage.headers.get("refId"));
+        assertEquals("value", kafkaMessage.value.stringField);
+    }
+
+    @Test
+    public void readTruncatedBinaryEnvelope() {
+        byte[] message = BinaryMessageEnvelope.encode(new byte[0], BinaryMessageEnvelope.header("refId", "id"));
+        for (int length = 1; length < message.length; length++) {
+            try {
+                reader.read(Arrays.copyOf(message, length));
+                fail("truncated message should fail, length=" + length);
+            } catch (Error e) {
+                assertTrue(e.getMessage().startsWith("invalid message envelope"));
+            }
+        }
+    }
+}
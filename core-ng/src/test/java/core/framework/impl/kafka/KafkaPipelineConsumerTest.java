@@ -0,0 +1,229 @@
+package core.framework.impl.kafka;
+
+import core.framework.api.util.Charsets;
+import core.framework.api.util.JSON;
+import core.framework.api.util.Lists;
+import core.framework.api.util.Maps;
+import core.framework.impl.async.ThreadPools;
+import core.framework.impl.log.LogManager;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author neo
+ */
+public class KafkaPipelineConsumerTest {
+    private static final TopicPartition PARTITION = new TopicPartition("topic", 0);
+
+    private KafkaMessageListener listener;
+    private final CountDownLatch blocked = new CountDownLatch(1);     // records with key "blocked" wait until released
+    private List<String> messages;     // key:value
+    private ExecutorService workers;
+
+    @Before
+    public void createListener() {
+        Kafka kafka = new Kafka(null, new LogManager());
+        kafka.validator.register(TestMessage.class);
+        listener = kafka.listener();
+        messages = Collections.synchronizedList(Lists.newArrayList());
+        listener.subscribe("topic", TestMessage.class, (key, message) -> {
+            if ("slow".equals(key)) Thread.sleep(10);
+            if ("blocked".equals(key)) blocked.await();
+            messages.add(key + ":" + message.value);
+        }, null);
+        workers = ThreadPools.fixedThreadPool(2, "kafka-worker-");
+    }
+
+    @After
+    public void shutdownWorkers() {
+        blocked.countDown();
+        workers.shutdown();
+    }
+
+    @Test
+    public void processInOrder() throws InterruptedException {
+        MockConsumer<String, byte[]> consumer = consumer();
+        List<String> expectedMessages = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            consumer.addRecord(new ConsumerRecord<>("topic", 0, i, "key", message(String.valueOf(i))));
+            expectedMessages.add("key:" + i);
+        }
+
+        run(consumer, 5, 1);
+
+        assertEquals(expectedMessages, messages);
+        assertEquals(20, consumer.committed(PARTITION).offset());
+    }
+
+    @Test
+    public void processInOrderByKey() throws InterruptedException {
+        MockConsumer<String, byte[]> consumer = consumer();
+        List<String> expectedSlowMessages = Lists.newArrayList();
+        List<String> expectedFastMessages = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            String key = i % 2 == 0 ? "slow" : "fast";
+            consumer.addRecord(new ConsumerRecord<>("topic", 0, i, key, message(String.valueOf(i))));
+            if (i % 2 == 0) expectedSlowMessages.add(key + ":" + i);
+            else expectedFastMessages.add(key + ":" + i);
+        }
+
+        run(consumer, 100, 2);
+
+        assertEquals(expectedSlowMessages, messages("slow"));
+        assertEquals(expectedFastMessages, messages("fast"));
+        assertEquals(20, consumer.committed(PARTITION).offset());
+    }
+
+    @Test
+    public void processWithError() throws InterruptedException {
+        KafkaMessageListener listener = mock(KafkaMessageListener.class);
+        doThrow(new Error("failed to handle")).when(listener).handle(anyString(), anyList());
+        MockConsumer<String, byte[]> consumer = consumer();
+        for (int i = 0; i < 3; i++) {
+            consumer.addRecord(new ConsumerRecord<>("topic", 0, i, "key", message(String.valueOf(i))));
+        }
+
+        run(consumer, listener, 2, 1, () -> committedOffset(consumer) == 3);
+
+        assertEquals(3, committedOffset(consumer));    // failed records are skipped, partition is not stalled
+    }
+
+    @Test
+    public void pauseAndResume() throws InterruptedException {
+        MockConsumer<String, byte[]> consumer = consumer();
+        for (int i = 0; i < 10; i++) {
+            consumer.addRecord(new ConsumerRecord<>("topic", 0, i, "blocked", message(String.valueOf(i))));
+        }
+        AtomicBoolean paused = new AtomicBoolean(false);
+
+        run(consumer, listener, 4, 1, () -> {
+            if (consumer.paused().contains(PARTITION)) {     // pending records reach max, release handler to drain
+                paused.set(true);
+                blocked.countDown();
+            }
+            return paused.get() && consumer.paused().isEmpty() && messages.size() >= 10;
+        });
+
+        assertTrue(paused.get());
+        assertTrue(consumer.paused().isEmpty());    // resumed once drained to half
+        assertEquals(10, messages.size());
+        assertEquals(10, committedOffset(consumer));
+    }
+
+    @Test
+    public void commitProcessedOffsetsOnStop() throws InterruptedException {
+        MockConsumer<String, byte[]> consumer = consumer();
+        consumer.addRecord(new ConsumerRecord<>("topic", 0, 0, "key", message("0")));
+        consumer.addRecord(new ConsumerRecord<>("topic", 0, 1, "blocked", message("1")));
+        for (int i = 2; i < 5; i++) {
+            consumer.addRecord(new ConsumerRecord<>("topic", 0, i, "key", message(String.valueOf(i))));
+        }
+        AtomicBoolean stop = new AtomicBoolean(false);
+        KafkaPipelineConsumer pipeline = new KafkaPipelineConsumer(listener, workers, stop, 100, 1);
+        Thread thread = new Thread(() -> pipeline.run(consumer));
+        thread.start();
+
+        waitUntil(() -> committedOffset(consumer) == 1);   // committed while polling, blocked record is not processed yet
+        stop.set(true);
+        blocked.countDown();    // in flight record completes after stop
+        thread.join();
+
+        assertEquals(Lists.newArrayList("key:0", "blocked:1"), messages);  // pending records are discarded, and will be redelivered from committed offset
+        assertEquals(2, committedOffset(consumer));
+    }
+
+    @Test
+    public void processedOffset() {
+        KafkaPipelineConsumer.PartitionQueue queue = new KafkaPipelineConsumer.PartitionQueue(PARTITION, 2);
+        queue.add(new ConsumerRecord<>("topic", 0, 0, "key1", null));
+        queue.add(new ConsumerRecord<>("topic", 0, 1, "key2", null));
+        queue.add(new ConsumerRecord<>("topic", 0, 2, "key1", null));
+
+        List<KafkaPipelineConsumer.PendingRecord> key2Records = queue.lanes[queue.lane(new ConsumerRecord<>("topic", 0, 1, "key2", null))].poll(10);
+        key2Records.get(0).processed = true;
+        assertEquals(-1, queue.processedOffset());     // first record is not processed
+
+        List<KafkaPipelineConsumer.PendingRecord> key1Records = queue.lanes[queue.lane(new ConsumerRecord<>("topic", 0, 0, "key1", null))].poll(1);
+        key1Records.get(0).processed = true;
+        assertEquals(2, queue.processedOffset());
+    }
+
+    private MockConsumer<String, byte[]> consumer() {
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(Lists.newArrayList(PARTITION));
+        Map<TopicPartition, Long> beginningOffsets = Maps.newHashMap();
+        beginningOffsets.put(PARTITION, 0L);
+        consumer.updateBeginningOffsets(beginningOffsets);
+        return consumer;
+    }
+
+    private void run(MockConsumer<String, byte[]> consumer, int maxPendingRecords, int keyConcurrency) throws InterruptedException {
+        run(consumer, listener, maxPendingRecords, keyConcurrency, () -> messages.size() >= 20);
+    }
+
+    private void run(MockConsumer<String, byte[]> consumer, KafkaMessageListener listener, int maxPendingRecords, int keyConcurrency, BooleanSupplier completed) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean(false);
+        KafkaPipelineConsumer pipeline = new KafkaPipelineConsumer(listener, workers, stop, maxPendingRecords, keyConcurrency);
+        Thread thread = new Thread(() -> pipeline.run(consumer));
+        thread.start();
+        waitUntil(completed);
+        stop.set(true);
+        thread.join();
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private long committedOffset(MockConsumer<String, byte[]> consumer) {
+        OffsetAndMetadata offset = consumer.committed(PARTITION);
+        return offset == null ? -1 : offset.offset();
+    }
+
+    private List<String> messages(String key) {
+        synchronized (messages) {
+            return messages.stream().filter(message -> message.startsWith(key + ":")).collect(Collectors.toList());
+        }
+    }
+
+    private byte[] message(String value) {
+        KafkaMessage<TestMessage> message = new KafkaMessage<>();
+        message.headers = Maps.newHashMap();
+        message.value = new TestMessage();
+        message.value.value = value;
+        return JSON.toJSON(message).getBytes(Charsets.UTF_8);
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class TestMessage {
+        @XmlElement(name = "value")
+        public String value;
+    }
+}
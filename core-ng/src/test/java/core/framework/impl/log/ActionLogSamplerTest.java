@@ -0,0 +1,59 @@
+package core.framework.impl.log;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class ActionLogSamplerTest {
+    private ActionLogSampler sampler;
+
+    @Before
+    public void createActionLogSampler() {
+        sampler = new ActionLogSampler();
+        sampler.rate(0, Duration.ofSeconds(1));
+        sampler.rate("api:get:/user", 1);
+    }
+
+    @Test
+    public void keepAtLeastOnePerSecond() {
+        assertTrue(sampler.keep(actionLog("api:get:/health-check", 0)));
+        assertFalse(sampler.keep(actionLog("api:get:/health-check", 0)));
+        assertEquals(1, sampler.skipped.sum());
+    }
+
+    @Test
+    public void keepByActionRate() {
+        assertTrue(sampler.keep(actionLog("api:get:/user", 0)));
+        assertTrue(sampler.keep(actionLog("api:get:/user", 0)));
+    }
+
+    @Test
+    public void keepSlowAction() {
+        sampler.keep(actionLog("api:get:/health-check", 0));
+        assertTrue(sampler.keep(actionLog("api:get:/health-check", Duration.ofSeconds(2).toNanos())));
+    }
+
+    @Test
+    public void keepWarning() {
+        sampler.keep(actionLog("api:get:/health-check", 0));
+        ActionLog log = actionLog("api:get:/health-check", 0);
+        log.process("logger", null, LogLevel.WARN, "warning", null, null);
+        assertTrue(sampler.keep(log));
+    }
+
+    private ActionLog actionLog(String action, long elapsed) {
+        ActionLog log = new ActionLog("begin");
+        log.action(action);
+        log.end("end");
+        log.elapsed = elapsed;
+        return log;
+    }
+}
@@ -0,0 +1,35 @@
+package core.framework.impl.log;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class ActionLogTest {
+    @Test
+    public void endWithoutTrace() {
+        ActionLog log = new ActionLog("begin");
+        log.process("logger", null, LogLevel.DEBUG, "message-{}", new Object[]{1}, null);
+        log.end("end");
+
+        assertFalse(log.flushTraceLog());
+        assertTrue(log.events.isEmpty());
+    }
+
+    @Test
+    public void endWithWarning() {
+        ActionLog log = new ActionLog("begin");
+        log.process("logger", null, LogLevel.DEBUG, "message-{}", new Object[]{1}, null);
+        log.process("logger", null, LogLevel.WARN, "warning-{}", new Object[]{2}, null);
+        log.end("end");
+
+        assertTrue(log.flushTraceLog());
+        assertEquals("warning-2", log.errorMessage);
+        assertEquals(6, log.events.size());     // begin, id, debug, warn, elapsed, end
+        assertEquals("message-1", log.events.get(2).message());
+    }
+}
@@ -0,0 +1,52 @@
+package core.framework.impl.log;
+
+import core.framework.api.util.Maps;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class ActionMetricsTest {
+    private ActionMetrics metrics;
+
+    @Before
+    public void createActionMetrics() {
+        metrics = new ActionMetrics();
+    }
+
+    @Test
+    public void statName() {
+        assertEquals("api_get__user__id", ActionMetrics.statName("api:get:/user/:id"));
+    }
+
+    @Test
+    public void collect() {
+        for (int i = 1; i <= 100; i++) {
+            ActionLog log = new ActionLog("begin");
+            log.action("api:get:/user");
+            log.track("db", 10);
+            log.track("db", 10);
+            log.end("end");
+            log.elapsed = i;
+            metrics.record(log);
+        }
+
+        Map<String, Double> stats = Maps.newHashMap();
+        metrics.collect(stats);
+        assertEquals(100, stats.get("action_api_get__user_count"), 0);
+        assertEquals(50, stats.get("action_api_get__user_elapsed_p50"), 3);
+        assertEquals(100, stats.get("action_api_get__user_elapsed_max"), 0);
+        assertEquals(2, stats.get("action_api_get__user_db_count_max"), 0);
+        assertEquals(20, stats.get("action_api_get__user_db_elapsed_p99"), 0);
+
+        stats.clear();
+        metrics.collect(stats);
+        assertTrue(stats.isEmpty());
+    }
+}
@@ -0,0 +1,39 @@
+package core.framework.impl.log;
+
+import core.framework.api.util.Maps;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author neo
+ */
+public class AsyncLogWriterTest {
+    @Test
+    public void dropIfQueueIsFull() {
+        AsyncLogWriter writer = new AsyncLogWriter(1);
+        writer.add(new ActionLog("begin"));
+        writer.add(new ActionLog("begin"));
+
+        Map<String, Double> stats = Maps.newHashMap();
+        writer.collect(stats);
+        assertEquals(1, stats.get("log_writer_queue_size"), 0);
+        assertEquals(1, stats.get("log_writer_dropped_count"), 0);
+    }
+
+    @Test
+    public void writeRemainingLogsOnStop() {
+        AsyncLogWriter writer = new AsyncLogWriter(10);
+        ActionLog log = new ActionLog("begin");
+        log.end("end");
+        writer.add(log);
+        writer.start(ActionLogger.console(), new TraceLogger(null));
+        writer.stop();
+
+        Map<String, Double> stats = Maps.newHashMap();
+        writer.collect(stats);
+        assertEquals(0, stats.get("log_writer_queue_size"), 0);
+    }
+}
@@ -0,0 +1,30 @@
+package core.framework.impl.log;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class IdGeneratorTest {
+    @Test
+    public void next() {
+        String id1 = IdGenerator.next(1488357015123L);
+        String id2 = IdGenerator.next(1488357015124L);
+
+        assertEquals(28, id1.length());
+        assertEquals(String.format("%012x", 1488357015123L), id1.substring(0, 12));  // first 48 bits are time
+        assertEquals(id1.substring(18), id2.substring(18));      // same node
+        assertTrue(id1.compareTo(id2) < 0);
+    }
+
+    @Test
+    public void nextWithinSameMillisecond() {
+        String id1 = IdGenerator.next(1488357015123L);
+        String id2 = IdGenerator.next(1488357015123L);
+        assertNotEquals(id1, id2);
+    }
+}
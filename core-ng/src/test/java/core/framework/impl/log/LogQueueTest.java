@@ -0,0 +1,51 @@
+package core.framework.impl.log;
+
+import core.framework.api.log.OverflowPolicy;
+import core.framework.api.util.Lists;
+import core.framework.impl.log.queue.ActionLogMessage;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class LogQueueTest {
+    @Test
+    public void dropOldest() throws InterruptedException {
+        LogQueue queue = new LogQueue(2, OverflowPolicy.DROP_OLDEST);
+        queue.add("1");
+        queue.add("2");
+        queue.add("3");
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.dropped.sum());
+        assertEquals("2", queue.take());
+    }
+
+    @Test
+    public void sample() {
+        LogQueue queue = new LogQueue(100, OverflowPolicy.SAMPLE);
+        for (int i = 0; i < 50; i++) {
+            queue.add(message("OK"));
+        }
+        for (int i = 0; i < 100; i++) {
+            queue.add(message("OK"));
+        }
+        assertTrue(queue.size() < 100);
+
+        queue.add(message("WARN"));
+        List<Object> messages = Lists.newArrayList();
+        queue.drainTo(messages, 100);
+        assertEquals("WARN", ((ActionLogMessage) messages.get(messages.size() - 1)).result);
+    }
+
+    private ActionLogMessage message(String result) {
+        ActionLogMessage message = new ActionLogMessage();
+        message.result = result;
+        return message;
+    }
+}
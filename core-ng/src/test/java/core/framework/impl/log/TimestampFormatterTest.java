@@ -0,0 +1,27 @@
+package core.framework.impl.log;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author neo
+ */
+public class TimestampFormatterTest {
+    @Test
+    public void format() {
+        long time = Instant.parse("2017-03-01T08:30:15.123Z").toEpochMilli();
+        assertEquals(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(time)), TimestampFormatter.format(time));
+        assertEquals("2017-03-01T08:30:15.124Z", TimestampFormatter.format(time + 1));
+        assertEquals("2017-03-01T08:30:16.005Z", TimestampFormatter.format(time + 882));
+        assertEquals("2017-03-01T08:30:15.000Z", TimestampFormatter.format(time - 123));
+    }
+
+    @Test
+    public void formatBeforeEpoch() {
+        assertEquals("1969-12-31T23:59:59.999Z", TimestampFormatter.format(-1));
+    }
+}
@@ -0,0 +1,46 @@
+package core.framework.impl.log;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author neo
+ */
+public class TraceBufferTest {
+    @Test
+    public void acquire() throws InterruptedException {
+        TraceBuffer[] buffers = new TraceBuffer[3];
+        Thread thread = new Thread(() -> {     // use new thread to start with empty pooled buffer
+            buffers[0] = TraceBuffer.acquire();
+            buffers[1] = TraceBuffer.acquire();
+            buffers[1].release();
+            buffers[0].release();
+            buffers[2] = TraceBuffer.acquire();
+            buffers[2].release();
+        });
+        thread.start();
+        thread.join();
+
+        assertNotSame(buffers[0], buffers[1]);
+        assertSame(buffers[0], buffers[2]);
+    }
+
+    @Test
+    public void events() {
+        TraceBuffer buffer = TraceBuffer.acquire();
+        for (int i = 0; i < 100; i++) {
+            buffer.add("logger", null, LogLevel.DEBUG, "message-{}", new Object[]{i}, null);
+        }
+        List<LogEvent> events = buffer.events("thread", null);
+        assertEquals(100, events.size());
+        assertEquals("message-99", events.get(99).message());
+
+        buffer.release();
+        assertEquals(0, buffer.size);
+    }
+}
@@ -0,0 +1,45 @@
+package core.framework.impl.log.stat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author neo
+ */
+public class HistogramTest {
+    @Test
+    public void bucket() {
+        assertEquals(0, Histogram.bucket(0));
+        assertEquals(15, Histogram.bucket(15));
+        assertEquals(16, Histogram.bucket(16));
+        assertEquals(32, Histogram.bucket(32));
+        assertEquals(32, Histogram.bucket(33));
+        assertEquals(959, Histogram.bucket(Long.MAX_VALUE));
+
+        assertEquals(15, Histogram.bucketUpperBound(15));
+        assertEquals(33, Histogram.bucketUpperBound(32));
+        assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(959));
+    }
+
+    @Test
+    public void snapshot() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count);
+        assertEquals(1000000, snapshot.max);
+        long p50 = snapshot.percentile(50);
+        assertTrue(p50 >= 500000 && p50 <= 500000 * 1.0625);
+        long p99 = snapshot.percentile(99);
+        assertTrue(p99 >= 990000 && p99 <= 1000000);
+
+        Histogram.Snapshot emptySnapshot = histogram.snapshot();
+        assertEquals(0, emptySnapshot.count);
+        assertEquals(0, emptySnapshot.percentile(99));
+    }
+}
@@ -0,0 +1,75 @@
+package core.framework.impl.queue;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author neo
+ */
+public class RabbitMQConsumerTest {
+    RabbitMQConsumer consumer;
+    Channel channel;
+
+    @Before
+    public void createRabbitMQConsumer() {
+        channel = mock(Channel.class);
+        consumer = new RabbitMQConsumer(channel, "queue", 8, Long.MAX_VALUE, (consumer, deliveryTag, properties, body) -> {
+        });
+    }
+
+    @Test
+    public void acknowledgeInBatch() throws IOException {
+        for (long tag = 1; tag <= 4; tag++) {
+            deliver(tag);
+        }
+
+        consumer.acknowledge(2);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());     // previous delivery is not handled
+
+        consumer.acknowledge(1);
+        verify(channel).basicAck(2, true);      // batch size is 8 / 4
+
+        consumer.acknowledge(3);
+        verify(channel, never()).basicAck(3, true);
+
+        consumer.acknowledge(4);
+        verify(channel).basicAck(4, true);      // no more in flight delivery
+    }
+
+    @Test
+    public void acknowledgeWhenNoInFlightDelivery() throws IOException {
+        deliver(1);
+        consumer.acknowledge(1);
+        verify(channel).basicAck(1, true);
+    }
+
+    @Test
+    public void rejectDoesNotBlockLaterAcknowledge() throws IOException {
+        for (long tag = 1; tag <= 3; tag++) {
+            deliver(tag);
+        }
+
+        consumer.reject(2);
+        verify(channel).basicReject(2, true);
+
+        consumer.acknowledge(1);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        consumer.acknowledge(3);
+        verify(channel).basicAck(3, true);      // rejected delivery is requeued, and removed from in flight deliveries
+    }
+
+    private void deliver(long deliveryTag) {
+        consumer.handleDelivery("consumer", new Envelope(deliveryTag, false, "", "queue"), null, null);
+    }
+}
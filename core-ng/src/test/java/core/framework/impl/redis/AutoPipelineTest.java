@@ -0,0 +1,145 @@
+package core.framework.impl.redis;
+
+import core.framework.api.util.Lists;
+import core.framework.impl.async.ThreadPools;
+import core.framework.impl.resource.Pool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import redis.clients.jedis.BinaryJedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+public class AutoPipelineTest {
+    private RedisImpl redis;
+    private Pool<BinaryJedis> pool;
+    private BinaryJedis jedis;
+    private Pipeline pipeline;
+    private AutoPipeline autoPipeline;
+    private List<String> sentValues;
+
+    @Before
+    public void createAutoPipeline() {
+        jedis = mock(BinaryJedis.class);
+        pipeline = mock(Pipeline.class);
+        when(jedis.pipelined()).thenReturn(pipeline);
+        redis = new RedisImpl();
+        pool = new Pool<>(() -> jedis, BinaryJedis::close);
+        autoPipeline = new AutoPipeline(redis, pool, 1, 10);
+        sentValues = Collections.synchronizedList(Lists.newArrayList());
+    }
+
+    @After
+    public void stopAutoPipeline() {
+        autoPipeline.stop();
+    }
+
+    @Test
+    public void batch() throws Exception {
+        ExecutorService executor = ThreadPools.fixedThreadPool(3, "redis-test-");
+        try {
+            List<Future<String>> results = Lists.newArrayList();
+            for (int i = 0; i < 3; i++) {
+                String value = "value" + i;
+                results.add(executor.submit(() -> autoPipeline.execute("get", value, command(value))));
+            }
+            waitUntilQueued(autoPipeline, 3);
+            autoPipeline.start();
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals("value" + i, results.get(i).get());
+            }
+            assertEquals(3, sentValues.size());
+            verify(jedis, times(1)).pipelined();    // all queued commands are sent in one pipeline
+            verify(pipeline, times(1)).sync();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void dropTimedOutCommand() {
+        redis.timeout(Duration.ofMillis(10));
+        try {
+            autoPipeline.execute("set", "key1", command("value1"));
+            fail("command should time out");
+        } catch (JedisConnectionException e) {
+            assertTrue(e.getMessage().contains("dropped"));
+        }
+
+        redis.timeout(Duration.ofSeconds(5));
+        autoPipeline.start();
+        assertEquals("value2", autoPipeline.execute("get", "key2", command("value2")));
+        assertEquals(Lists.newArrayList("value2"), sentValues);   // timed out command is never sent
+    }
+
+    @Test
+    public void failFastIfQueueIsFull() {
+        autoPipeline = new AutoPipeline(redis, pool, 1, 1);
+        redis.timeout(Duration.ofMillis(10));
+        try {
+            autoPipeline.execute("set", "key1", command("value1"));
+            fail("command should time out");
+        } catch (JedisConnectionException e) {
+            assertTrue(e.getMessage().contains("dropped"));
+        }
+
+        try {
+            autoPipeline.execute("set", "key2", command("value2"));
+            fail("queue should be full");
+        } catch (JedisConnectionException e) {
+            assertTrue(e.getMessage().startsWith("redis pipeline queue is full"));
+        }
+    }
+
+    @Test
+    public void connectionFailure() {
+        doThrow(new JedisConnectionException("connection reset")).when(pipeline).sync();
+        autoPipeline.start();
+
+        try {
+            autoPipeline.execute("get", "key", command("value"));
+            fail("connection failure should be thrown");
+        } catch (JedisConnectionException e) {
+            assertEquals("connection reset", e.getMessage());
+        }
+        verify(jedis, timeout(1000)).close();   // broken connection is closed and removed from pool
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function<Pipeline, Response<String>> command(String value) {
+        return pipeline -> {
+            sentValues.add(value);
+            Response<String> response = mock(Response.class);
+            when(response.get()).thenReturn(value);
+            return response;
+        };
+    }
+
+    private void waitUntilQueued(AutoPipeline autoPipeline, int commands) throws InterruptedException {
+        while (autoPipeline.queue.size() < commands) {
+            Thread.sleep(1);
+        }
+    }
+}
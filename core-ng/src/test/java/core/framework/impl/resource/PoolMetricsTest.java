@@ -0,0 +1,52 @@
+package core.framework.impl.resource;
+
+import core.framework.api.util.Maps;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author neo
+ */
+public class PoolMetricsTest {
+    @Test
+    public void collect() {
+        Pool<PoolTest.TestResource> pool = new Pool<>(PoolTest.TestResource::new, PoolTest.TestResource::close);
+        pool.name("redis-cache");
+        PoolItem<PoolTest.TestResource> item1 = pool.borrowItem();
+        PoolItem<PoolTest.TestResource> item2 = pool.borrowItem();
+        pool.returnItem(item1);
+        item2.broken = true;
+        pool.returnItem(item2);
+        pool.borrowItem();
+
+        Map<String, Double> stats = Maps.newLinkedHashMap();
+        pool.metrics.collect(stats);
+
+        assertEquals(1, stats.get("pool_redis_cache_total"), 0);
+        assertEquals(1, stats.get("pool_redis_cache_active"), 0);
+        assertEquals(0, stats.get("pool_redis_cache_idle"), 0);
+        assertEquals(2, stats.get("pool_redis_cache_create_count"), 0);
+        assertEquals(1, stats.get("pool_redis_cache_broken_count"), 0);
+        assertEquals(0, stats.get("pool_redis_cache_wait_count"), 0);
+    }
+
+    @Test
+    public void collectDuringValidation() {
+        Pool<PoolTest.TestResource> pool = new Pool<>(PoolTest.TestResource::new, PoolTest.TestResource::close);
+        pool.name("db");
+        Map<String, Double> stats = Maps.newLinkedHashMap();
+        pool.validator(resource -> {
+            pool.metrics.collect(stats);
+            return true;
+        });
+        pool.returnItem(pool.borrowItem());
+        pool.refresh();
+
+        assertEquals(1, stats.get("pool_db_total"), 0);
+        assertEquals(0, stats.get("pool_db_active"), 0);
+        assertEquals(1, stats.get("pool_db_idle"), 0);
+    }
+}
@@ -3,6 +3,8 @@ package core.framework.impl.resource;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
+
 /**
  * @author neo
  */
@@ -15,8 +17,88 @@ public class PoolTest {
         Assert.assertNotNull(item.resource);
         pool.returnItem(item);
 
-        Assert.assertEquals(1, pool.idleItems.size());
-        Assert.assertNotNull(pool.idleItems.getFirst().returnTime);
+        Assert.assertEquals(1, pool.items.size());
+        Assert.assertEquals(PoolItem.STATE_IDLE, item.state.get());
+        Assert.assertTrue(item.returnTime > 0);
+
+        PoolItem<TestResource> borrowedItem = pool.borrowItem();
+        Assert.assertSame(item, borrowedItem);
+        Assert.assertEquals(PoolItem.STATE_IN_USE, borrowedItem.state.get());
+    }
+
+    @Test
+    public void borrowBrokenItem() {
+        Pool<TestResource> pool = new Pool<>(TestResource::new, TestResource::close);
+
+        PoolItem<TestResource> item = pool.borrowItem();
+        item.broken = true;
+        pool.returnItem(item);
+
+        Assert.assertTrue(item.resource.closed);
+        Assert.assertEquals(0, pool.items.size());
+        Assert.assertNotSame(item, pool.borrowItem());
+    }
+
+    @Test
+    public void borrowWithMaxSize() {
+        Pool<TestResource> pool = new Pool<>(TestResource::new, TestResource::close);
+        pool.size(1, 1);
+        pool.checkoutTimeout(Duration.ofMillis(10));
+
+        pool.borrowItem();
+        try {
+            pool.borrowItem();
+            Assert.fail("borrow should fail with timeout");
+        } catch (PoolException e) {
+            Assert.assertEquals("POOL_TIME_OUT", e.errorCode());
+        }
+        Assert.assertEquals(1, pool.items.size());
+    }
+
+    @Test
+    public void waitNextAvailableItem() throws InterruptedException {
+        Pool<TestResource> pool = new Pool<>(TestResource::new, TestResource::close);
+        pool.size(1, 1);
+
+        PoolItem<TestResource> item = pool.borrowItem();
+        Thread thread = new Thread(() -> pool.returnItem(pool.borrowItem()));
+        thread.start();
+        pool.returnItem(item);
+        thread.join();
+
+        Assert.assertEquals(1, pool.items.size());
+        Assert.assertEquals(PoolItem.STATE_IDLE, item.state.get());
+    }
+
+    @Test
+    public void refresh() {
+        Pool<TestResource> pool = new Pool<>(TestResource::new, TestResource::close);
+        pool.size(2, 5);
+        pool.maxIdleTime(Duration.ZERO);
+
+        PoolItem<TestResource> item = pool.borrowItem();
+        pool.returnItem(item);
+        item.returnTime = System.currentTimeMillis() - 1000;
+
+        pool.refresh();
+        Assert.assertTrue(item.resource.closed);
+        Assert.assertEquals(2, pool.items.size());
+    }
+
+    @Test
+    public void refreshWithValidator() {
+        Pool<TestResource> pool = new Pool<>(TestResource::new, TestResource::close);
+        pool.size(1, 5);
+        pool.validator(resource -> !resource.closed);
+
+        PoolItem<TestResource> item = pool.borrowItem();
+        pool.returnItem(item);
+        item.resource.closed = true;   // simulate resource broken during idle
+
+        pool.refresh();
+        Assert.assertEquals(1, pool.items.size());
+        Assert.assertNotSame(item, pool.items.get(0));
+        Assert.assertEquals(PoolItem.STATE_IDLE, pool.items.get(0).state.get());
     }
 
     @Test
@@ -38,4 +120,4 @@ public class PoolTest {
             closed = true;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,13 @@
 package core.framework.impl.template;
 
+import core.framework.api.util.Charsets;
 import core.framework.api.util.ClasspathResources;
 import core.framework.api.util.Lists;
 import core.framework.impl.template.source.ClasspathTemplateSource;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Optional;
 
 /**
@@ -18,17 +20,38 @@ public class HTMLTemplateTest {
         builder.message = key -> Optional.of(key + "_value");
         HTMLTemplate template = builder.build();
 
+        TestModel model = model();
+
+        String expected = ClasspathResources.text("template-test/template-result.html").replaceAll("\r\n", "\n");
+        String result = template.process(new TemplateContext(model, new CDNManager()));
+        Assert.assertEquals(expected, result);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        template.process(new TemplateContext(model, new CDNManager()), stream);
+        Assert.assertEquals(expected, new String(stream.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void processCompiled() {
+        HTMLTemplateBuilder builder = new HTMLTemplateBuilder(new ClasspathTemplateSource("template-test/template.html"), TestModel.class);
+        builder.message = key -> Optional.of(key + "_value");
+        builder.compiled = true;
+        HTMLTemplate template = builder.build();
+
+        String result = template.process(new TemplateContext(model(), new CDNManager()));
+        Assert.assertEquals(ClasspathResources.text("template-test/template-result.html").replaceAll("\r\n", "\n"), result);
+    }
+
+    private TestModel model() {
         TestModel model = new TestModel();
         model.stringField = "string<";
         model.numberField = 100;
+        model.enumField = TestModel.TestEnum.VALUE2;
         model.items.addAll(Lists.newArrayList("a", "b", "c"));
         model.children.add(child("child1", 1.0, true));
         model.children.add(child("child2", 2.0, false));
         model.htmlField = "<pre>html</pre>";
-
-        String result = template.process(new TemplateContext(model, new CDNManager()));
-
-        Assert.assertEquals(ClasspathResources.text("template-test/template-result.html").replaceAll("\r\n", "\n"), result);
+        return model;
     }
 
     private TestModelChild child(String stringField, Double doubleField, Boolean booleanField) {
@@ -0,0 +1,79 @@
+package core.framework.impl.template;
+
+import core.framework.api.util.Charsets;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author neo
+ */
+public class TemplateOutputTest {
+    @Test
+    public void writeText() {
+        TemplateOutput output = new TemplateOutput(4);
+        String text = "ascii-\u00e9\u4e2d\uD83D\uDE00";
+        output.write(text);
+        output.write("<p>".getBytes(Charsets.UTF_8));
+
+        assertEquals(text + "<p>", output.text());
+    }
+
+    @Test
+    public void writeMalformedSurrogate() {
+        TemplateOutput output = new TemplateOutput(16);
+        output.write("a\uD83Db");
+
+        assertEquals(new String("a\uD83Db".getBytes(Charsets.UTF_8), Charsets.UTF_8), output.text());
+    }
+
+    @Test
+    public void writeEscapedHTML() {
+        assertEquals("text", escapeHTML("text"));
+        assertEquals("before&lt;p&gt;text&lt;&#47;p&gt;after", escapeHTML("before<p>text</p>after"));
+        assertEquals("&lt;html&gt;&lt;&#47;html&gt;", escapeHTML("<html></html>"));
+        assertEquals("&quot;&#39;&amp;\u00e9", escapeHTML("\"'&\u00e9"));
+    }
+
+    @Test
+    public void writeLong() {
+        TemplateOutput output = new TemplateOutput(4);
+        output.write(0);
+        output.write(" ");
+        output.write(-123);
+        output.write(" ");
+        output.write(Long.MAX_VALUE);
+        output.write(" ");
+        output.write(Long.MIN_VALUE);
+
+        assertEquals("0 -123 " + Long.MAX_VALUE + " " + Long.MIN_VALUE, output.text());
+    }
+
+    @Test
+    public void stream() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        TemplateOutput output = TemplateOutput.stream(stream);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            output.write("\u00e9-");
+            expected.append("\u00e9-");
+        }
+        byte[] large = new byte[20000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = 'a';
+            expected.append('a');
+        }
+        output.write(large);
+        output.flush();
+
+        assertEquals(expected.toString(), new String(stream.toByteArray(), Charsets.UTF_8));
+    }
+
+    private String escapeHTML(String text) {
+        TemplateOutput output = new TemplateOutput(16);
+        output.writeEscapedHTML(text);
+        return output.text();
+    }
+}
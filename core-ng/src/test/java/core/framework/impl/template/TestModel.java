@@ -10,6 +10,7 @@ import java.util.List;
 public class TestModel {
     public String stringField;
     public Integer numberField;
+    public TestEnum enumField;
     public List<String> items = Lists.newArrayList();
     public List<TestModelChild> children = Lists.newArrayList();
     public String htmlField;
@@ -33,4 +34,8 @@ public class TestModel {
     public String urlContent() {
         return "https://url";
     }
+
+    public enum TestEnum {
+        VALUE1, VALUE2
+    }
 }
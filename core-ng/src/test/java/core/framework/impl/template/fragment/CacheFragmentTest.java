@@ -0,0 +1,64 @@
+package core.framework.impl.template.fragment;
+
+import core.framework.impl.template.CDNManager;
+import core.framework.impl.template.HTMLTemplate;
+import core.framework.impl.template.HTMLTemplateBuilder;
+import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TemplateMetaContext;
+import core.framework.impl.template.TestModel;
+import core.framework.impl.template.source.StringTemplateSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author neo
+ */
+public class CacheFragmentTest {
+    HTMLTemplate template;
+
+    @Before
+    public void createTemplate() {
+        template = new HTMLTemplateBuilder(new StringTemplateSource("test", "<div c:cache=\"stringField:30s\"><p c:text=\"numberField\"></p></div>"), TestModel.class).build();
+    }
+
+    @Test
+    public void process() {
+        assertEquals("<div><p>1</p></div>", process("key1", 1));
+        assertEquals("<div><p>1</p></div>", process("key1", 2));    // cached by key
+        assertEquals("<div><p>2</p></div>", process("key2", 2));
+        assertEquals("<div><p>3</p></div>", process(null, 3));      // not cached without key
+    }
+
+    @Test
+    public void processCompiled() {
+        HTMLTemplateBuilder builder = new HTMLTemplateBuilder(new StringTemplateSource("test", "<div c:cache=\"stringField:30s\"><p c:text=\"numberField\"></p></div>"), TestModel.class);
+        builder.compiled = true;
+        template = builder.build();
+
+        assertEquals("<div><p>1</p></div>", process("key1", 1));
+        assertEquals("<div><p>1</p></div>", process("key1", 2));
+        assertEquals("<div><p>3</p></div>", process(null, 3));
+    }
+
+    @Test
+    public void expire() {
+        template = new HTMLTemplateBuilder(new StringTemplateSource("test", "<div c:cache=\"stringField:0s\"><p c:text=\"numberField\"></p></div>"), TestModel.class).build();
+
+        assertEquals("<div><p>1</p></div>", process("key1", 1));
+        assertEquals("<div><p>2</p></div>", process("key1", 2));
+    }
+
+    @Test(expected = Error.class)
+    public void invalidStatement() {
+        new CacheFragment("stringField:30d", new TemplateMetaContext(TestModel.class), null);
+    }
+
+    private String process(String stringField, Integer numberField) {
+        TestModel model = new TestModel();
+        model.stringField = stringField;
+        model.numberField = numberField;
+        return template.process(new TemplateContext(model, new CDNManager()));
+    }
+}
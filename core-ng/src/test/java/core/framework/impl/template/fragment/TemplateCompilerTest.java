@@ -0,0 +1,70 @@
+package core.framework.impl.template.fragment;
+
+import core.framework.api.util.Lists;
+import core.framework.impl.template.CDNManager;
+import core.framework.impl.template.HTMLTemplate;
+import core.framework.impl.template.HTMLTemplateBuilder;
+import core.framework.impl.template.TemplateContext;
+import core.framework.impl.template.TestModel;
+import core.framework.impl.template.source.StringTemplateSource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author neo
+ */
+public class TemplateCompilerTest {
+    @Test
+    public void compileLargeTemplate() {
+        StringBuilder template = new StringBuilder("<div c:for=\"item:items\">");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            template.append("<p c:text=\"item\"></p><span c:cache=\"stringField\" c:text=\"numberField\"></span>");
+        }
+        template.append("</div><div c:for=\"item:items\"><p c:text=\"item\"></p></div>");
+        for (String item : Lists.newArrayList("a", "b")) {
+            expected.append("<div>");
+            for (int i = 0; i < 1000; i++) {
+                expected.append("<p>").append(item).append("</p><span>1</span>");
+            }
+            expected.append("</div>");
+        }
+        expected.append("<div><p>a</p></div><div><p>b</p></div>");
+
+        HTMLTemplateBuilder builder = new HTMLTemplateBuilder(new StringTemplateSource("test", template.toString()), TestModel.class);
+        builder.compiled = true;
+        HTMLTemplate compiledTemplate = builder.build();
+
+        TestModel model = new TestModel();
+        model.stringField = "key";
+        model.numberField = 1;
+        model.items.addAll(Lists.newArrayList("a", "b"));
+        assertEquals(expected.toString(), compiledTemplate.process(new TemplateContext(model, new CDNManager())));
+    }
+
+    @Test
+    public void compileWithReservedVariableNames() {
+        StringBuilder template = new StringBuilder("<div c:for=\"output:items\"><span c:text=\"output\"></span></div><div c:for=\"context:items\">");
+        for (int i = 0; i < 300; i++) {     // large block is split into method, with for variables as params
+            template.append("<p c:text=\"context\"></p>");
+        }
+        template.append("</div>");
+        StringBuilder expected = new StringBuilder("<div><span>a</span></div><div><span>b</span></div>");
+        for (String item : Lists.newArrayList("a", "b")) {
+            expected.append("<div>");
+            for (int i = 0; i < 300; i++) {
+                expected.append("<p>").append(item).append("</p>");
+            }
+            expected.append("</div>");
+        }
+
+        HTMLTemplateBuilder builder = new HTMLTemplateBuilder(new StringTemplateSource("test", template.toString()), TestModel.class);
+        builder.compiled = true;
+        HTMLTemplate compiledTemplate = builder.build();
+
+        TestModel model = new TestModel();
+        model.items.addAll(Lists.newArrayList("a", "b"));
+        assertEquals(expected.toString(), compiledTemplate.process(new TemplateContext(model, new CDNManager())));
+    }
+}
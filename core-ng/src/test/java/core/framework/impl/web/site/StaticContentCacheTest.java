@@ -0,0 +1,61 @@
+package core.framework.impl.web.site;
+
+import core.framework.api.util.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author neo
+ */
+public class StaticContentCacheTest {
+    Path directory;
+
+    @Before
+    public void createDirectory() {
+        directory = Files.tempDir();
+    }
+
+    @After
+    public void cleanup() {
+        Files.deleteDir(directory);
+    }
+
+    @Test
+    public void loadOnFirstRequest() throws IOException {
+        Path file = file("test.png", 100);
+        StaticContentCache cache = new StaticContentCache(false);
+        assertEquals(0, cache.memorySize());
+
+        StaticContent content = cache.get(file);
+        assertNotNull(content);
+        assertEquals(100, cache.memorySize());
+        assertNull(cache.get(directory.resolve("not-exist.png")));
+    }
+
+    @Test
+    public void serveFromDiskIfMemoryIsFull() throws IOException {
+        Path file1 = file("test1.png", 100);
+        Path file2 = file("test2.png", 100);
+        StaticContentCache cache = new StaticContentCache(false, 150);
+
+        assertEquals(100, cache.get(file1).memorySize());
+        StaticContent content = cache.get(file2);
+        assertNotNull(content);
+        assertEquals(0, content.memorySize());      // over memory limit, served from disk
+        assertEquals(100, cache.memorySize());
+    }
+
+    private Path file(String name, int size) throws IOException {
+        Path file = directory.resolve(name);
+        java.nio.file.Files.write(file, new byte[size]);
+        return file;
+    }
+}
@@ -0,0 +1,142 @@
+package core.framework.impl.web.site;
+
+import core.framework.api.http.HTTPHeaders;
+import core.framework.api.http.HTTPStatus;
+import core.framework.api.util.Files;
+import core.framework.api.util.Strings;
+import core.framework.api.web.Request;
+import core.framework.api.web.Response;
+import core.framework.api.web.ResponseImpl;
+import io.undertow.util.HttpString;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+public class StaticContentTest {
+    Path directory;
+    StaticContent content;
+    Request request;
+
+    @Before
+    public void createStaticContent() throws IOException {
+        directory = Files.tempDir();
+        Path file = directory.resolve("test.css");
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("h1 { margin: 0; }\n");   // 18 bytes each line
+        }
+        java.nio.file.Files.write(file, Strings.bytes(builder.toString()));
+        content = StaticContent.load(file, Long.MAX_VALUE);
+
+        request = mock(Request.class);
+        when(request.header(anyString())).thenReturn(Optional.empty());
+    }
+
+    @After
+    public void cleanup() {
+        Files.deleteDir(directory);
+    }
+
+    @Test
+    public void response() {
+        Response response = content.response(request);
+        assertEquals(HTTPStatus.OK, response.status());
+        assertEquals("text/css; charset=utf-8", header(response, HTTPHeaders.CONTENT_TYPE));
+        assertEquals("bytes", header(response, HTTPHeaders.ACCEPT_RANGES));
+        assertEquals(HTTPHeaders.ACCEPT_ENCODING, header(response, HTTPHeaders.VARY));
+        assertNull(header(response, HTTPHeaders.CONTENT_ENCODING));
+        assertNotNull(header(response, HTTPHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void gzip() {
+        String etag = header(content.response(request), HTTPHeaders.ETAG);
+
+        when(request.header(HTTPHeaders.ACCEPT_ENCODING)).thenReturn(Optional.of("gzip, deflate"));
+        Response response = content.response(request);
+        assertEquals("gzip", header(response, HTTPHeaders.CONTENT_ENCODING));
+        assertNotEquals(etag, header(response, HTTPHeaders.ETAG));
+
+        when(request.header(HTTPHeaders.ACCEPT_ENCODING)).thenReturn(Optional.of("gzip;q=0, deflate"));
+        assertNull(header(content.response(request), HTTPHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void ifNoneMatch() {
+        String etag = header(content.response(request), HTTPHeaders.ETAG);
+
+        when(request.header(HTTPHeaders.IF_NONE_MATCH)).thenReturn(Optional.of("\"other\", " + etag));
+        Response response = content.response(request);
+        assertEquals(HTTPStatus.NOT_MODIFIED, response.status());
+        assertEquals(etag, header(response, HTTPHeaders.ETAG));
+
+        when(request.header(HTTPHeaders.IF_NONE_MATCH)).thenReturn(Optional.of("\"other\""));
+        assertEquals(HTTPStatus.OK, content.response(request).status());
+    }
+
+    @Test
+    public void ifModifiedSince() {
+        String lastModified = header(content.response(request), HTTPHeaders.LAST_MODIFIED);
+
+        when(request.header(HTTPHeaders.IF_MODIFIED_SINCE)).thenReturn(Optional.of(lastModified));
+        assertEquals(HTTPStatus.NOT_MODIFIED, content.response(request).status());
+
+        when(request.header(HTTPHeaders.IF_MODIFIED_SINCE)).thenReturn(Optional.of("Thu, 01 Jan 1970 00:00:00 GMT"));
+        assertEquals(HTTPStatus.OK, content.response(request).status());
+
+        when(request.header(HTTPHeaders.IF_MODIFIED_SINCE)).thenReturn(Optional.of("invalid"));
+        assertEquals(HTTPStatus.OK, content.response(request).status());
+    }
+
+    @Test
+    public void range() {
+        when(request.header(HTTPHeaders.ACCEPT_ENCODING)).thenReturn(Optional.of("gzip"));
+
+        assertRange("bytes=0-3", HTTPStatus.PARTIAL_CONTENT, "bytes 0-3/1800");
+        assertRange("bytes=1790-", HTTPStatus.PARTIAL_CONTENT, "bytes 1790-1799/1800");
+        assertRange("bytes=-10", HTTPStatus.PARTIAL_CONTENT, "bytes 1790-1799/1800");
+        assertRange("bytes=1790-2000", HTTPStatus.PARTIAL_CONTENT, "bytes 1790-1799/1800");
+        assertRange("bytes=1800-", HTTPStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "bytes */1800");
+        assertRange("bytes=0-1,3-4", HTTPStatus.OK, null);     // multiple ranges are not supported
+        assertRange("bytes=3-1", HTTPStatus.OK, null);
+    }
+
+    @Test
+    public void ifRange() {
+        when(request.header(HTTPHeaders.RANGE)).thenReturn(Optional.of("bytes=0-3"));
+
+        when(request.header(HTTPHeaders.IF_RANGE)).thenReturn(Optional.of("\"other\""));
+        assertEquals(HTTPStatus.OK, content.response(request).status());
+
+        String etag = header(content.response(request), HTTPHeaders.ETAG);
+        when(request.header(HTTPHeaders.IF_RANGE)).thenReturn(Optional.of(etag));
+        assertEquals(HTTPStatus.PARTIAL_CONTENT, content.response(request).status());
+    }
+
+    private void assertRange(String range, HTTPStatus status, String contentRange) {
+        when(request.header(HTTPHeaders.RANGE)).thenReturn(Optional.of(range));
+        Response response = content.response(request);
+        assertEquals(status, response.status());
+        assertEquals(contentRange, header(response, HTTPHeaders.CONTENT_RANGE));
+        assertNull(header(response, HTTPHeaders.CONTENT_ENCODING));
+    }
+
+    private String header(Response response, String name) {
+        return ((ResponseImpl) response).headers.get(new HttpString(name));
+    }
+}